@@ -0,0 +1,67 @@
+package lyfjshs.gomis.components.table;
+
+import java.awt.Color;
+import java.util.Random;
+
+import javax.swing.SwingConstants;
+
+import com.formdev.flatlaf.FlatLightLaf;
+
+/**
+ * Builds GTables configured like the student list (checkbox column, two row
+ * actions) and rows shaped like its data, for the table benchmarks.
+ */
+final class BenchmarkTables {
+	static final int NAME_COLUMN = 2;
+	private static final String[] COLUMN_NAMES = {"Select", "LRN", "Name", "Sex", "Age", "Grade", "Section", "Track/Strand", "Actions"};
+	private static final Class<?>[] COLUMN_TYPES = {Boolean.class, String.class, String.class, String.class, Integer.class, String.class, String.class, String.class, Object.class};
+	private static final boolean[] EDITABLE = {true, false, false, false, false, false, false, false, true};
+	private static final double[] WIDTHS = {0.05, 0.12, 0.20, 0.05, 0.05, 0.08, 0.10, 0.15, 0.15};
+	private static final int[] ALIGNMENTS = {
+		SwingConstants.CENTER, SwingConstants.LEFT, SwingConstants.LEFT, SwingConstants.CENTER, SwingConstants.CENTER,
+		SwingConstants.LEFT, SwingConstants.LEFT, SwingConstants.LEFT, SwingConstants.CENTER
+	};
+	private static final String[] LAST_NAMES = {"Santos", "Reyes", "Cruz", "Bautista", "Ocampo", "Garcia", "Mendoza", "Dela Cruz"};
+	private static final String[] FIRST_NAMES = {"Juan", "Maria", "Jose", "Ana", "Mark", "Angel", "Rosa", "John Paul"};
+
+	private BenchmarkTables() {
+	}
+
+	/**
+	 * Creates an empty student table with the application's look and feel.
+	 *
+	 * @return the table
+	 */
+	static GTable newStudentTable() {
+		FlatLightLaf.setup();
+		DefaultTableActionManager actions = new DefaultTableActionManager()
+				.addAction("View", (table, row) -> { }, new Color(0, 123, 255), null)
+				.addAction("Edit", (table, row) -> { }, new Color(255, 193, 7), null);
+		GTable table = new GTable(new Object[][]{}, COLUMN_NAMES, COLUMN_TYPES, EDITABLE, WIDTHS, ALIGNMENTS, true, actions);
+		table.setSize(1000, 600);
+		return table;
+	}
+
+	/**
+	 * Generates student rows. Names repeat the way real surnames do, with a
+	 * numeric suffix so there are many distinct values to sort.
+	 *
+	 * @param count the number of rows
+	 * @return the rows, in LRN order
+	 */
+	static Object[][] studentRows(int count) {
+		Random random = new Random(42);
+		Object[][] rows = new Object[count][];
+		for (int i = 0; i < count; i++) {
+			String name = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + random.nextInt(1000) + ", "
+					+ FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			int grade = 7 + random.nextInt(6);
+			rows[i] = new Object[]{
+				Boolean.FALSE, String.valueOf(100_000_000_000L + i), name, random.nextBoolean() ? "Male" : "Female",
+				5 + grade + random.nextInt(3), String.valueOf(grade), "Section " + (char) ('A' + random.nextInt(8)),
+				grade > 10 ? "Academic - STEM" : null, ""
+			};
+		}
+		return rows;
+	}
+}
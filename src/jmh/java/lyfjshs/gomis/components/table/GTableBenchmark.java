@@ -0,0 +1,83 @@
+package lyfjshs.gomis.components.table;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of handing rows to GTable and of showing a page of them, by data size
+ * and page size, plus re-sorting by the name column.
+ * <p>
+ * Swing is single-threaded, and the benchmark thread is the only one touching
+ * the table, so the calls are made directly rather than through the EDT.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GTableBenchmark {
+	@Param({"1000", "100000", "500000"})
+	public int rows;
+
+	@Param({"25", "250"})
+	public int pageSize;
+
+	private GTable table;
+	private Object[][] data;
+	private boolean descending;
+
+	@Setup
+	public void setUp() {
+		data = BenchmarkTables.studentRows(rows);
+		table = BenchmarkTables.newStudentTable();
+		table.setPaginationEnabled(true, pageSize);
+		table.setData(data);
+	}
+
+	/**
+	 * Replaces the table's data and shows its first page.
+	 */
+	@Benchmark
+	public int setData() {
+		table.setData(data);
+		return table.getRowCount();
+	}
+
+	/**
+	 * Re-shows the current page (GTable's displayCurrentPage path).
+	 */
+	@Benchmark
+	public int displayCurrentPage() {
+		table.setPaginationEnabled(true, pageSize);
+		return table.getRowCount();
+	}
+
+	/**
+	 * Reverses the sort by name, as a second click on the header does.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int toggleSortByName() {
+		descending = !descending;
+		table.setSortKeys(Collections.singletonList(new RowSorter.SortKey(BenchmarkTables.NAME_COLUMN,
+				descending ? SortOrder.DESCENDING : SortOrder.ASCENDING)));
+		return table.getRowCount();
+	}
+}
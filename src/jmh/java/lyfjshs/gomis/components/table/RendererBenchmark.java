@@ -0,0 +1,132 @@
+package lyfjshs.gomis.components.table;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.CellRendererPane;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.table.TableCellRenderer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of rendering one cell of the checkbox and actions columns: preparing
+ * the renderer component and painting it the way JTable's UI does, through a
+ * CellRendererPane onto an offscreen image.
+ * <p>
+ * {@link #actionColumnRendererRebuilt()} paints the same cells with the
+ * actions renderer as it was before it kept its buttons, creating them anew
+ * for every cell. The benchmark profile runs with {@code -prof gc}; compare
+ * the two action benchmarks' {@code gc.alloc.rate.norm} (bytes per cell).
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RendererBenchmark {
+	private static final int ROWS = 100;
+
+	private GTable table;
+	private TableCellRenderer rebuildingRenderer;
+	private final CellRendererPane rendererPane = new CellRendererPane();
+	private BufferedImage image;
+	private Graphics2D graphics;
+	private int row;
+
+	@Setup
+	public void setUp() {
+		table = BenchmarkTables.newStudentTable();
+		table.setPaginationEnabled(true, ROWS);
+		table.setData(BenchmarkTables.studentRows(ROWS));
+		table.doLayout();
+		rebuildingRenderer = new RebuildingActionRenderer(Arrays.asList(
+				new TableRowAction("View", (t, r) -> { }, new Color(0, 123, 255), null),
+				new TableRowAction("Edit", (t, r) -> { }, new Color(255, 193, 7), null)));
+		image = new BufferedImage(table.getWidth(), table.getRowHeight(), BufferedImage.TYPE_INT_ARGB);
+		graphics = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public Component booleanRenderer() {
+		return paintCell(0);
+	}
+
+	@Benchmark
+	public Component actionColumnRenderer() {
+		return paintCell(table.getColumnCount() - 1);
+	}
+
+	@Benchmark
+	public Component actionColumnRendererRebuilt() {
+		return paintCell(table.getColumnCount() - 1, rebuildingRenderer);
+	}
+
+	private Component paintCell(int column) {
+		return paintCell(column, null);
+	}
+
+	private Component paintCell(int column, TableCellRenderer override) {
+		row = (row + 1) % ROWS; // Cycle through the rows like a scroll would
+		TableCellRenderer renderer = override != null ? override : table.getCellRenderer(row, column);
+		Component c = table.prepareRenderer(renderer, row, column);
+		Rectangle cell = table.getCellRect(row, column, false);
+		rendererPane.paintComponent(graphics, c, table, cell.x, 0, cell.width, cell.height, true);
+		return c;
+	}
+
+	/**
+	 * The actions renderer before its buttons were cached: every cell empties
+	 * the panel and adds a new button per action.
+	 */
+	private static final class RebuildingActionRenderer implements TableCellRenderer {
+		private final List<TableRowAction> actions;
+		private final JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 0));
+
+		RebuildingActionRenderer(List<TableRowAction> actions) {
+			this.actions = actions;
+		}
+
+		@Override
+		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+				boolean hasFocus, int row, int column) {
+			panel.removeAll();
+			panel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
+			for (TableRowAction action : actions) {
+				JButton button = new JButton(action.getText());
+				button.setBackground(action.getButtonColor());
+				if (action.getIcon() != null) {
+					button.setIcon(action.getIcon());
+				}
+				panel.add(button);
+			}
+			return panel;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package tableList;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * BenchmarkDatabase Class
+ * Stand-in for the MariaDB server: an in-memory {@link EmbeddedStudentDatabase},
+ * the same backend the viewer uses offline, filled with generated students.
+ * {@link #install} makes it DBConnection's data source, so DatabaseManager
+ * runs unchanged.
+ * <p>
+ * The students are generated from a fixed seed, so every run sees the same
+ * data. Timings include H2's own execution cost, so they are comparable
+ * between runs, not with the real server.
+ * </p>
+ */
+final class BenchmarkDatabase {
+    static final String[] LAST_NAMES = {
+        "Santos", "Reyes", "Cruz", "Bautista", "Ocampo", "Garcia", "Mendoza", "Torres",
+        "Tomas", "Andrada", "Castillo", "Flores", "Villanueva", "Ramos", "Castro", "Rivera",
+        "Aquino", "Navarro", "Salazar", "Mercado", "Dela Cruz", "Del Rosario", "De Leon", "Gonzales"
+    };
+    static final String[] FIRST_NAMES = {
+        "Juan", "Maria", "Jose", "Ana", "Mark", "Angel", "Rosa", "Carlo", "Liza", "John Paul",
+        "Kristine", "Miguel", "Andrea", "Paolo", "Camille", "Joshua", "Nicole", "Rafael", "Bea", "Gabriel"
+    };
+    static final String[] GRADE_LEVELS = {"7", "8", "9", "10", "11", "12"};
+    static final String[] TRACK_STRANDS = {"Academic - STEM", "Academic - ABM", "Academic - HUMSS", "TVL - ICT"};
+    static final int SECTIONS_PER_GRADE = 8;
+
+    private static final long FIRST_LRN = 100_000_000_000L;
+    private static final int INSERT_BATCH = 1000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates and fills a database, and makes it DBConnection's data source.
+     * @param name     The in-memory database name; each name is a separate database.
+     * @param students The number of students to generate.
+     * @throws SQLException If the database could not be created.
+     */
+    static void install(String name, int students) throws SQLException {
+        EmbeddedStudentDatabase database = EmbeddedStudentDatabase.inMemory(name);
+        try (Connection conn = database.getConnection()) {
+            EmbeddedStudentDatabase.createSchema(conn, true);
+            fill(conn, students, new Random(42));
+            EmbeddedStudentDatabase.setDataVersion(conn, "fixture:" + students);
+        }
+        DBConnection.useDataSource(database);
+    }
+
+    private static void fill(Connection conn, int students, Random random) throws SQLException {
+        int schoolForms = GRADE_LEVELS.length * SECTIONS_PER_GRADE;
+        try (PreparedStatement sf = conn.prepareStatement("INSERT INTO SCHOOL_FORM VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= schoolForms; id++) {
+                int grade = (id - 1) / SECTIONS_PER_GRADE;
+                sf.setInt(1, id);
+                sf.setString(2, GRADE_LEVELS[grade]);
+                sf.setString(3, "Section " + (char) ('A' + (id - 1) % SECTIONS_PER_GRADE));
+                sf.setString(4, grade >= 4 ? TRACK_STRANDS[id % TRACK_STRANDS.length] : null); // Senior high only
+                sf.addBatch();
+            }
+            sf.executeBatch();
+        }
+
+        try (PreparedStatement st = conn.prepareStatement("INSERT INTO STUDENT VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < students; i++) {
+                int schoolForm = 1 + random.nextInt(schoolForms);
+                int grade = (schoolForm - 1) / SECTIONS_PER_GRADE;
+                st.setString(1, String.valueOf(FIRST_LRN + i));
+                st.setString(2, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                st.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                st.setString(4, random.nextInt(10) == 0 ? null : LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                st.setString(5, random.nextBoolean() ? "Male" : "Female");
+                st.setInt(6, 12 + grade + random.nextInt(3));
+                st.setInt(7, schoolForm);
+                st.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    st.executeBatch();
+                }
+            }
+            st.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package tableList;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading students from a ResultSet into a StudentStore through
+ * DatabaseManager, against the embedded stand-in database: one page, one
+ * counted first page, and the whole filtered list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterializationBenchmark {
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"1000", "20000"})
+    public int students;
+
+    @Param({"none", "grade-section"})
+    public String filter;
+
+    private final DatabaseManager dbManager = new DatabaseManager();
+    private FilterCriteria criteria;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.install("materialize" + students, students);
+        criteria = QuerySqlBenchmark.criteria(filter);
+    }
+
+    @Benchmark
+    public List<Student> page() {
+        return dbManager.getStudents(1, PAGE_SIZE, criteria);
+    }
+
+    @Benchmark
+    public StudentPage firstPageCounted() {
+        return dbManager.getFirstStudentPage(PAGE_SIZE, criteria);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Student> allStudents() {
+        return dbManager.getStudents(1, Integer.MAX_VALUE, criteria);
+    }
+}
@@ -0,0 +1,83 @@
+package tableList;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SQL building for getStudents and getTotalStudentCount: compiling the
+ * criteria and getting the statement for its shape, without executing it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuerySqlBenchmark {
+    @Param({"none", "search", "grade-section", "all-filters"})
+    public String filter;
+
+    private final DatabaseManager dbManager = new DatabaseManager();
+    private final StudentQueryCompiler compiler = new StudentQueryCompiler();
+    private FilterCriteria criteria;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.install("sql", 100); // The count statement depends on the schema's keys
+        compiler.setAgeBounds(12, 19);
+        criteria = criteria(filter);
+    }
+
+    @Benchmark
+    public String pageSql() {
+        return dbManager.studentsSql(compiler.compile(criteria), true);
+    }
+
+    @Benchmark
+    public String countSql() {
+        return dbManager.countSql(compiler.compile(criteria));
+    }
+
+    static FilterCriteria criteria(String filter) {
+        FilterCriteria c = new FilterCriteria();
+        c.minAge = 12;
+        c.maxAge = 19;
+        switch (filter) {
+            case "none":
+                break;
+            case "search":
+                c.searchTerm = "dela cruz";
+                break;
+            case "grade-section":
+                c.filterGradeLevel = "11";
+                c.filterSection = "Section B";
+                break;
+            case "all-filters":
+                c.searchTerm = "maria";
+                c.filterLastName = "san";
+                c.filterMiddleName = "r";
+                c.middleInitialOnly = true;
+                c.filterGradeLevel = "11";
+                c.filterTrackStrand = "Academic - STEM";
+                c.filterFemale = false;
+                c.minAge = 15;
+                c.maxAge = 17;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter: " + filter);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,135 @@
+package tableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Building and holding students in the columnar StudentStore versus one
+ * object with nine Strings per student, the layout StudentStore replaced.
+ * <p>
+ * Each cell is a fresh String, as a JDBC driver returns them. The
+ * {@code footprint} benchmark reports the retained heap of both layouts,
+ * measured with JOL once per trial, as the {@code storeBytes} and
+ * {@code objectBytes} counters; its own time is meaningless.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentStoreBenchmark {
+    @Param({"10000", "200000"})
+    public int rows;
+
+    private String[][] cells;
+    private int[] ages;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cells = new String[rows][];
+        ages = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            int grade = random.nextInt(BenchmarkDatabase.GRADE_LEVELS.length);
+            cells[i] = new String[]{
+                String.valueOf(100_000_000_000L + i),
+                BenchmarkDatabase.LAST_NAMES[random.nextInt(BenchmarkDatabase.LAST_NAMES.length)],
+                BenchmarkDatabase.FIRST_NAMES[random.nextInt(BenchmarkDatabase.FIRST_NAMES.length)],
+                BenchmarkDatabase.LAST_NAMES[random.nextInt(BenchmarkDatabase.LAST_NAMES.length)],
+                random.nextBoolean() ? "Male" : "Female",
+                BenchmarkDatabase.GRADE_LEVELS[grade],
+                "Section " + (char) ('A' + random.nextInt(BenchmarkDatabase.SECTIONS_PER_GRADE)),
+                grade >= 4 ? BenchmarkDatabase.TRACK_STRANDS[random.nextInt(BenchmarkDatabase.TRACK_STRANDS.length)] : null
+            };
+            ages[i] = 12 + grade + random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    public StudentStore buildStore() {
+        StudentStore store = new StudentStore(rows);
+        for (int i = 0; i < rows; i++) {
+            String[] c = cells[i];
+            store.add(fresh(c[0]), fresh(c[1]), fresh(c[2]), fresh(c[3]), fresh(c[4]), ages[i],
+                    fresh(c[5]), fresh(c[6]), fresh(c[7]));
+        }
+        return store;
+    }
+
+    @Benchmark
+    public List<StudentRecord> buildObjects() {
+        List<StudentRecord> records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String[] c = cells[i];
+            records.add(new StudentRecord(fresh(c[0]), fresh(c[1]), fresh(c[2]), fresh(c[3]), fresh(c[4]), ages[i],
+                    fresh(c[5]), fresh(c[6]), fresh(c[7])));
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long footprint(Footprint footprint) {
+        return footprint.storeBytes;
+    }
+
+    private static String fresh(String value) {
+        return value == null ? null : new String(value.toCharArray());
+    }
+
+    /**
+     * Retained sizes of both layouts, reported as secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long storeBytes;
+        public long objectBytes;
+
+        @Setup
+        public void measure(StudentStoreBenchmark benchmark) {
+            storeBytes = GraphLayout.parseInstance(benchmark.buildStore()).totalSize();
+            objectBytes = GraphLayout.parseInstance(benchmark.buildObjects()).totalSize();
+        }
+    }
+
+    /**
+     * StudentRecord Class
+     * One object per student with a field per column, as Student was before StudentStore.
+     */
+    static final class StudentRecord {
+        final String lrn, lastName, firstName, middleName, sex;
+        final int age;
+        final String gradeLevel, section, trackAndStrand;
+
+        StudentRecord(String lrn, String lastName, String firstName, String middleName, String sex, int age,
+                      String gradeLevel, String section, String trackAndStrand) {
+            this.lrn = lrn;
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.middleName = middleName;
+            this.sex = sex;
+            this.age = age;
+            this.gradeLevel = gradeLevel;
+            this.section = section;
+            this.trackAndStrand = trackAndStrand;
+        }
+    }
+}
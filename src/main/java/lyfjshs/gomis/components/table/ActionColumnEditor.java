@@ -3,18 +3,21 @@ package lyfjshs.gomis.components.table;
 import javax.swing.*;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.List;
 
 /**
  * Custom TableCellEditor for handling action button clicks in a table column.
+ * <p>
+ * The buttons and their listeners are created once; each listener acts on
+ * the table and row of the cell currently being edited.
+ * </p>
  */
 public class ActionColumnEditor extends AbstractCellEditor implements TableCellEditor {
 	private final List<TableRowAction> actions;
 	private final JPanel panel;
 	private JTable table;
 	private int currentRow;
+	private int builtActionCount = -1;
 
 	/**
 	 * Creates a new ActionColumnEditor with the specified actions.
@@ -25,15 +28,15 @@ public class ActionColumnEditor extends AbstractCellEditor implements TableCellE
 		this.actions = actions;
 		this.panel = new JPanel();
 		this.panel.setLayout(new FlowLayout(FlowLayout.CENTER, 5, 0));
+		buildButtons();
 	}
 
-	@Override
-	public Component getTableCellEditorComponent(JTable table, Object value,
-											   boolean isSelected, int row, int column) {
-		this.table = table;
-		this.currentRow = row;
+	/**
+	 * Creates one button per action. Called again only if actions were added
+	 * after the editor was created.
+	 */
+	private void buildButtons() {
 		panel.removeAll();
-
 		for (TableRowAction action : actions) {
 			JButton button = new JButton(action.getText());
 			button.setBackground(action.getButtonColor());
@@ -41,17 +44,24 @@ public class ActionColumnEditor extends AbstractCellEditor implements TableCellE
 				button.setIcon(action.getIcon());
 			}
 
-			button.addActionListener(new ActionListener() {
-				@Override
-				public void actionPerformed(ActionEvent e) {
-					action.getAction().accept(table, currentRow);
-					fireEditingStopped();
-				}
+			button.addActionListener(e -> {
+				action.getAction().accept(table, currentRow);
+				fireEditingStopped();
 			});
 
 			panel.add(button);
 		}
+		builtActionCount = actions.size();
+	}
 
+	@Override
+	public Component getTableCellEditorComponent(JTable table, Object value,
+											   boolean isSelected, int row, int column) {
+		this.table = table;
+		this.currentRow = row;
+		if (builtActionCount != actions.size()) {
+			buildButtons();
+		}
 		return panel;
 	}
 
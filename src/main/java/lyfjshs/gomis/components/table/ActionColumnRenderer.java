@@ -7,10 +7,15 @@ import java.util.List;
 
 /**
  * Custom TableCellRenderer for rendering action buttons in a table column.
+ * <p>
+ * The buttons are created once and reused for every cell; rendering a cell
+ * only updates the panel background, so painting allocates no components.
+ * </p>
  */
 public class ActionColumnRenderer implements TableCellRenderer {
     private final List<TableRowAction> actions;
     private final JPanel panel;
+    private int builtActionCount = -1;
 
     /**
      * Creates a new ActionColumnRenderer with the specified actions.
@@ -21,15 +26,15 @@ public class ActionColumnRenderer implements TableCellRenderer {
         this.actions = actions;
         this.panel = new JPanel();
         this.panel.setLayout(new FlowLayout(FlowLayout.CENTER, 5, 0));
+        buildButtons();
     }
 
-    @Override
-    public Component getTableCellRendererComponent(JTable table, Object value,
-                                                 boolean isSelected, boolean hasFocus,
-                                                 int row, int column) {
+    /**
+     * Creates one button per action. Called again only if actions were added
+     * after the renderer was created.
+     */
+    private void buildButtons() {
         panel.removeAll();
-        panel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
-
         for (TableRowAction action : actions) {
             JButton button = new JButton(action.getText());
             button.setBackground(action.getButtonColor());
@@ -38,7 +43,17 @@ public class ActionColumnRenderer implements TableCellRenderer {
             }
             panel.add(button);
         }
+        builtActionCount = actions.size();
+    }
 
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+                                                 boolean isSelected, boolean hasFocus,
+                                                 int row, int column) {
+        if (builtActionCount != actions.size()) {
+            buildButtons();
+        }
+        panel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
         return panel;
     }
 }
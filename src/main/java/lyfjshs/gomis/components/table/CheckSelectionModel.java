@@ -0,0 +1,159 @@
+package lyfjshs.gomis.components.table;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+/**
+ * Which rows of a GTable are checked in its checkbox column, across every
+ * page. Rows are identified by a stable long id (see
+ * {@link GTable#setRowIdFunction}), so a check survives paging, re-sorting
+ * and re-querying, and the row arrays are never written to.
+ * <p>
+ * Checked ids are kept in a compressed bitmap. "Select all matching" flips
+ * the model into inverted mode in constant time: every matching row counts as
+ * checked, and the bitmap holds the rows unchecked since. Inverted mode only
+ * makes sense for the result it was made for, so GTable clears it when its
+ * data is replaced.
+ * </p>
+ * <p>
+ * Use from the event dispatch thread; take a {@link #snapshot()} to read the
+ * selection elsewhere.
+ * </p>
+ */
+public class CheckSelectionModel {
+	private SparseLongBitSet marked = new SparseLongBitSet(); // Checked ids, or unchecked ones while inverted
+	private boolean allMatching;
+	private long matchingCount; // Size of the result "all matching" refers to
+	private final EventListenerList listeners = new EventListenerList();
+	private final ChangeEvent changeEvent = new ChangeEvent(this);
+
+	/**
+	 * Checks whether a row is checked.
+	 *
+	 * @param id the row id
+	 * @return true if checked
+	 */
+	public boolean isSelected(long id) {
+		return allMatching != marked.contains(id);
+	}
+
+	/**
+	 * Checks or unchecks a row.
+	 *
+	 * @param id       the row id
+	 * @param selected whether the row should be checked
+	 */
+	public void setSelected(long id, boolean selected) {
+		boolean changed = selected != allMatching ? marked.add(id) : marked.remove(id);
+		if (changed) {
+			fireStateChanged();
+		}
+	}
+
+	/**
+	 * Checks every row of the current result, on every page, without visiting them.
+	 *
+	 * @param matchingCount the number of rows in the result
+	 */
+	public void selectAllMatching(long matchingCount) {
+		marked = new SparseLongBitSet();
+		allMatching = true;
+		this.matchingCount = matchingCount;
+		fireStateChanged();
+	}
+
+	/**
+	 * Unchecks every row.
+	 */
+	public void clearSelection() {
+		if (!allMatching && marked.isEmpty()) {
+			return;
+		}
+		marked = new SparseLongBitSet();
+		allMatching = false;
+		fireStateChanged();
+	}
+
+	/**
+	 * Checks whether "select all matching" is in effect. The checked rows are
+	 * then the rows of the current result for which {@link #isSelected(long)}
+	 * holds; {@link #forEachSelected(LongConsumer)} cannot list them.
+	 *
+	 * @return true in inverted mode
+	 */
+	public boolean isAllMatchingSelected() {
+		return allMatching;
+	}
+
+	/**
+	 * Updates the size of the result "all matching" refers to, e.g. after it
+	 * was recounted.
+	 *
+	 * @param matchingCount the number of rows in the result
+	 */
+	public void setMatchingCount(long matchingCount) {
+		if (this.matchingCount != matchingCount) {
+			this.matchingCount = matchingCount;
+			if (allMatching) {
+				fireStateChanged();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of checked rows.
+	 *
+	 * @return the count, in constant time
+	 */
+	public long getSelectedCount() {
+		return allMatching ? Math.max(0, matchingCount - marked.cardinality()) : marked.cardinality();
+	}
+
+	public boolean isSelectionEmpty() {
+		return getSelectedCount() == 0;
+	}
+
+	/**
+	 * Passes the id of every checked row to the action, in ascending order.
+	 *
+	 * @param action receives the ids
+	 * @throws IllegalStateException if all matching rows are selected; walk
+	 *                               the result and test {@link #isSelected(long)} instead
+	 */
+	public void forEachSelected(LongConsumer action) {
+		if (allMatching) {
+			throw new IllegalStateException("All matching rows are selected; test the result's ids with isSelected");
+		}
+		marked.forEach(action);
+	}
+
+	/**
+	 * Takes an immutable copy of the selection, for a bulk action running on
+	 * another thread.
+	 *
+	 * @return a test for whether an id was checked when the copy was taken
+	 */
+	public LongPredicate snapshot() {
+		SparseLongBitSet copy = marked.copy();
+		boolean inverted = allMatching;
+		return id -> inverted != copy.contains(id);
+	}
+
+	public void addChangeListener(ChangeListener listener) {
+		listeners.add(ChangeListener.class, listener);
+	}
+
+	public void removeChangeListener(ChangeListener listener) {
+		listeners.remove(ChangeListener.class, listener);
+	}
+
+	private void fireStateChanged() {
+		for (ChangeListener listener : listeners.getListeners(ChangeListener.class)) {
+			listener.stateChanged(changeEvent);
+		}
+	}
+}
@@ -2,22 +2,36 @@ package lyfjshs.gomis.components.table;
 
 import java.awt.BorderLayout;
 import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Graphics;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
 
 import javax.swing.DefaultCellEditor;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.ListSelectionModel;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
@@ -32,6 +46,7 @@ public class GTable extends FlatTable {
     private int[] columnAlignments;
     private boolean hasCheckbox;
     private TableActionManager actionManager;
+    private final PagedTableModel pagedModel;
     
     // Pagination fields
     private int pageSize = 10;
@@ -45,39 +60,52 @@ public class GTable extends FlatTable {
     private JButton firstPageButton;
     private JButton lastPageButton;
     private boolean paginationEnabled = false;
+    private TableDataProvider dataProvider; // When set, pages are fetched on demand instead of read from allData
+    
+    // Background loading fields (provider mode)
+    private JProgressBar loadingIndicator;
+    private boolean loading = false;
+    private SwingWorker<List<Object[]>, Void> pageLoader;
+    private TableDataProvider loadingProvider; // Provider used by pageLoader
+    private int loadGeneration = 0; // Incremented per load so superseded results are dropped
+    
+    // Sorting fields (in-memory mode)
+    private static final int MAX_SORT_KEYS = 3;
+    private final RowSortIndex sortIndex = new RowSortIndex();
+    private final List<Object[]> sortedRows = new SortedRows();
+    private List<RowSorter.SortKey> sortKeys = Collections.emptyList();
+    private int[] viewOrder; // Index into allData of each displayed row, or null for allData's own order
+    
+    private LongConsumer paintTimeListener; // Receives paint durations in nanoseconds, if set
+    
+    // Checkbox column selection, kept by row id across pages
+    private final CheckSelectionModel checkSelection = new CheckSelectionModel();
+    private ToLongFunction<Object[]> rowIdFunction; // Null while checks are stored in the rows
 
     public GTable(Object[][] data, String[] columnNames, Class<?>[] columnTypes,
             boolean[] editableColumns, double[] columnWidths, int[] alignments,
             boolean includeCheckbox, TableActionManager actionManager) {
 
-        DefaultTableModel defaultTableModel = new DefaultTableModel(data, columnNames) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return columnTypes[columnIndex];
-            }
-
-            @Override
-            public boolean isCellEditable(int rowIndex, int columnIndex) {
-                return editableColumns[columnIndex];
-            }
-        };
-
-        this.setModel(defaultTableModel);
+        this.pagedModel = new PagedTableModel(columnNames, columnTypes, editableColumns);
+        this.setModel(pagedModel);
 
         this.hasCheckbox = includeCheckbox;
         this.columnProportions = columnWidths.clone();
         this.columnAlignments = alignments.clone();
         this.actionManager = actionManager;
         
-        // Store all data for pagination
+        // Store all data for pagination; the model views it without copying
         if (data != null) {
-            for (Object[] row : data) {
-                allData.add(row);
-            }
+            allData.addAll(Arrays.asList(data));
             totalRows = allData.size();
         }
+        pagedModel.setRows(allData);
 
         configureTable();
+        checkSelection.addChangeListener(e -> {
+            updateHeaderNames();
+            repaint();
+        });
         applyColumnWidths();
         applyColumnAlignments();
         
@@ -105,6 +133,9 @@ public class GTable extends FlatTable {
         nextPageButton = new JButton(">");
         lastPageButton = new JButton(">>");
         pageInfoLabel = new JLabel("Page 1 of 1");
+        loadingIndicator = new JProgressBar();
+        loadingIndicator.setIndeterminate(true);
+        loadingIndicator.setVisible(false);
         
         // Add action listeners
         firstPageButton.addActionListener(e -> goToFirstPage());
@@ -121,6 +152,7 @@ public class GTable extends FlatTable {
         buttonPanel.add(lastPageButton);
         
         paginationPanel.add(buttonPanel, BorderLayout.CENTER);
+        paginationPanel.add(loadingIndicator, BorderLayout.EAST);
         
         // Initially hide pagination panel
         paginationPanel.setVisible(false);
@@ -132,6 +164,9 @@ public class GTable extends FlatTable {
      * @param pageSize Number of rows per page (if enabled)
      */
     public void setPaginationEnabled(boolean enabled, int pageSize) {
+        if (pageSize != this.pageSize) {
+            currentPage = 1; // The old page number means other rows now
+        }
         this.paginationEnabled = enabled;
         this.pageSize = pageSize;
         
@@ -160,7 +195,7 @@ public class GTable extends FlatTable {
         int totalPages = (int) Math.ceil((double) totalRows / pageSize);
         
         // Update page info
-        pageInfoLabel.setText("Page " + currentPage + " of " + totalPages);
+        pageInfoLabel.setText(loading ? "Loading..." : "Page " + currentPage + " of " + totalPages);
         
         // Enable/disable buttons based on current page
         firstPageButton.setEnabled(currentPage > 1);
@@ -173,27 +208,149 @@ public class GTable extends FlatTable {
      * Displays the current page of data
      */
     private void displayCurrentPage() {
-        DefaultTableModel model = (DefaultTableModel) getModel();
-        model.setRowCount(0);
+        if (dataProvider != null) {
+            loadFromProvider(false);
+            return;
+        }
         
-        int startIndex = (currentPage - 1) * pageSize;
+        int startIndex = Math.min((currentPage - 1) * pageSize, totalRows);
         int endIndex = Math.min(startIndex + pageSize, totalRows);
         
-        for (int i = startIndex; i < endIndex; i++) {
-            model.addRow(allData.get(i));
-        }
+        pagedModel.setWindow(viewRows(), startIndex, endIndex - startIndex);
     }
     
     /**
      * Displays all data without pagination
      */
     private void displayAllData() {
-        DefaultTableModel model = (DefaultTableModel) getModel();
-        model.setRowCount(0);
+        if (dataProvider != null) {
+            loadFromProvider(false);
+            return;
+        }
         
-        for (Object[] row : allData) {
-            model.addRow(row);
+        showRows(viewRows());
+    }
+    
+    /**
+     * Gets the rows in display order: the backing rows, through the sort
+     * permutation when one is active
+     * @return The rows to show
+     */
+    private List<Object[]> viewRows() {
+        return viewOrder == null ? allData : sortedRows;
+    }
+    
+    /**
+     * Points the model at the given rows
+     * @param rows The rows to show
+     */
+    private void showRows(List<Object[]> rows) {
+        pagedModel.setRows(rows);
+    }
+    
+    /**
+     * Fetches the current page from the data provider on a background thread.
+     * A newer load cancels the one in flight, and results from a superseded
+     * load are discarded so stale rows never replace fresh ones.
+     * @param countRows Whether to (re)count the provider's rows as well
+     */
+    private void loadFromProvider(boolean countRows) {
+        cancelPendingLoad();
+        
+        final TableDataProvider provider = dataProvider;
+        final int page = paginationEnabled ? currentPage : 1;
+        final int size = paginationEnabled ? pageSize : Integer.MAX_VALUE;
+        final int generation = ++loadGeneration;
+        
+        setLoading(true);
+        loadingProvider = provider;
+        pageLoader = new SwingWorker<List<Object[]>, Void>() {
+            private int count = -1;
+            
+            @Override
+            protected List<Object[]> doInBackground() {
+                // Page first: providers may learn the count while fetching it
+                List<Object[]> rows = provider.fetchPage(page, size);
+                if (countRows) {
+                    count = provider.getRowCount();
+                }
+                return rows;
+            }
+            
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return; // Superseded by a newer load
+                }
+                pageLoader = null;
+                loadingProvider = null;
+                List<Object[]> rows = Collections.emptyList();
+                if (!isCancelled()) {
+                    try {
+                        rows = get();
+                        if (count >= 0) {
+                            setTotalRows(count);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        e.getCause().printStackTrace();
+                    }
+                }
+                showRows(rows);
+                setLoading(false);
+            }
+        };
+        pageLoader.execute();
+    }
+    
+    /**
+     * Cancels the page load in flight, if any, including its running query
+     */
+    private void cancelPendingLoad() {
+        if (pageLoader != null && !pageLoader.isDone()) {
+            pageLoader.cancel(true);
+            if (loadingProvider != null) {
+                loadingProvider.cancel();
+            }
         }
+        pageLoader = null;
+        loadingProvider = null;
+    }
+    
+    /**
+     * Shows or hides the loading indicator. The table sets this itself while a
+     * provider page loads; callers may also set it around their own background work.
+     * Fires a "loading" property change.
+     * @param loading Whether data is being loaded
+     */
+    public void setLoading(boolean loading) {
+        boolean old = this.loading;
+        this.loading = loading;
+        loadingIndicator.setVisible(loading);
+        setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+        updatePagination();
+        firePropertyChange("loading", old, loading);
+    }
+    
+    /**
+     * Checks whether data is being loaded
+     * @return True while a load is in progress
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+    
+    /**
+     * Updates the total row count and fires a "totalRows" property change
+     * @param rows The new total
+     */
+    private void setTotalRows(int rows) {
+        int old = totalRows;
+        totalRows = rows;
+        checkSelection.setMatchingCount(rows);
+        updatePagination();
+        firePropertyChange("totalRows", old, rows);
     }
     
     /**
@@ -201,13 +358,16 @@ public class GTable extends FlatTable {
      * @param data The new data to display
      */
     public void setData(Object[][] data) {
+        cancelPendingLoad();
+        dataProvider = null;
         allData.clear();
+        resultReplaced();
         if (data != null) {
-            for (Object[] row : data) {
-                allData.add(row);
-            }
+            allData.addAll(Arrays.asList(data));
         }
-        totalRows = allData.size();
+        sortIndex.rowsChanged();
+        resort();
+        setTotalRows(allData.size());
         
         if (paginationEnabled) {
             currentPage = 1;
@@ -218,37 +378,230 @@ public class GTable extends FlatTable {
         }
     }
     
+    /**
+     * Switches the table to server-side paging: rows are no longer held by the
+     * table but fetched from the provider one page at a time. The row count and
+     * first page are loaded in the background; a "totalRows" property change
+     * is fired once the count is known.
+     * @param provider The source of rows, or null to return to an empty in-memory table
+     */
+    public void setDataProvider(TableDataProvider provider) {
+        cancelPendingLoad();
+        allData.clear();
+        resultReplaced();
+        dataProvider = provider;
+        currentPage = 1;
+        sortIndex.rowsChanged();
+        if (provider != null) {
+            setSortKeysInternal(Collections.emptyList()); // The provider decides the order
+        }
+        viewOrder = null;
+        
+        if (provider == null) {
+            setTotalRows(0);
+            showRows(allData);
+            return;
+        }
+        loadFromProvider(true);
+    }
+    
+    /**
+     * Gets the provider rows are fetched from
+     * @return The data provider, or null if the table holds its own data
+     */
+    public TableDataProvider getDataProvider() {
+        return dataProvider;
+    }
+    
     /**
      * Adds a row to the table data
      * @param rowData The row data to add
      */
     public void addRow(Object[] rowData) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are supplied by the data provider");
+        }
         allData.add(rowData);
-        totalRows = allData.size();
+        sortIndex.rowsChanged();
+        if (viewOrder != null) {
+            viewOrder = sortIndex.insert(viewOrder, allData, sortKeys);
+        }
+        setTotalRows(allData.size());
+        
+        if (paginationEnabled) {
+            updatePagination();
+            displayCurrentPage();
+        } else {
+            showRows(viewRows());
+        }
+    }
+    
+    /**
+     * Appends rows to the table data, e.g. batches of a result that is still
+     * streaming in. Rows that land on the page on screen are inserted without
+     * redrawing the rest of the table; rows for later pages only update the
+     * pagination controls.
+     * @param rows The rows to add
+     */
+    public void appendRows(List<Object[]> rows) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are supplied by the data provider");
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        allData.addAll(rows);
+        sortIndex.rowsChanged();
+        setTotalRows(allData.size());
         
+        if (viewOrder != null) {
+            // Sorted rows can land anywhere, so the visible rows are shown afresh
+            viewOrder = sortIndex.insert(viewOrder, allData, sortKeys);
+            if (paginationEnabled) {
+                displayCurrentPage();
+            } else {
+                displayAllData();
+            }
+        } else if (paginationEnabled) {
+            int startIndex = (currentPage - 1) * pageSize;
+            int pageRows = Math.max(0, Math.min(pageSize, totalRows - startIndex));
+            if (pageRows > pagedModel.getRowCount()) {
+                pagedModel.extendWindow(pageRows);
+            }
+        } else {
+            pagedModel.extendWindow(allData.size());
+        }
+    }
+    
+    /**
+     * Inserts a row into the table data. Only the visible rows that move are
+     * redrawn, so the selection and scroll position are kept.
+     * @param index The position among the rows, in the order they were supplied
+     * @param rowData The row data to insert
+     */
+    public void insertRow(int index, Object[] rowData) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are supplied by the data provider");
+        }
+        allData.add(index, rowData);
+        setTotalRows(allData.size());
+        if (reorder(order -> sortIndex.insertAt(order, allData, sortKeys, index))) {
+            showSortedRows();
+        } else {
+            pagedModel.rowInserted(index, windowLength());
+        }
+    }
+    
+    /**
+     * Replaces a row of the table data, redrawing it if it is visible
+     * @param index The position among the rows, in the order they were supplied
+     * @param rowData The new row data
+     */
+    public void updateRow(int index, Object[] rowData) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are supplied by the data provider");
+        }
+        allData.set(index, rowData);
+        if (reorder(order -> sortIndex.update(order, allData, sortKeys, index))) {
+            showSortedRows();
+        } else {
+            pagedModel.rowUpdated(index);
+        }
+    }
+    
+    /**
+     * Removes a row from the table data. Only the visible rows that move are
+     * redrawn, so the selection and scroll position are kept.
+     * @param index The position among the rows, in the order they were supplied
+     */
+    public void removeRow(int index) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are supplied by the data provider");
+        }
+        allData.remove(index);
+        setTotalRows(allData.size());
+        boolean sorted = reorder(order -> sortIndex.remove(order, index)); // Before any page is shown
+        int totalPages = Math.max(1, (int) Math.ceil((double) totalRows / pageSize));
+        if (paginationEnabled && currentPage > totalPages) {
+            currentPage = totalPages; // The last page emptied
+            updatePagination();
+            displayCurrentPage();
+        } else if (sorted) {
+            showSortedRows();
+        } else {
+            pagedModel.rowRemoved(index, windowLength());
+        }
+    }
+    
+    /**
+     * Brings the sorted order up to date with a single-row change, splicing
+     * the row into or out of it rather than sorting every row again.
+     * @param change Computes the new order from the current one
+     * @return True if a sort is active, false if the table is unsorted
+     */
+    private boolean reorder(UnaryOperator<int[]> change) {
+        sortIndex.rowsChanged();
+        if (viewOrder == null) {
+            return false;
+        }
+        viewOrder = change.apply(viewOrder);
+        return true;
+    }
+    
+    /**
+     * Shows the visible rows afresh after a sorted change, since the row can
+     * land anywhere.
+     */
+    private void showSortedRows() {
         if (paginationEnabled) {
             updatePagination();
             displayCurrentPage();
         } else {
-            DefaultTableModel model = (DefaultTableModel) getModel();
-            model.addRow(rowData);
+            displayAllData();
         }
     }
     
+    /**
+     * Gets the number of rows the current page shows
+     * @return The window length over the backing rows
+     */
+    private int windowLength() {
+        if (!paginationEnabled) {
+            return totalRows;
+        }
+        int startIndex = Math.min((currentPage - 1) * pageSize, totalRows);
+        return Math.min(pageSize, totalRows - startIndex);
+    }
+    
+    /**
+     * Fetches the current page again from the data provider and recounts its
+     * rows, e.g. after the underlying data changed. The page number is kept.
+     */
+    public void refreshPage() {
+        if (dataProvider == null) {
+            return;
+        }
+        loadFromProvider(true);
+    }
+    
     /**
      * Clears all data from the table
      */
     public void clearData() {
+        cancelPendingLoad();
+        dataProvider = null;
         allData.clear();
-        totalRows = 0;
+        resultReplaced();
+        sortIndex.rowsChanged();
+        resort();
+        setTotalRows(0);
         
         if (paginationEnabled) {
             currentPage = 1;
             updatePagination();
             displayCurrentPage();
         } else {
-            DefaultTableModel model = (DefaultTableModel) getModel();
-            model.setRowCount(0);
+            showRows(viewRows());
         }
     }
     
@@ -334,6 +687,181 @@ public class GTable extends FlatTable {
     public int getTotalRows() {
         return totalRows;
     }
+    
+    /**
+     * Reports how long each paint of the table's cells takes, e.g. to a
+     * metrics timer. Painting is not timed while no listener is set.
+     * @param listener Receives each paint duration in nanoseconds, or null to stop timing
+     */
+    public void setPaintTimeListener(LongConsumer listener) {
+        this.paintTimeListener = listener;
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        LongConsumer listener = paintTimeListener;
+        if (listener == null) {
+            super.paintComponent(g);
+            return;
+        }
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        listener.accept(System.nanoTime() - start);
+    }
+    
+    /**
+     * Keeps the checkbox column's selection in a {@link CheckSelectionModel}
+     * keyed by row id, instead of in the first value of each row, so checks
+     * carry across pages and reloads and "select all matching" needs no pass
+     * over the rows. Clicking the checkbox column's header then selects all
+     * matching rows, or clears the selection, and the header shows how many
+     * rows are checked.
+     * @param rowId Gives a stable id for a row, e.g. derived from its key
+     *              column; null to store checks in the rows again
+     */
+    public void setRowIdFunction(ToLongFunction<Object[]> rowId) {
+        if (!hasCheckbox) {
+            throw new IllegalStateException("The table has no checkbox column");
+        }
+        rowIdFunction = rowId;
+        checkSelection.clearSelection();
+        pagedModel.setCheckColumn(rowId != null ? 0 : -1, rowId, checkSelection);
+        if (rowId != null && !sortKeys.isEmpty() && sortKeys.get(0).getColumn() == 0) {
+            setSortKeys(Collections.emptyList()); // Check values no longer live in the rows
+        }
+        updateHeaderNames();
+    }
+    
+    /**
+     * Gets the selection of the checkbox column
+     * @return The selection model; only used once a row id function is set
+     */
+    public CheckSelectionModel getCheckSelectionModel() {
+        return checkSelection;
+    }
+    
+    /**
+     * Checks every row of the current data, on every page, in constant time.
+     * The selection stays inverted (all rows except those unchecked since)
+     * until it is cleared or the data is replaced.
+     */
+    public void selectAllMatching() {
+        if (rowIdFunction == null) {
+            throw new IllegalStateException("Set a row id function first");
+        }
+        checkSelection.selectAllMatching(totalRows);
+    }
+    
+    /**
+     * Drops a "select all matching" selection when the rows it referred to are
+     * replaced; individually checked rows stay checked.
+     */
+    private void resultReplaced() {
+        if (checkSelection.isAllMatchingSelected()) {
+            checkSelection.clearSelection();
+        }
+    }
+    
+    /**
+     * Sorts the table's rows, e.g. as if the user had clicked the column
+     * headers. Only the display order changes; the backing rows keep theirs.
+     * Sorting is available for in-memory data, not with a data provider.
+     * @param keys The sort columns (model indices), most significant first,
+     *             or an empty list for the order the rows were supplied in
+     */
+    public void setSortKeys(List<? extends RowSorter.SortKey> keys) {
+        if (dataProvider != null) {
+            throw new IllegalStateException("Rows are ordered by the data provider");
+        }
+        setSortKeysInternal(keys);
+        resort();
+        if (paginationEnabled) {
+            currentPage = 1;
+            updatePagination();
+            displayCurrentPage();
+        } else {
+            displayAllData();
+        }
+    }
+    
+    /**
+     * Gets the active sort columns
+     * @return The sort keys, most significant first; empty when unsorted
+     */
+    public List<RowSorter.SortKey> getSortKeys() {
+        return sortKeys;
+    }
+    
+    /**
+     * Makes a column the primary sort column, or reverses its direction if it
+     * already is. The previous sort columns follow it, so rows that tie on the
+     * new column stay in their previous order.
+     * @param column The model index of the column
+     */
+    public void toggleSortOrder(int column) {
+        List<RowSorter.SortKey> keys = new ArrayList<>(sortKeys);
+        SortOrder order = SortOrder.ASCENDING;
+        if (!keys.isEmpty() && keys.get(0).getColumn() == column) {
+            order = keys.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+        }
+        keys.removeIf(k -> k.getColumn() == column);
+        keys.add(0, new RowSorter.SortKey(column, order));
+        setSortKeys(keys.subList(0, Math.min(keys.size(), MAX_SORT_KEYS)));
+    }
+    
+    /**
+     * Checks whether clicking a column's header sorts by it
+     * @param column The model index of the column
+     * @return False for the actions column and while rows come from a data provider
+     */
+    private boolean isSortable(int column) {
+        return dataProvider == null && column >= 0 && !(actionManager != null && column == getColumnCount() - 1)
+                && !isSelectionColumn(column);
+    }
+    
+    /**
+     * Checks whether a column is the checkbox column bound to the selection model
+     * @param column The model index of the column
+     */
+    private boolean isSelectionColumn(int column) {
+        return column == 0 && hasCheckbox && rowIdFunction != null;
+    }
+    
+    /**
+     * Stores the sort keys and marks the primary sort column's header
+     * @param keys The new sort keys
+     */
+    private void setSortKeysInternal(List<? extends RowSorter.SortKey> keys) {
+        sortKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        updateHeaderNames();
+    }
+    
+    /**
+     * Sets each header's text: the column name, with the sort direction on the
+     * primary sort column and the checked row count on the checkbox column
+     */
+    private void updateHeaderNames() {
+        TableColumnModel columnModel = getColumnModel();
+        for (int i = 0; i < columnModel.getColumnCount(); i++) {
+            TableColumn column = columnModel.getColumn(i);
+            String name = pagedModel.getColumnName(column.getModelIndex());
+            if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column.getModelIndex()) {
+                name += sortKeys.get(0).getSortOrder() == SortOrder.DESCENDING ? " \u25BC" : " \u25B2";
+            }
+            if (isSelectionColumn(column.getModelIndex()) && !checkSelection.isSelectionEmpty()) {
+                name += " (" + checkSelection.getSelectedCount() + ")";
+            }
+            column.setHeaderValue(name);
+        }
+        getTableHeader().repaint();
+    }
+    
+    /**
+     * Recomputes the sort permutation of the backing rows
+     */
+    private void resort() {
+        viewOrder = sortKeys.isEmpty() || dataProvider != null ? null : sortIndex.sort(allData, sortKeys);
+    }
 
     @Override
     public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
@@ -356,6 +884,28 @@ public class GTable extends FlatTable {
         FlatTableHeader header = new FlatTableHeader();
         header.setColumnModel(getColumnModel());
         setTableHeader(header);
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (!SwingUtilities.isLeftMouseButton(e) || viewColumn < 0) {
+                    return;
+                }
+                int column = convertColumnIndexToModel(viewColumn);
+                if (isSelectionColumn(column)) {
+                    if (isEditing()) {
+                        getCellEditor().stopCellEditing();
+                    }
+                    if (checkSelection.isAllMatchingSelected()) {
+                        checkSelection.clearSelection();
+                    } else {
+                        selectAllMatching();
+                    }
+                } else if (isSortable(column)) {
+                    toggleSortOrder(column);
+                }
+            }
+        });
 
         putClientProperty(FlatClientProperties.STYLE,
                 "showHorizontalLines:true;" +
@@ -446,4 +996,19 @@ public class GTable extends FlatTable {
         super.doLayout();
         applyColumnWidths();
     }
+    
+    /**
+     * The backing rows seen through the sort permutation
+     */
+    private final class SortedRows extends AbstractList<Object[]> {
+        @Override
+        public Object[] get(int index) {
+            return allData.get(viewOrder[index]);
+        }
+        
+        @Override
+        public int size() {
+            return viewOrder.length;
+        }
+    }
 }
@@ -0,0 +1,237 @@
+package lyfjshs.gomis.components.table;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that shows a window of a backing row list without copying it.
+ * GTable points the window at the current page; switching pages or data only
+ * moves the window and fires a single data-changed event, so the cost does
+ * not depend on how many rows are behind it.
+ * <p>
+ * Edits made through {@link #setValueAt(Object, int, int)} are written into
+ * the backing row arrays, except in a check column bound to a
+ * {@link CheckSelectionModel}, which reads and writes the selection model.
+ * </p>
+ */
+public class PagedTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+	private final String[] columnNames;
+	private final Class<?>[] columnTypes;
+	private final boolean[] editableColumns;
+	private List<Object[]> rows = Collections.emptyList();
+	private int offset;
+	private int length;
+	private int checkColumn = -1;
+	private ToLongFunction<Object[]> rowId;
+	private CheckSelectionModel checkSelection;
+
+	/**
+	 * Creates an empty model.
+	 *
+	 * @param columnNames     the column headers
+	 * @param columnTypes     the class of each column's values
+	 * @param editableColumns whether each column can be edited
+	 */
+	public PagedTableModel(String[] columnNames, Class<?>[] columnTypes, boolean[] editableColumns) {
+		this.columnNames = columnNames.clone();
+		this.columnTypes = columnTypes.clone();
+		this.editableColumns = editableColumns.clone();
+	}
+
+	/**
+	 * Points the model at a range of rows and fires one data-changed event.
+	 *
+	 * @param rows   the backing rows; the list is referenced, not copied
+	 * @param offset index of the first row to show
+	 * @param length number of rows to show
+	 */
+	public void setWindow(List<Object[]> rows, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > rows.size()) {
+			throw new IndexOutOfBoundsException(
+					"Window " + offset + "+" + length + " outside " + rows.size() + " rows");
+		}
+		this.rows = rows;
+		this.offset = offset;
+		this.length = length;
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Grows the window over rows that were appended to the backing list, and
+	 * fires a rows-inserted event for just those rows, so the table keeps its
+	 * selection and scroll position.
+	 *
+	 * @param newLength the new number of rows to show, at least the current one
+	 */
+	public void extendWindow(int newLength) {
+		if (newLength < length || offset + newLength > rows.size()) {
+			throw new IndexOutOfBoundsException(
+					"Window " + offset + "+" + newLength + " outside " + rows.size() + " rows");
+		}
+		if (newLength == length) {
+			return;
+		}
+		int first = length;
+		length = newLength;
+		fireTableRowsInserted(first, newLength - 1);
+	}
+
+	/**
+	 * Adjusts the window after a row was inserted into the backing list, firing
+	 * events only for the visible rows that changed. The offset stays put: a
+	 * row inserted before the window shifts every visible row down by one.
+	 *
+	 * @param index     the backing index of the new row
+	 * @param newLength the number of rows to show afterwards
+	 */
+	public void rowInserted(int index, int newLength) {
+		int oldLength = length;
+		length = newLength;
+		int visibleIndex = index - offset;
+		if (visibleIndex < 0) {
+			if (Math.min(oldLength, newLength) > 0) {
+				fireTableRowsUpdated(0, Math.min(oldLength, newLength) - 1);
+			}
+			if (newLength > oldLength) {
+				fireTableRowsInserted(oldLength, newLength - 1);
+			}
+		} else if (visibleIndex < newLength) {
+			if (newLength == oldLength) {
+				fireTableRowsDeleted(oldLength - 1, oldLength - 1); // Pushed onto the next page
+			}
+			fireTableRowsInserted(visibleIndex, visibleIndex);
+		}
+	}
+
+	/**
+	 * Adjusts the window after a row was removed from the backing list, firing
+	 * events only for the visible rows that changed.
+	 *
+	 * @param index     the backing index the row had
+	 * @param newLength the number of rows to show afterwards
+	 */
+	public void rowRemoved(int index, int newLength) {
+		int oldLength = length;
+		length = newLength;
+		int visibleIndex = index - offset;
+		if (visibleIndex < 0) {
+			if (Math.min(oldLength, newLength) > 0) {
+				fireTableRowsUpdated(0, Math.min(oldLength, newLength) - 1);
+			}
+			if (newLength < oldLength) {
+				fireTableRowsDeleted(newLength, oldLength - 1);
+			}
+		} else if (visibleIndex < oldLength) {
+			fireTableRowsDeleted(visibleIndex, visibleIndex);
+			if (newLength == oldLength) {
+				fireTableRowsInserted(newLength - 1, newLength - 1); // Pulled up from the next page
+			}
+		}
+	}
+
+	/**
+	 * Fires an update for a backing row if it is visible.
+	 *
+	 * @param index the backing index of the changed row
+	 */
+	public void rowUpdated(int index) {
+		int visibleIndex = index - offset;
+		if (visibleIndex >= 0 && visibleIndex < length) {
+			fireTableRowsUpdated(visibleIndex, visibleIndex);
+		}
+	}
+
+	/**
+	 * Binds a column to a selection model, so its checkboxes show and change
+	 * the selection of each row's id instead of a value in the row array.
+	 *
+	 * @param column    the model index of the column, or -1 to unbind
+	 * @param rowId     gives the stable id of a row
+	 * @param selection the selection model
+	 */
+	public void setCheckColumn(int column, ToLongFunction<Object[]> rowId, CheckSelectionModel selection) {
+		this.checkColumn = column;
+		this.rowId = rowId;
+		this.checkSelection = selection;
+		if (length > 0) {
+			fireTableRowsUpdated(0, length - 1);
+		}
+	}
+
+	/**
+	 * Shows every row of the given list.
+	 *
+	 * @param rows the backing rows; the list is referenced, not copied
+	 */
+	public void setRows(List<Object[]> rows) {
+		setWindow(rows, 0, rows.size());
+	}
+
+	/**
+	 * Gets the backing array of a visible row.
+	 *
+	 * @param rowIndex the row index within the window
+	 * @return the row values
+	 */
+	public Object[] getRow(int rowIndex) {
+		return rows.get(offset + rowIndex);
+	}
+
+	/**
+	 * Gets the index in the backing list of the first visible row.
+	 *
+	 * @return the window offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	@Override
+	public int getRowCount() {
+		return length;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columnTypes[columnIndex];
+	}
+
+	@Override
+	public boolean isCellEditable(int rowIndex, int columnIndex) {
+		return editableColumns[columnIndex];
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		Object[] row = rows.get(offset + rowIndex);
+		if (columnIndex == checkColumn) {
+			return checkSelection.isSelected(rowId.applyAsLong(row));
+		}
+		return row[columnIndex];
+	}
+
+	@Override
+	public void setValueAt(Object value, int rowIndex, int columnIndex) {
+		Object[] row = rows.get(offset + rowIndex);
+		if (columnIndex == checkColumn) {
+			checkSelection.setSelected(rowId.applyAsLong(row), Boolean.TRUE.equals(value));
+		} else {
+			row[columnIndex] = value;
+		}
+		fireTableCellUpdated(rowIndex, columnIndex);
+	}
+}
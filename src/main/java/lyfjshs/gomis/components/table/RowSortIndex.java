@@ -0,0 +1,335 @@
+package lyfjshs.gomis.components.table;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import javax.swing.RowSorter.SortKey;
+import javax.swing.SortOrder;
+
+/**
+ * Sorts table rows by computing a permutation of their indices; the rows
+ * themselves are never moved. GTable shows its backing rows through the
+ * permutation.
+ * <p>
+ * Each sort column is reduced to a dense rank per row: the column's distinct
+ * values are sorted once (Strings by {@link CollationKey}, other values by
+ * their natural order) and every row looks its value's rank up. Ranks of
+ * several columns are folded into one composite rank, and the final order
+ * comes from sorting {@code rank << 32 | rowIndex} as primitive longs, in
+ * parallel above {@link #PARALLEL_THRESHOLD} rows. The row index in the low
+ * bits makes the sort stable: rows that compare equal keep their backing order.
+ * </p>
+ * <p>
+ * Collation keys are cached per column across sorts, since the same names
+ * come back with every filter, and column ranks are kept until
+ * {@link #rowsChanged()}, so reversing a sort only re-sorts the packed keys.
+ * Not thread-safe; use from the event dispatch thread.
+ * </p>
+ */
+class RowSortIndex {
+	/** Row count from which ranks are looked up and keys sorted in parallel. */
+	static final int PARALLEL_THRESHOLD = 16_384;
+	private static final int MAX_CACHED_KEYS = 1 << 20; // Per column
+
+	private final Collator collator = Collator.getInstance();
+	private final Map<Integer, Map<String, CollationKey>> collationKeys = new HashMap<>(); // By column
+	private final Map<Integer, int[]> columnRanks = new HashMap<>(); // By column; the last element is the distinct count
+
+	/**
+	 * Computes the sorted order of the rows.
+	 *
+	 * @param rows the backing rows
+	 * @param keys the sort columns, most significant first
+	 * @return the backing index of each row in sorted order
+	 */
+	int[] sort(List<Object[]> rows, List<? extends SortKey> keys) {
+		int n = rows.size();
+		long[] rank = null;
+		for (SortKey key : keys) {
+			if (key.getSortOrder() == SortOrder.UNSORTED) {
+				continue;
+			}
+			int[] columnRank = columnRanks.computeIfAbsent(key.getColumn(), c -> columnRanks(rows, c));
+			int d = columnRank[n];
+			boolean descending = key.getSortOrder() == SortOrder.DESCENDING;
+			long[] combined = new long[n];
+			long[] previous = rank;
+			forEachRow(n, i -> {
+				long r = descending ? d - 1 - columnRank[i] : columnRank[i];
+				combined[i] = previous == null ? r : previous[i] * d + r; // Both below 2^31, so no overflow
+			});
+			rank = previous == null ? combined : densify(combined);
+		}
+
+		long[] packed = new long[n];
+		long[] finalRank = rank;
+		forEachRow(n, i -> packed[i] = (finalRank == null ? 0 : finalRank[i] << 32) | i);
+		sortLongs(packed);
+		int[] order = new int[n];
+		forEachRow(n, i -> order[i] = (int) packed[i]);
+		return order;
+	}
+
+	/**
+	 * Extends an order with rows appended to the backing list since it was
+	 * computed, without re-sorting the rows already in it. Each new row is
+	 * placed by binary search, after any equal rows.
+	 *
+	 * @param order the order of the first {@code order.length} rows
+	 * @param rows  the backing rows, including the new ones at the end
+	 * @param keys  the sort columns, most significant first
+	 * @return the order of all rows
+	 */
+	int[] insert(int[] order, List<Object[]> rows, List<? extends SortKey> keys) {
+		int oldSize = order.length;
+		int added = rows.size() - oldSize;
+		if (added <= 0) {
+			return order;
+		}
+		Integer[] newRows = new Integer[added];
+		for (int i = 0; i < added; i++) {
+			newRows[i] = oldSize + i;
+		}
+		Arrays.sort(newRows, (a, b) -> compareRows(rows, keys, a, b)); // Stable
+
+		int[] merged = new int[rows.size()];
+		int from = 0;
+		int out = 0;
+		for (int row : newRows) {
+			// Upper bound: the first old row that sorts after the new one
+			int lo = from;
+			int hi = oldSize;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (compareRows(rows, keys, order[mid], row) <= 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			System.arraycopy(order, from, merged, out, lo - from);
+			out += lo - from;
+			merged[out++] = row;
+			from = lo;
+		}
+		System.arraycopy(order, from, merged, out, oldSize - from);
+		return merged;
+	}
+
+	/**
+	 * Updates an order for a row inserted into the middle of the backing list:
+	 * indices from the insertion point shift up by one and the new row is
+	 * placed by binary search, without re-sorting the other rows.
+	 *
+	 * @param order the order before the insertion
+	 * @param rows  the backing rows, including the new one
+	 * @param keys  the sort columns, most significant first
+	 * @param index the backing index of the new row
+	 * @return the order of all rows
+	 */
+	int[] insertAt(int[] order, List<Object[]> rows, List<? extends SortKey> keys, int index) {
+		int[] shifted = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			shifted[i] = order[i] >= index ? order[i] + 1 : order[i];
+		}
+		return place(shifted, rows, keys, index);
+	}
+
+	/**
+	 * Updates an order for a backing row whose values were replaced: the row
+	 * is taken out and placed again by binary search.
+	 *
+	 * @param order the order before the update
+	 * @param rows  the backing rows, with the new values
+	 * @param keys  the sort columns, most significant first
+	 * @param index the backing index of the updated row
+	 * @return the order of all rows
+	 */
+	int[] update(int[] order, List<Object[]> rows, List<? extends SortKey> keys, int index) {
+		int[] others = new int[order.length - 1];
+		int out = 0;
+		for (int row : order) {
+			if (row != index) {
+				others[out++] = row;
+			}
+		}
+		return place(others, rows, keys, index);
+	}
+
+	/**
+	 * Updates an order for a row removed from the backing list: the row is
+	 * dropped and the indices above it shift down by one.
+	 *
+	 * @param order the order before the removal
+	 * @param index the backing index the row had
+	 * @return the order of the remaining rows
+	 */
+	int[] remove(int[] order, int index) {
+		int[] remaining = new int[order.length - 1];
+		int out = 0;
+		for (int row : order) {
+			if (row != index) {
+				remaining[out++] = row > index ? row - 1 : row;
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Inserts a row into an order that does not contain it yet, at the first
+	 * position whose row sorts after it.
+	 */
+	private int[] place(int[] order, List<Object[]> rows, List<? extends SortKey> keys, int row) {
+		int lo = 0;
+		int hi = order.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compareRows(rows, keys, order[mid], row) <= 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		int[] placed = new int[order.length + 1];
+		System.arraycopy(order, 0, placed, 0, lo);
+		placed[lo] = row;
+		System.arraycopy(order, lo, placed, lo + 1, order.length - lo);
+		return placed;
+	}
+
+	/**
+	 * Forgets the column ranks of the previous rows. Call whenever the backing
+	 * rows change.
+	 */
+	void rowsChanged() {
+		columnRanks.clear();
+	}
+
+	/**
+	 * Drops the cached collation keys.
+	 */
+	void clearCache() {
+		collationKeys.clear();
+	}
+
+	private int compareRows(List<Object[]> rows, List<? extends SortKey> keys, int a, int b) {
+		for (SortKey key : keys) {
+			if (key.getSortOrder() == SortOrder.UNSORTED) {
+				continue;
+			}
+			int column = key.getColumn();
+			int c = compareValues(column, rows.get(a)[column], rows.get(b)[column]);
+			if (c != 0) {
+				return key.getSortOrder() == SortOrder.DESCENDING ? -c : c;
+			}
+		}
+		return Integer.compare(a, b);
+	}
+
+	/**
+	 * Ranks every row's value in a column.
+	 *
+	 * @return the rank of each row, from 0, followed by the number of distinct ranks
+	 */
+	private int[] columnRanks(List<Object[]> rows, int column) {
+		Map<Object, Integer> rankByValue = new HashMap<>();
+		for (Object[] row : rows) {
+			rankByValue.putIfAbsent(row[column], 0);
+		}
+		int rank = -1;
+		if (rankByValue.remove(null) != null) {
+			rankByValue.put(null, ++rank); // Empty cells first
+		}
+		Object[] values = rankByValue.keySet().stream().filter(v -> v != null).toArray();
+		if (Arrays.stream(values).allMatch(v -> v instanceof String)) {
+			// Compare the keys directly rather than looking them up per comparison
+			CollationKey[] keys = new CollationKey[values.length];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = collationKey(column, (String) values[i]);
+			}
+			Arrays.sort(keys);
+			for (int i = 0; i < keys.length; i++) {
+				if (i == 0 || keys[i - 1].compareTo(keys[i]) != 0) {
+					rank++; // Values the collator considers equal share a rank
+				}
+				rankByValue.put(keys[i].getSourceString(), rank);
+			}
+		} else {
+			Arrays.sort(values, (a, b) -> compareValues(column, a, b));
+			for (int i = 0; i < values.length; i++) {
+				if (i == 0 || compareValues(column, values[i - 1], values[i]) != 0) {
+					rank++;
+				}
+				rankByValue.put(values[i], rank);
+			}
+		}
+		int[] ranks = new int[rows.size() + 1];
+		forEachRow(rows.size(), i -> ranks[i] = rankByValue.get(rows.get(i)[column]));
+		ranks[rows.size()] = rank + 1;
+		return ranks;
+	}
+
+	/**
+	 * Replaces composite ranks with dense ranks in the same order.
+	 */
+	private long[] densify(long[] composite) {
+		long[] distinct = composite.clone();
+		sortLongs(distinct);
+		int unique = 0;
+		for (int i = 0; i < distinct.length; i++) {
+			if (i == 0 || distinct[i] != distinct[unique - 1]) {
+				distinct[unique++] = distinct[i];
+			}
+		}
+		int count = unique;
+		long[] dense = new long[composite.length];
+		forEachRow(composite.length, i -> dense[i] = Arrays.binarySearch(distinct, 0, count, composite[i]));
+		return dense;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private int compareValues(int column, Object a, Object b) {
+		if (a == b) return 0;
+		if (a == null) return -1; // Empty cells first
+		if (b == null) return 1;
+		if (a instanceof String && b instanceof String) {
+			return collationKey(column, (String) a).compareTo(collationKey(column, (String) b));
+		}
+		if (a instanceof Comparable && a.getClass() == b.getClass()) {
+			return ((Comparable) a).compareTo(b);
+		}
+		return collationKey(column, a.toString()).compareTo(collationKey(column, b.toString()));
+	}
+
+	private CollationKey collationKey(int column, String value) {
+		Map<String, CollationKey> cache = collationKeys.computeIfAbsent(column, c -> new HashMap<>());
+		CollationKey key = cache.get(value);
+		if (key == null) {
+			if (cache.size() >= MAX_CACHED_KEYS) {
+				cache.clear();
+			}
+			key = collator.getCollationKey(value);
+			cache.put(value, key);
+		}
+		return key;
+	}
+
+	private static void sortLongs(long[] values) {
+		if (values.length >= PARALLEL_THRESHOLD) {
+			Arrays.parallelSort(values);
+		} else {
+			Arrays.sort(values);
+		}
+	}
+
+	private static void forEachRow(int n, IntConsumer action) {
+		IntStream rows = IntStream.range(0, n);
+		(n >= PARALLEL_THRESHOLD ? rows.parallel() : rows).forEach(action);
+	}
+}
@@ -0,0 +1,223 @@
+package lyfjshs.gomis.components.table;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of longs stored the way roaring bitmaps store them: ids are split into
+ * their high 48 bits, which pick a container, and their low 16 bits, which
+ * the container holds. A container with few ids keeps them as a sorted
+ * {@code char[]} (2 bytes per id); once it holds more than
+ * {@link #ARRAY_MAX} it switches to a 65,536-bit bitmap (8 KB), so
+ * membership stays cheap whether ids are scattered or dense.
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+class SparseLongBitSet {
+	private static final int ARRAY_MAX = 4096; // Where a sorted array outgrows a bitmap
+	private static final int BITMAP_WORDS = 1024;
+
+	private final Map<Long, Container> containers;
+	private long cardinality;
+
+	SparseLongBitSet() {
+		containers = new HashMap<>();
+	}
+
+	private SparseLongBitSet(SparseLongBitSet source) {
+		containers = new HashMap<>(Math.max(16, source.containers.size() * 2));
+		for (Map.Entry<Long, Container> e : source.containers.entrySet()) {
+			containers.put(e.getKey(), new Container(e.getValue()));
+		}
+		cardinality = source.cardinality;
+	}
+
+	/**
+	 * Adds an id.
+	 *
+	 * @param id the id
+	 * @return true if the id was not in the set
+	 */
+	boolean add(long id) {
+		Container c = containers.computeIfAbsent(id >>> 16, k -> new Container());
+		if (!c.add((char) id)) {
+			return false;
+		}
+		cardinality++;
+		return true;
+	}
+
+	/**
+	 * Removes an id.
+	 *
+	 * @param id the id
+	 * @return true if the id was in the set
+	 */
+	boolean remove(long id) {
+		Long high = id >>> 16;
+		Container c = containers.get(high);
+		if (c == null || !c.remove((char) id)) {
+			return false;
+		}
+		if (c.size == 0) {
+			containers.remove(high);
+		}
+		cardinality--;
+		return true;
+	}
+
+	boolean contains(long id) {
+		Container c = containers.get(id >>> 16);
+		return c != null && c.contains((char) id);
+	}
+
+	long cardinality() {
+		return cardinality;
+	}
+
+	boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	/**
+	 * Passes every id to the action, in unsigned ascending order.
+	 *
+	 * @param action receives the ids
+	 */
+	void forEach(LongConsumer action) {
+		long[] highs = new long[containers.size()];
+		int i = 0;
+		for (Long high : containers.keySet()) {
+			highs[i++] = high;
+		}
+		Arrays.sort(highs); // High parts are below 2^48, so signed order is unsigned order
+		for (long high : highs) {
+			containers.get(high).forEach(high << 16, action);
+		}
+	}
+
+	/**
+	 * Copies the set, e.g. to hand it to another thread.
+	 *
+	 * @return an independent copy
+	 */
+	SparseLongBitSet copy() {
+		return new SparseLongBitSet(this);
+	}
+
+	/**
+	 * The low 16 bits of the ids sharing one high part.
+	 */
+	private static final class Container {
+		private char[] values = new char[4]; // Sorted, while bits is null
+		private long[] bits;
+		private int size;
+
+		Container() {
+		}
+
+		Container(Container source) {
+			values = source.values == null ? null : source.values.clone();
+			bits = source.bits == null ? null : source.bits.clone();
+			size = source.size;
+		}
+
+		boolean contains(char low) {
+			if (bits != null) {
+				return (bits[low >>> 6] & (1L << low)) != 0;
+			}
+			return Arrays.binarySearch(values, 0, size, low) >= 0;
+		}
+
+		boolean add(char low) {
+			if (bits != null) {
+				long word = bits[low >>> 6];
+				bits[low >>> 6] = word | (1L << low);
+				if (word == bits[low >>> 6]) {
+					return false;
+				}
+				size++;
+				return true;
+			}
+			int pos = Arrays.binarySearch(values, 0, size, low);
+			if (pos >= 0) {
+				return false;
+			}
+			if (size == ARRAY_MAX) {
+				toBitmap();
+				return add(low);
+			}
+			pos = -pos - 1;
+			if (size == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+			}
+			System.arraycopy(values, pos, values, pos + 1, size - pos);
+			values[pos] = low;
+			size++;
+			return true;
+		}
+
+		boolean remove(char low) {
+			if (bits != null) {
+				long word = bits[low >>> 6];
+				bits[low >>> 6] = word & ~(1L << low);
+				if (word == bits[low >>> 6]) {
+					return false;
+				}
+				size--;
+				if (size < ARRAY_MAX / 2) {
+					toArray(); // Back to the smaller form, with room to grow before switching again
+				}
+				return true;
+			}
+			int pos = Arrays.binarySearch(values, 0, size, low);
+			if (pos < 0) {
+				return false;
+			}
+			System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+			size--;
+			return true;
+		}
+
+		void forEach(long base, LongConsumer action) {
+			if (bits == null) {
+				for (int i = 0; i < size; i++) {
+					action.accept(base | values[i]);
+				}
+				return;
+			}
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = bits[w];
+				while (word != 0) {
+					action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		}
+
+		private void toBitmap() {
+			bits = new long[BITMAP_WORDS];
+			for (int i = 0; i < size; i++) {
+				bits[values[i] >>> 6] |= 1L << values[i];
+			}
+			values = null;
+		}
+
+		private void toArray() {
+			char[] sorted = new char[Math.max(4, size)];
+			int n = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = bits[w];
+				while (word != 0) {
+					sorted[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			values = sorted;
+			bits = null;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package lyfjshs.gomis.components.table;
+
+import java.util.List;
+
+/**
+ * Supplies GTable rows on demand so that only the visible page is held in
+ * memory. When a provider is set, GTable asks it for the total row count to
+ * size its pagination controls and for one page of rows at a time.
+ * <p>
+ * GTable calls {@link #getRowCount()} and {@link #fetchPage(int, int)} on a
+ * background thread, never on the event dispatch thread.
+ * </p>
+ * <p>
+ * When the count is needed, GTable fetches the page first and asks for the
+ * count afterwards, so a provider that can compute both in one query may
+ * answer {@link #getRowCount()} from what it learned during the fetch.
+ * </p>
+ */
+public interface TableDataProvider {
+	/**
+	 * Gets the total number of rows available.
+	 * @return The row count
+	 */
+	int getRowCount();
+
+	/**
+	 * Fetches the rows for one page.
+	 * @param page The 1-based page number
+	 * @param pageSize The number of rows per page, or Integer.MAX_VALUE for all rows
+	 * @return The rows of the page, each matching the table's columns
+	 */
+	List<Object[]> fetchPage(int page, int pageSize);
+
+	/**
+	 * Cancels the count or fetch in progress, if any. Called from the event
+	 * dispatch thread when a newer request supersedes it, so implementations
+	 * must not block.
+	 */
+	default void cancel() {
+	}
+}
@@ -0,0 +1,509 @@
+package tableList;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool Class
+ * A bounded pool of JDBC connections. Connections are opened ahead of time,
+ * validated when they are checked out, closed after sitting idle for too long,
+ * and reported when a caller keeps one past the leak threshold.
+ * <p>
+ * Callers receive a wrapper whose {@code close()} returns the physical
+ * connection to the pool, so the usual try-with-resources blocks keep working.
+ * </p>
+ */
+class ConnectionPool {
+    /** Connections used within this window are handed out without a validation round trip. */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 10_000;
+
+    private final String url;
+    private final Properties info;
+    private final int minIdle;
+    private final int maxSize;
+    private final long checkoutTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PooledEntry> idle = new ArrayDeque<>(); // Most recently used first
+    private final Set<PooledEntry> inUse = new LinkedHashSet<>();
+    private final ScheduledExecutorService housekeeper;
+    private int totalConnections;
+    private boolean closed;
+
+    // Statistics, guarded by lock
+    private long checkouts;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long timeouts;
+    private long connectionsOpened;
+    private long connectionsEvicted;
+    private long validationFailures;
+    private long leaksDetected;
+    private int peakInUse;
+
+    /**
+     * Creates a pool. No connections are opened until {@link #prewarm()} or the first checkout.
+     *
+     * @param url                   JDBC URL of the database.
+     * @param info                  Driver connection properties, including user and password.
+     * @param minIdle               Number of connections kept open even when idle.
+     * @param maxSize               Upper bound on open connections.
+     * @param checkoutTimeoutMillis How long a caller waits for a free connection before failing.
+     * @param idleTimeoutMillis     Idle time after which connections above minIdle are closed.
+     * @param leakThresholdMillis   Hold time after which a checkout is reported as a leak (0 disables).
+     */
+    ConnectionPool(String url, Properties info, int minIdle, int maxSize,
+                   long checkoutTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.info = (Properties) info.clone();
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens connections until minIdle of them are waiting in the pool.
+     * @throws SQLException If a connection cannot be opened.
+     */
+    void prewarm() throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || idle.size() >= minIdle || totalConnections >= maxSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            PooledEntry entry = openReserved();
+            lock.lock();
+            try {
+                idle.addLast(entry);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Checks out a connection, waiting up to the checkout timeout if the pool is exhausted.
+     * @return A connection whose close() returns it to the pool.
+     * @throws SQLException If no valid connection could be obtained in time.
+     */
+    Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(checkoutTimeoutMillis);
+
+        while (true) {
+            PooledEntry entry = null;
+            lock.lock();
+            try {
+                while (!closed && idle.isEmpty() && totalConnections >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts++;
+                        throw new SQLException("Timed out after " + checkoutTimeoutMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                    }
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                if (!idle.isEmpty()) {
+                    entry = idle.pollFirst();
+                } else {
+                    totalConnections++; // Reserve the slot; the socket is opened outside the lock
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (entry == null) {
+                entry = openReserved();
+            } else if (!isUsable(entry)) {
+                discard(entry, false);
+                continue;
+            }
+            return checkout(entry, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool counters.
+     * @return The current statistics.
+     */
+    PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(totalConnections, idle.size(), inUse.size(), peakInUse, maxSize,
+                    checkouts, totalWaitNanos, maxWaitNanos, timeouts, connectionsOpened,
+                    connectionsEvicted, validationFailures, leaksDetected);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops housekeeping. Connections still
+     * checked out are closed when they are returned.
+     */
+    void close() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledEntry entry : toClose) {
+            discard(entry, false);
+        }
+    }
+
+    private PooledEntry openReserved() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, info);
+            lock.lock();
+            try {
+                connectionsOpened++;
+            } finally {
+                lock.unlock();
+            }
+            Metrics.CONNECTIONS_OPENED.increment();
+            return new PooledEntry(physical);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            if (entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            // Treated as a failed validation below
+        }
+        lock.lock();
+        try {
+            validationFailures++;
+        } finally {
+            lock.unlock();
+        }
+        return false;
+    }
+
+    private Connection checkout(PooledEntry entry, long waitNanos) {
+        entry.checkedOutAt = System.currentTimeMillis();
+        entry.checkoutTrace = leakThresholdMillis > 0 ? new Throwable("Connection checked out here") : null;
+        entry.leakReported = false;
+        lock.lock();
+        try {
+            inUse.add(entry);
+            peakInUse = Math.max(peakInUse, inUse.size());
+            checkouts++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CheckoutHandler(entry));
+    }
+
+    private void release(PooledEntry entry) {
+        boolean healthy;
+        try {
+            healthy = !entry.physical.isClosed();
+            if (healthy && !entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        boolean discard;
+        lock.lock();
+        try {
+            inUse.remove(entry);
+            discard = closed || !healthy;
+            if (!discard) {
+                entry.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(entry);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (discard) {
+            discard(entry, false);
+        }
+    }
+
+    private void discard(PooledEntry entry, boolean evicted) {
+        lock.lock();
+        try {
+            totalConnections--;
+            if (evicted) {
+                connectionsEvicted++;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            // The connection is being thrown away anyway
+        }
+    }
+
+    /**
+     * Periodic task: closes connections idle past the timeout, tops the pool back
+     * up to minIdle, and reports checkouts held longer than the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledEntry> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            // The least recently used connections sit at the tail
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections - expired.size() > minIdle) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastReturnedAt < idleTimeoutMillis) {
+                    break;
+                }
+                it.remove();
+                expired.add(entry);
+            }
+            if (leakThresholdMillis > 0) {
+                for (PooledEntry entry : inUse) {
+                    if (!entry.leakReported && now - entry.checkedOutAt > leakThresholdMillis) {
+                        entry.leakReported = true;
+                        leaksDetected++;
+                        System.err.println("Possible connection leak: connection held for "
+                                + (now - entry.checkedOutAt) + " ms");
+                        if (entry.checkoutTrace != null) {
+                            entry.checkoutTrace.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledEntry entry : expired) {
+            discard(entry, true);
+        }
+        try {
+            prewarm();
+        } catch (SQLException e) {
+            // Database unreachable; the next checkout will surface the error
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool keeps for it.
+     */
+    private static final class PooledEntry {
+        final Connection physical;
+        volatile long lastReturnedAt;
+        long checkedOutAt;
+        Throwable checkoutTrace;
+        boolean leakReported;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Backs the Connection handed to a caller for a single checkout. After
+     * close() the handle is dead, so a stale reference can't touch a
+     * connection that has since been given to someone else.
+     */
+    private final class CheckoutHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        CheckoutHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name) && method.getParameterCount() == 0) {
+                if (!returned) {
+                    returned = true;
+                    release(entry);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && method.getParameterCount() == 0) {
+                return returned || entry.physical.isClosed();
+            }
+            if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name) && method.getParameterCount() == 0) {
+                return "PooledConnection[" + entry.physical + (returned ? ", returned" : "") + "]";
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * PoolStats Class
+     * Immutable snapshot of pool size, utilization and checkout wait times.
+     */
+    static final class PoolStats {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int peakActiveConnections;
+        private final int maxSize;
+        private final long checkouts;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeouts;
+        private final long connectionsOpened;
+        private final long connectionsEvicted;
+        private final long validationFailures;
+        private final long leaksDetected;
+
+        PoolStats(int totalConnections, int idleConnections, int activeConnections, int peakActiveConnections,
+                  int maxSize, long checkouts, long totalWaitNanos, long maxWaitNanos, long timeouts,
+                  long connectionsOpened, long connectionsEvicted, long validationFailures, long leaksDetected) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.peakActiveConnections = peakActiveConnections;
+            this.maxSize = maxSize;
+            this.checkouts = checkouts;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeouts = timeouts;
+            this.connectionsOpened = connectionsOpened;
+            this.connectionsEvicted = connectionsEvicted;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+        }
+
+        public int getTotalConnections() { return totalConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getPeakActiveConnections() { return peakActiveConnections; }
+        public int getMaxSize() { return maxSize; }
+        public long getCheckouts() { return checkouts; }
+        public long getTimeouts() { return timeouts; }
+        public long getConnectionsOpened() { return connectionsOpened; }
+        public long getConnectionsEvicted() { return connectionsEvicted; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+
+        /**
+         * Gets the fraction of the pool's capacity currently checked out.
+         * @return A value between 0 and 1.
+         */
+        public double getUtilization() {
+            return (double) activeConnections / maxSize;
+        }
+
+        /**
+         * Gets the average time callers waited for a connection.
+         * @return The mean checkout wait in milliseconds.
+         */
+        public double getAverageWaitMillis() {
+            return checkouts == 0 ? 0 : totalWaitNanos / 1_000_000.0 / checkouts;
+        }
+
+        /**
+         * Gets the longest time a caller waited for a connection.
+         * @return The maximum checkout wait in milliseconds.
+         */
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats{total=%d, idle=%d, active=%d, peak=%d/%d, utilization=%.0f%%, "
+                    + "checkouts=%d, avgWait=%.2fms, maxWait=%.2fms, timeouts=%d, opened=%d, evicted=%d, "
+                    + "validationFailures=%d, leaks=%d}",
+                    totalConnections, idleConnections, activeConnections, peakActiveConnections, maxSize,
+                    getUtilization() * 100, checkouts, getAverageWaitMillis(), getMaxWaitMillis(), timeouts,
+                    connectionsOpened, connectionsEvicted, validationFailures, leaksDetected);
+        }
+    }
+}
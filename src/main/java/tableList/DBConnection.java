@@ -0,0 +1,311 @@
+package tableList;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+class DBConnection {
+	//THIS IS LITERALLY MY DATABASE SETUP NO NEED TO CHANGE IT 
+    private static final String DB_URL = "jdbc:mariadb://localhost:3306/gomisdb";
+    private static final String DB_USER = "root";
+    private static final String DB_PASSWORD = "YourRootPassword123!"; 
+
+    // Pool sizing
+    private static final int POOL_MIN_IDLE = 2;
+    private static final int POOL_MAX_SIZE = 8;
+    private static final long POOL_CHECKOUT_TIMEOUT_MS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MS = 30_000;
+
+    // Server-side statement cache size; the query compiler produces a small, fixed set of SQL shapes
+    private static final int PREP_STMT_CACHE_SIZE = 64;
+
+    // How long reconnect() waits for the server to answer a checked-out connection
+    private static final int RECONNECT_CHECK_SECONDS = 5;
+
+    private static volatile StudentDataSource dataSource; // Where connections currently come from
+    private static ServerDataSource server; // Guarded by DBConnection.class
+    private static EmbeddedStudentDatabase localCopy;
+    private static boolean localCopyOpened;
+    private static volatile boolean connectionErrorShown; // Until a connection succeeds again
+    private static final List<Consumer<StudentDataSource>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Builds the driver properties for pooled connections. Server-side prepared
+     * statements let MariaDB parse and plan each compiled filter shape once per
+     * connection instead of on every page fetch.
+     */
+    private static Properties connectionProperties() {
+        Properties info = new Properties();
+        info.setProperty("user", DB_USER);
+        info.setProperty("password", DB_PASSWORD);
+        info.setProperty("useServerPrepStmts", "true");
+        info.setProperty("cachePrepStmts", "true");
+        info.setProperty("prepStmtCacheSize", String.valueOf(PREP_STMT_CACHE_SIZE));
+        return info;
+    }
+
+    /**
+     * Gets the current data source, creating it on first use: the MariaDB
+     * server, or the local copy if the {@code studentviewer.offline} system
+     * property is set or the MariaDB driver is missing.
+     * @return The source, or null if neither is available.
+     */
+    static StudentDataSource getDataSource() {
+        StudentDataSource source = dataSource;
+        if (source == null) {
+            synchronized (DBConnection.class) {
+                source = dataSource;
+                if (source == null) {
+                    source = Boolean.getBoolean("studentviewer.offline") ? getLocalCopy() : null;
+                    if (source == null) {
+                        source = getServer();
+                    }
+                    if (source == null) {
+                        source = getLocalCopy();
+                    }
+                    if (source == null) {
+                        showError("MariaDB JDBC Driver not found. Please add it to your project's classpath.",
+                            "Driver Error");
+                        return null;
+                    }
+                    dataSource = source;
+                    if (source.isLocal()) {
+                        fireDataSourceChanged(source);
+                    }
+                }
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Gets the MariaDB server, creating its pool on first use.
+     * @return The server, or null if the MariaDB driver is missing.
+     */
+    private static synchronized ServerDataSource getServer() {
+        if (server == null) {
+            try {
+                Class.forName("org.mariadb.jdbc.Driver");
+            } catch (ClassNotFoundException ex) {
+                ex.printStackTrace();
+                return null;
+            }
+            server = new ServerDataSource(DB_URL, connectionProperties(), POOL_MIN_IDLE, POOL_MAX_SIZE,
+                    POOL_CHECKOUT_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS);
+            final ServerDataSource created = server;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::close, "db-pool-shutdown"));
+        }
+        return server;
+    }
+
+    /**
+     * Gets the local copy of the server's data (see {@link EmbeddedStudentDatabase}),
+     * opening it on first use.
+     * @return The local copy, or null if it is turned off or the H2 driver is missing.
+     */
+    static synchronized EmbeddedStudentDatabase getLocalCopy() {
+        if (!localCopyOpened) {
+            localCopyOpened = true;
+            Path file = EmbeddedStudentDatabase.configuredPath();
+            if (file != null && EmbeddedStudentDatabase.isDriverAvailable()) {
+                localCopy = EmbeddedStudentDatabase.openFile(file);
+                final EmbeddedStudentDatabase created = localCopy;
+                Runtime.getRuntime().addShutdownHook(new Thread(created::close, "local-copy-shutdown"));
+            }
+        }
+        return localCopy;
+    }
+
+    /**
+     * Replaces the data source, e.g. with an embedded stand-in database for
+     * benchmarks. The previous source is closed, unless it is the server or
+     * the local copy, which stay open to switch back to.
+     * @param replacement The source to hand out connections from.
+     */
+    static void useDataSource(StudentDataSource replacement) {
+        StudentDataSource previous;
+        synchronized (DBConnection.class) {
+            previous = dataSource;
+            dataSource = replacement;
+            connectionErrorShown = false;
+        }
+        if (previous != null && previous != replacement && previous != server && previous != localCopy) {
+            previous.close();
+        }
+        if (previous != replacement) {
+            fireDataSourceChanged(replacement);
+        }
+    }
+
+    /**
+     * Checks whether connections come from a local copy rather than the server.
+     * @return True if offline.
+     */
+    static boolean isOffline() {
+        StudentDataSource source = dataSource;
+        return source != null && source.isLocal();
+    }
+
+    /**
+     * Switches back to the server if it can be reached again. Blocks for a
+     * connection attempt; do not call on the event dispatch thread.
+     * @return True if connections now come from the server.
+     */
+    static boolean reconnect() {
+        ServerDataSource s = getServer();
+        if (s == null) return false;
+        try (Connection conn = s.getConnection()) {
+            if (!conn.isValid(RECONNECT_CHECK_SECONDS)) {
+                System.err.println("Database server still unreachable: connection is not valid");
+                return false;
+            }
+        } catch (SQLException ex) {
+            System.err.println("Database server still unreachable: " + ex.getMessage());
+            return false;
+        }
+        useDataSource(s);
+        return true;
+    }
+
+    /**
+     * Registers a listener called on the event dispatch thread whenever the
+     * data source changes, e.g. when the server cannot be reached and the
+     * local copy takes over.
+     * @param listener The listener.
+     */
+    static void addDataSourceListener(Consumer<StudentDataSource> listener) {
+        listeners.add(listener);
+    }
+
+    private static void fireDataSourceChanged(StudentDataSource source) {
+        SwingUtilities.invokeLater(() -> {
+            for (Consumer<StudentDataSource> listener : listeners) {
+                listener.accept(source);
+            }
+        });
+    }
+
+    /**
+     * Opens the data source's idle connections ahead of the first query.
+     * Failures are only logged; the first real query reports them to the user.
+     */
+    public static void warmUp() {
+        StudentDataSource source = getDataSource();
+        if (source == null) return;
+        try {
+            source.warmUp();
+        } catch (SQLException ex) {
+            System.err.println("Connection pool warm-up failed: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Checks out a pooled connection. Closing it returns it to the pool.
+     * <p>
+     * If the server cannot be reached and a complete local copy exists, the
+     * local copy takes over and the connection comes from it; listeners are
+     * told, and {@link #reconnect()} switches back. Otherwise the failure is
+     * reported once, not on every query, until a connection succeeds again.
+     * A checkout that timed out on a busy pool, or was interrupted because
+     * its load was cancelled, returns null without either.
+     * </p>
+     * @return A connection, or null if one could not be obtained.
+     */
+    public static Connection getConnection() {
+        StudentDataSource source = getDataSource();
+        if (source == null) return null;
+        long start = Metrics.CONNECTION_CHECKOUT.start();
+        try {
+            Connection conn = source.getConnection();
+            connectionErrorShown = false;
+            return conn;
+        } catch (SQLException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                Thread.currentThread().interrupt(); // The load was cancelled; nothing to report
+                return null;
+            }
+            ex.printStackTrace();
+            if (!isConnectFailure(ex)) {
+                return null; // Busy pool or closed source; the server itself may be fine
+            }
+            StudentDataSource fallback = source.isLocal() ? null : goOffline(source);
+            if (fallback != null) {
+                try {
+                    return fallback.getConnection();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (!connectionErrorShown) {
+                connectionErrorShown = true;
+                showError("Database Connection Error: " + ex.getMessage() +
+                    "\nPlease check your database server (" + source.getDescription() + ") and credentials.",
+                    "DB Connection Error");
+            }
+        } finally {
+            Metrics.CONNECTION_CHECKOUT.stop(start);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a checkout failed because the database could not be
+     * reached, as opposed to the pool being busy or the wait interrupted.
+     * @param ex The exception from the checkout.
+     * @return True for a connection failure (SQLState class 08).
+     */
+    private static boolean isConnectFailure(SQLException ex) {
+        return ex instanceof SQLNonTransientConnectionException
+                || (ex.getSQLState() != null && ex.getSQLState().startsWith("08"));
+    }
+
+    /**
+     * Switches from a source that failed to the local copy, if it holds data.
+     * @param failed The source a connection could not be obtained from.
+     * @return The source to use now, or null if there is no usable local copy.
+     */
+    private static StudentDataSource goOffline(StudentDataSource failed) {
+        EmbeddedStudentDatabase copy = getLocalCopy();
+        if (copy == null || !copy.hasData()) return null;
+        synchronized (DBConnection.class) {
+            if (dataSource != failed) return dataSource; // Another query switched already
+            dataSource = copy;
+        }
+        System.err.println("Database server unreachable; using the " + copy.getDescription());
+        fireDataSourceChanged(copy);
+        return copy;
+    }
+
+    /**
+     * Shows a database error dialog. Safe to call from background threads;
+     * the dialog is always shown on the event dispatch thread.
+     * @param message The message to display.
+     * @param title   The dialog title.
+     */
+    static void showError(String message, String title) {
+        Runnable show = () -> JOptionPane.showMessageDialog(null, message, title, JOptionPane.ERROR_MESSAGE);
+        if (SwingUtilities.isEventDispatchThread()) {
+            show.run();
+        } else {
+            SwingUtilities.invokeLater(show);
+        }
+    }
+
+    /**
+     * Gets the pool's wait-time and utilization counters, for sizing the pool under load.
+     * @return The current pool statistics, or null if there is no data source.
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        StudentDataSource source = getDataSource();
+        return source == null ? null : source.getPoolStats();
+    }
+}
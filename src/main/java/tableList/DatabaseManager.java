@@ -0,0 +1,773 @@
+package tableList;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DatabaseManager Class
+ * Handles database operations for fetching student data.
+ */
+class DatabaseManager {
+    // Statement.cancel() opens its own connection to the server, so it runs off the caller's thread
+    private static final ExecutorService CANCEL_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "db-query-cancel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Statements currently executing, keyed by the thread running them, so they can be cancelled
+    private final Map<Thread, Statement> runningStatements = new ConcurrentHashMap<>();
+
+    private static final String STUDENT_COLUMNS =
+        "s.STUDENT_LRN, s.STUDENT_LASTNAME, s.STUDENT_FIRSTNAME, s.STUDENT_MIDDLENAME, " +
+        "s.STUDENT_SEX, s.STUDENT_AGE, sf.SF_GRADE_LEVEL, sf.SF_SECTION, sf.SF_TRACK_AND_STRAND";
+    private static final String STUDENT_FROM = " FROM STUDENT s JOIN SCHOOL_FORM sf ON s.SF_ID = sf.SF_ID";
+    private static final String STUDENT_SELECT = "SELECT " + STUDENT_COLUMNS + STUDENT_FROM;
+    // Same rows, plus the size of the whole filtered result on every row
+    private static final String STUDENT_SELECT_COUNTED =
+        "SELECT " + STUDENT_COLUMNS + ", COUNT(*) OVER () AS TOTAL_ROWS" + STUDENT_FROM;
+    private static final String ORDER_ASC = " ORDER BY s.STUDENT_LASTNAME ASC, s.STUDENT_FIRSTNAME ASC, s.STUDENT_LRN ASC";
+    private static final String ORDER_DESC = " ORDER BY s.STUDENT_LASTNAME DESC, s.STUDENT_FIRSTNAME DESC, s.STUDENT_LRN DESC";
+    // Rows per network round trip when a whole result is streamed rather than buffered
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // Values per IN (...) list when reading changed students
+    private static final int IN_LIST_CHUNK = 500;
+
+    private final StudentQueryCompiler queryCompiler = new StudentQueryCompiler();
+    private volatile Boolean studentRowsUnique; // Checked against the schema on first use
+    private volatile StudentDataSource uniquenessCheckedOn; // The source studentRowsUnique was read from
+
+    public DatabaseManager() {
+    }
+
+    /**
+     * Fetches a list of students from the database based on filter criteria.
+     *
+     * @param page       The current page number (1-indexed). Ignored if pageSize is MAX_VALUE.
+     * @param pageSize   The number of students per page. If Integer.MAX_VALUE, fetches all.
+     * @param criteria   The filter criteria to apply.
+     * @return A list of Student objects.
+     */
+    public List<Student> getStudents(int page, int pageSize, FilterCriteria criteria) {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return new ArrayList<>();
+        List<Object> params = new ArrayList<>(filter.getParams());
+
+        boolean paged = pageSize != Integer.MAX_VALUE; // Apply pagination only if not fetching all
+        String sql = studentsSql(filter, paged);
+        if (!paged) {
+            // Stream the rows in instead of letting the driver buffer the whole result first
+            return queryPage(sql, params, false, STREAM_FETCH_SIZE).getStudents();
+        }
+        params.add(pageSize);
+        params.add((page - 1) * pageSize);
+        return queryStudents(sql, params);
+    }
+
+    /**
+     * Gets every student, in display order, streamed from one query. Unlike
+     * {@link #getStudents}, which keeps what it has read when the query
+     * fails, this fails as a whole, so a partial list is never taken for the
+     * full one. No filter is compiled: default criteria still carry an age
+     * range, which would leave out NULL and unusual ages until the actual
+     * bounds are known.
+     * @return All students, sharing one store.
+     * @throws SQLException If there is no connection, or the query fails or is cancelled.
+     */
+    List<Student> getAllStudents() throws SQLException {
+        StudentStore store = new StudentStore();
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (PreparedStatement pstmt = conn.prepareStatement(STUDENT_SELECT + ORDER_ASC,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+                runningStatements.put(Thread.currentThread(), pstmt);
+                long executeStart = Metrics.QUERY_EXECUTE.start();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Metrics.QUERY_EXECUTE.stop(executeStart);
+                    long mapStart = Metrics.ROW_MAPPING.start();
+                    while (rs.next()) {
+                        addStudent(store, rs);
+                    }
+                    Metrics.ROW_MAPPING.stop(mapStart);
+                } finally {
+                    runningStatements.remove(Thread.currentThread());
+                    Metrics.ROWS_FETCHED.add(store.size());
+                }
+            }
+        }
+        return store.toList();
+    }
+
+    /**
+     * Gets the statement {@link #getStudents} runs for a compiled filter.
+     * @param filter The compiled filter.
+     * @param paged  Whether the statement takes LIMIT and OFFSET parameters after the filter's.
+     * @return The SQL, cached per filter shape.
+     */
+    String studentsSql(StudentQueryCompiler.CompiledFilter filter, boolean paged) {
+        return paged
+                ? queryCompiler.sql("page", filter, where -> STUDENT_SELECT + where + ORDER_ASC + " LIMIT ? OFFSET ?")
+                : queryCompiler.sql("all", filter, where -> STUDENT_SELECT + where + ORDER_ASC);
+    }
+
+    /**
+     * Streams every student matching the criteria, in display order, to a sink
+     * in batches. The driver fetches {@code batchSize} rows per round trip
+     * instead of buffering the whole result, so memory use depends on the
+     * batch size and on how many batches the sink holds, not on the result size.
+     * <p>
+     * Each batch is a StudentStore of its own, so it can be handed to another
+     * thread safely. The sink may block (e.g. on a full queue), which pauses
+     * reading from the server. Cancel with {@link #cancelQuery(Thread)} or by
+     * interrupting the calling thread.
+     * </p>
+     *
+     * @param criteria  The filter criteria to apply.
+     * @param batchSize The number of students per batch and per network fetch.
+     * @param sink      Receives the batches, on the calling thread.
+     * @return The number of students streamed.
+     * @throws InterruptedException If the sink was interrupted while waiting.
+     */
+    public int streamStudents(FilterCriteria criteria, int batchSize, BatchSink sink) throws InterruptedException {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return 0;
+        List<Object> params = filter.getParams();
+        String sql = studentsSql(filter, false);
+
+        int total = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) return 0; // Already reported
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(batchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                runningStatements.put(Thread.currentThread(), pstmt);
+                long executeStart = Metrics.QUERY_EXECUTE.start();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Metrics.QUERY_EXECUTE.stop(executeStart);
+                    StudentStore batch = new StudentStore(batchSize);
+                    try {
+                        long mapStart = Metrics.ROW_MAPPING.start();
+                        while (rs.next()) {
+                            addStudent(batch, rs);
+                            if (batch.size() == batchSize) {
+                                Metrics.ROW_MAPPING.stop(mapStart); // Time waiting on the sink is not mapping
+                                Metrics.ROWS_FETCHED.add(batch.size());
+                                sink.accept(batch);
+                                total += batch.size();
+                                batch = new StudentStore(batchSize);
+                                mapStart = Metrics.ROW_MAPPING.start();
+                            }
+                        }
+                        if (batch.size() > 0) {
+                            Metrics.ROW_MAPPING.stop(mapStart);
+                            Metrics.ROWS_FETCHED.add(batch.size());
+                            sink.accept(batch);
+                            total += batch.size();
+                        }
+                    } catch (InterruptedException e) {
+                        // Closing a streaming result reads it to the end, so stop the server first
+                        pstmt.cancel();
+                        throw e;
+                    }
+                } finally {
+                    runningStatements.remove(Thread.currentThread());
+                }
+            }
+        } catch (SQLException e) {
+            if (isCancellation(e)) return total;
+            e.printStackTrace();
+            DBConnection.showError("Error fetching student data: " + e.getMessage(), "Database Error");
+        }
+        return total;
+    }
+
+    /**
+     * Runs the query for the criteria and hands each matching row, in display
+     * order, straight to the sink, without mapping it to a Student. Rows are
+     * fetched {@link #STREAM_FETCH_SIZE} at a time, so memory use does not
+     * grow with the result. Used for exports.
+     * <p>
+     * Cancel with {@link #cancelQuery(Thread)}, or by having the sink throw;
+     * the statement is then stopped on the server rather than read to the end.
+     * </p>
+     *
+     * @param criteria The filter criteria to apply.
+     * @param sink     Receives each row, on the calling thread.
+     * @return The number of rows read.
+     * @throws SQLException If the query fails or is cancelled.
+     * @throws IOException  If the sink fails.
+     */
+    int exportStudents(FilterCriteria criteria, RowSink sink) throws SQLException, IOException {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return 0;
+        List<Object> params = filter.getParams();
+        String sql = studentsSql(filter, false);
+
+        int total = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                runningStatements.put(Thread.currentThread(), pstmt);
+                long executeStart = Metrics.QUERY_EXECUTE.start();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Metrics.QUERY_EXECUTE.stop(executeStart);
+                    try {
+                        while (rs.next()) {
+                            sink.accept(rs);
+                            total++;
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // Closing a streaming result reads it to the end, so stop the server first
+                        pstmt.cancel();
+                        throw e;
+                    }
+                } finally {
+                    runningStatements.remove(Thread.currentThread());
+                    Metrics.ROWS_FETCHED.add(total);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * RowSink Interface
+     * Receives the rows of {@link #exportStudents(FilterCriteria, RowSink)}.
+     */
+    interface RowSink {
+        /**
+         * @param rs The result, positioned on the next student. Only read the current row.
+         * @throws SQLException If a column cannot be read.
+         * @throws IOException  If the row cannot be written; stops the export.
+         */
+        void accept(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * BatchSink Interface
+     * Receives the batches of {@link #streamStudents(FilterCriteria, int, BatchSink)}.
+     */
+    interface BatchSink {
+        /**
+         * @param batch The next students, in display order. The store is not used again by the caller.
+         * @throws InterruptedException If interrupted while waiting to accept the batch.
+         */
+        void accept(StudentStore batch) throws InterruptedException;
+    }
+
+    /**
+     * Fetches the first page of students together with the total number of
+     * matching students, in a single round trip where possible.
+     * <p>
+     * When each student appears at most once in the join, the page query
+     * carries the total as a {@code COUNT(*) OVER ()} column. Otherwise the page
+     * is fetched on its own and a separate count is run only if the page came
+     * back full; a short page already tells us the total.
+     * </p>
+     *
+     * @param pageSize The number of students per page. If Integer.MAX_VALUE, fetches all.
+     * @param criteria The filter criteria to apply.
+     * @return The first page and the total count.
+     */
+    public StudentPage getFirstStudentPage(int pageSize, FilterCriteria criteria) {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return new StudentPage(new ArrayList<>(), 0);
+
+        if (pageSize == Integer.MAX_VALUE) {
+            List<Student> students = getStudents(1, Integer.MAX_VALUE, criteria);
+            return new StudentPage(students, students.size());
+        }
+
+        if (areStudentRowsUnique()) {
+            List<Object> params = new ArrayList<>(filter.getParams());
+            params.add(pageSize);
+            String sql = queryCompiler.sql("first-counted", filter, where ->
+                STUDENT_SELECT_COUNTED + where + ORDER_ASC + " LIMIT ?");
+            StudentPage page = queryPage(sql, params, true, 0);
+            if (page.getStudents().size() < pageSize) {
+                // Also covers a cancelled query, whose empty page must not be read as a count
+                return new StudentPage(page.getStudents(), page.getStudents().size());
+            }
+            return page;
+        }
+
+        List<Student> students = getStudentsAfter(null, pageSize, criteria);
+        if (students.size() < pageSize) {
+            return new StudentPage(students, students.size()); // Short page: no count needed
+        }
+        return new StudentPage(students, getTotalStudentCount(criteria));
+    }
+
+    /**
+     * Fetches the page of students that follows the given key in
+     * (last name, first name, LRN) order. Unlike OFFSET paging, the server seeks
+     * straight to the key, so deep pages cost the same as the first one.
+     *
+     * @param after    The key of the last student on the previous page, or null for the first page.
+     * @param pageSize The number of students to fetch.
+     * @param criteria The filter criteria to apply.
+     * @return Up to pageSize students in ascending order.
+     */
+    public List<Student> getStudentsAfter(StudentKey after, int pageSize, FilterCriteria criteria) {
+        return seekStudents(after, true, false, pageSize, criteria);
+    }
+
+    /**
+     * Fetches the students starting at the given key (inclusive) in
+     * (last name, first name, LRN) order. Used to reload a page in place.
+     *
+     * @param from     The key of the first student to include.
+     * @param pageSize The number of students to fetch.
+     * @param criteria The filter criteria to apply.
+     * @return Up to pageSize students in ascending order.
+     */
+    public List<Student> getStudentsFrom(StudentKey from, int pageSize, FilterCriteria criteria) {
+        return seekStudents(from, true, true, pageSize, criteria);
+    }
+
+    /**
+     * Fetches the page of students that precedes the given key, for paging backwards.
+     *
+     * @param before   The key of the first student on the following page, or null for the last page.
+     * @param pageSize The number of students to fetch.
+     * @param criteria The filter criteria to apply.
+     * @return Up to pageSize students, returned in ascending order.
+     */
+    public List<Student> getStudentsBefore(StudentKey before, int pageSize, FilterCriteria criteria) {
+        List<Student> students = seekStudents(before, false, false, pageSize, criteria);
+        Collections.reverse(students); // Fetched in descending order
+        return students;
+    }
+
+    private List<Student> seekStudents(StudentKey key, boolean forward, boolean inclusive, int limit, FilterCriteria criteria) {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return new ArrayList<>();
+        List<Object> params = new ArrayList<>(filter.getParams());
+
+        String kind = (forward ? "seek-asc" : "seek-desc") + (inclusive ? "-inclusive" : "") + (key == null ? "-start" : "");
+        String sql = queryCompiler.sql(kind, filter, where -> {
+            StringBuilder sqlBuilder = new StringBuilder(STUDENT_SELECT).append(where);
+            if (key != null) {
+                String op = forward ? ">" : "<";
+                // The leading range on last name lets the (LASTNAME, FIRSTNAME, LRN) index drive the seek;
+                // the nested OR breaks ties on first name and then LRN.
+                sqlBuilder.append(where.isEmpty() ? " WHERE " : " AND ")
+                    .append("s.STUDENT_LASTNAME ").append(op).append("= ? AND (s.STUDENT_LASTNAME ").append(op).append(" ? OR ")
+                    .append("(s.STUDENT_LASTNAME = ? AND (s.STUDENT_FIRSTNAME ").append(op).append(" ? OR ")
+                    .append("(s.STUDENT_FIRSTNAME = ? AND s.STUDENT_LRN ").append(op).append(inclusive ? "=" : "").append(" ?))))");
+            }
+            sqlBuilder.append(forward ? ORDER_ASC : ORDER_DESC).append(" LIMIT ?");
+            return sqlBuilder.toString();
+        });
+
+        if (key != null) {
+            params.add(key.getLastName());
+            params.add(key.getLastName());
+            params.add(key.getLastName());
+            params.add(key.getFirstName());
+            params.add(key.getFirstName());
+            params.add(key.getLrn());
+        }
+        params.add(limit);
+
+        return queryStudents(sql, params);
+    }
+
+    private List<Student> queryStudents(String sql, List<Object> params) {
+        return queryPage(sql, params, false, 0).getStudents();
+    }
+
+    private StudentPage queryPage(String sql, List<Object> params, boolean counted, int fetchSize) {
+        StudentStore store = new StudentStore();
+        int totalRows = -1;
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) return new StudentPage(new ArrayList<>(), 0);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (fetchSize > 0) {
+                    pstmt.setFetchSize(fetchSize);
+                }
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                // System.out.println("Executing SQL: " + pstmt.toString()); // For debugging
+                runningStatements.put(Thread.currentThread(), pstmt);
+                long executeStart = Metrics.QUERY_EXECUTE.start();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Metrics.QUERY_EXECUTE.stop(executeStart);
+                    long mapStart = Metrics.ROW_MAPPING.start();
+                    while (rs.next()) {
+                        if (counted && totalRows < 0) {
+                            totalRows = rs.getInt("TOTAL_ROWS");
+                        }
+                        addStudent(store, rs);
+                    }
+                    Metrics.ROW_MAPPING.stop(mapStart);
+                    Metrics.ROWS_FETCHED.add(store.size());
+                } finally {
+                    runningStatements.remove(Thread.currentThread());
+                }
+            }
+        } catch (SQLException e) {
+            if (isCancellation(e)) return new StudentPage(new ArrayList<>(), 0); // Superseded by a newer request
+            e.printStackTrace();
+            DBConnection.showError("Error fetching student data: " + e.getMessage(), "Database Error");
+        }
+        return new StudentPage(store.toList(), Math.max(totalRows, store.size()));
+    }
+
+    private static void addStudent(StudentStore store, ResultSet rs) throws SQLException {
+        store.add(
+            rs.getString("STUDENT_LRN"), rs.getString("STUDENT_LASTNAME"),
+            rs.getString("STUDENT_FIRSTNAME"), rs.getString("STUDENT_MIDDLENAME"),
+            rs.getString("STUDENT_SEX"), rs.getInt("STUDENT_AGE"),
+            rs.getString("SF_GRADE_LEVEL"), rs.getString("SF_SECTION"),
+            rs.getString("SF_TRACK_AND_STRAND")
+        );
+    }
+
+    /**
+     * Checks whether the STUDENT/SCHOOL_FORM join yields each student at most
+     * once: STUDENT_LRN and SCHOOL_FORM.SF_ID must both carry a single-column
+     * unique index. When they do, COUNT(*) gives the same answer as
+     * COUNT(DISTINCT s.STUDENT_LRN) without the sort or hash.
+     * @return True if counting join rows counts distinct students.
+     */
+    boolean areStudentRowsUnique() {
+        Boolean unique = studentRowsUnique;
+        StudentDataSource source = DBConnection.getDataSource();
+        if (unique == null || uniquenessCheckedOn != source) {
+            try (Connection conn = DBConnection.getConnection()) {
+                if (conn == null) return false; // Pool unavailable; already reported
+                DatabaseMetaData meta = conn.getMetaData();
+                unique = hasUniqueIndex(meta, conn.getCatalog(), "STUDENT", "STUDENT_LRN")
+                        && hasUniqueIndex(meta, conn.getCatalog(), "SCHOOL_FORM", "SF_ID");
+                studentRowsUnique = unique;
+                uniquenessCheckedOn = source;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false; // Not remembered; try again on the next query
+            }
+        }
+        return unique;
+    }
+
+    private static boolean hasUniqueIndex(DatabaseMetaData meta, String catalog, String table, String column) throws SQLException {
+        Map<String, List<String>> indexColumns = new HashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(catalog, null, table, true, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                if (indexName != null && columnName != null) {
+                    indexColumns.computeIfAbsent(indexName, k -> new ArrayList<>()).add(columnName);
+                }
+            }
+        }
+        for (List<String> columns : indexColumns.values()) {
+            if (columns.size() == 1 && columns.get(0).equalsIgnoreCase(column)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts the total number of students matching the filter criteria.
+     * @param criteria The filter criteria.
+     * @return The total count of matching students.
+     */
+    public int getTotalStudentCount(FilterCriteria criteria) {
+        StudentQueryCompiler.CompiledFilter filter = queryCompiler.compile(criteria);
+        if (filter.matchesNothing()) return 0;
+        List<Object> params = filter.getParams();
+        String sql = countSql(filter);
+
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) return 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                // System.out.println("Executing Count SQL: " + pstmt.toString()); // For debugging
+                runningStatements.put(Thread.currentThread(), pstmt);
+                long executeStart = Metrics.QUERY_EXECUTE.start();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Metrics.QUERY_EXECUTE.stop(executeStart);
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+                } finally {
+                    runningStatements.remove(Thread.currentThread());
+                }
+            }
+        } catch (SQLException e) {
+            if (isCancellation(e)) return 0;
+            e.printStackTrace();
+            DBConnection.showError("Error counting students: " + e.getMessage(), "Database Error");
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the statement {@link #getTotalStudentCount} runs for a compiled filter.
+     * @param filter The compiled filter.
+     * @return The SQL, cached per filter shape.
+     */
+    String countSql(StudentQueryCompiler.CompiledFilter filter) {
+        // Each student appears once when the keys are unique, so the plain count is exact
+        String count = areStudentRowsUnique() ? "COUNT(*)" : "COUNT(DISTINCT s.STUDENT_LRN)";
+        return queryCompiler.sql("count-" + count, filter, where -> "SELECT " + count + STUDENT_FROM + where);
+    }
+
+    /**
+     * Cancels the student query or count that the given thread is running, if any.
+     * Returns immediately; the cancel request is sent in the background.
+     * @param worker The thread that issued the query.
+     */
+    public void cancelQuery(Thread worker) {
+        if (worker == null) return;
+        Statement stmt = runningStatements.get(worker);
+        if (stmt == null) return;
+        CANCEL_EXECUTOR.execute(() -> {
+            // Skip if the statement already finished, so a reused connection isn't hit
+            if (runningStatements.get(worker) != stmt) return;
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                // The query finished before the cancel reached the server
+            }
+        });
+    }
+
+    /**
+     * Checks whether a failure was caused by cancelling the query rather than a real error.
+     * @param e The exception thrown by the driver.
+     * @return True if the query was cancelled or the calling thread interrupted.
+     */
+    private static boolean isCancellation(SQLException e) {
+        return Thread.currentThread().isInterrupted()
+                || "70100".equals(e.getSQLState()) // MariaDB's ER_QUERY_INTERRUPTED
+                || "57014".equals(e.getSQLState()); // Statement cancelled, in the embedded database
+    }
+
+    /**
+     * Fetches every distinct grade level / section / track-strand combination in
+     * one scan of SCHOOL_FORM. Blank values, and a track/strand of "N/A", come
+     * back as null. The dropdowns and their cascades are derived from these
+     * rows by {@link LookupCache}.
+     * @return The combinations as {grade, section, track/strand}, in a stable order.
+     * @throws SQLException If the query fails.
+     */
+    public List<String[]> getSchoolFormDimensions() throws SQLException {
+        List<String[]> combinations = new ArrayList<>();
+        String sql = "SELECT DISTINCT SF_GRADE_LEVEL, SF_SECTION, SF_TRACK_AND_STRAND FROM SCHOOL_FORM " +
+                     "ORDER BY SF_GRADE_LEVEL, SF_SECTION, SF_TRACK_AND_STRAND";
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    String track = blankToNull(rs.getString("SF_TRACK_AND_STRAND"));
+                    combinations.add(new String[]{
+                        blankToNull(rs.getString("SF_GRADE_LEVEL")),
+                        blankToNull(rs.getString("SF_SECTION")),
+                        "N/A".equals(track) ? null : track
+                    });
+                }
+            }
+        }
+        return combinations;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    public int[] getMinMaxAge() {
+        String sql = "SELECT MIN(STUDENT_AGE), MAX(STUDENT_AGE) FROM STUDENT";
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) return new int[]{12, 22}; // Default fallback
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                if (rs.next()) {
+                    int minAge = rs.getInt(1); int maxAge = rs.getInt(2);
+                    if (!rs.wasNull()) {
+                        queryCompiler.setAgeBounds(minAge, maxAge); // Lets full-range age filters be dropped
+                    }
+                    // Provide sensible defaults if DB values are 0
+                    return new int[]{minAge == 0 ? 12 : minAge, maxAge == 0 ? 22 : maxAge};
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); DBConnection.showError("Error fetching min/max age: " + e.getMessage(), "Database Error"); }
+        return new int[]{12, 22}; // Default fallback
+    }
+
+    /**
+     * Checks whether the STUDENT_CHANGE_LOG table behind incremental refresh
+     * exists (see sql/student_change_log.sql).
+     * @return True if the change log can be read.
+     * @throws SQLException If the schema could not be read.
+     */
+    boolean hasChangeLog() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            DatabaseMetaData meta = conn.getMetaData();
+            for (String name : new String[]{"STUDENT_CHANGE_LOG", "student_change_log"}) {
+                try (ResultSet rs = meta.getTables(conn.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (rs.next()) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the range of change ids in the change log.
+     * @return {lowest, highest}, or {0, 0} if the log is empty.
+     * @throws SQLException If the query fails.
+     */
+    long[] getChangeLogRange() throws SQLException {
+        String sql = "SELECT MIN(CHANGE_ID), MAX(CHANGE_ID) FROM STUDENT_CHANGE_LOG";
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)}; // NULL reads as 0
+            }
+        }
+    }
+
+    /**
+     * Identifies the current state of the student data, so a copy taken
+     * earlier can be checked against it. With the change log this is its
+     * highest change id ("log:" and the id); otherwise the checksums of
+     * STUDENT and SCHOOL_FORM ("checksum:" and the values), which MariaDB
+     * computes by reading both tables. An embedded database reports the
+     * version its contents were copied at.
+     * @return The data version; equal strings mean unchanged data.
+     * @throws SQLException If the query fails.
+     */
+    String getDataVersion() throws SQLException {
+        StudentDataSource source = DBConnection.getDataSource();
+        if (source instanceof EmbeddedStudentDatabase) {
+            String version = ((EmbeddedStudentDatabase) source).getDataVersion();
+            return version != null ? version : "empty";
+        }
+        if (hasChangeLog()) {
+            return "log:" + getChangeLogRange()[1];
+        }
+        StringBuilder version = new StringBuilder("checksum:");
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("CHECKSUM TABLE STUDENT, SCHOOL_FORM")) {
+                while (rs.next()) {
+                    version.append(rs.getString(2)).append(',');
+                }
+            }
+        }
+        return version.toString();
+    }
+
+    /**
+     * Brings a local copy up to date with the server, copying STUDENT and
+     * SCHOOL_FORM if their data version changed since the last copy. Does
+     * nothing while offline.
+     * @param localCopy The local copy.
+     * @return True if the tables were copied.
+     * @throws SQLException If the server or the local copy cannot be read or written.
+     */
+    boolean updateLocalCopy(EmbeddedStudentDatabase localCopy) throws SQLException {
+        StudentDataSource source = DBConnection.getDataSource();
+        if (source == null || source.isLocal()) return false;
+        String version = getDataVersion(); // Read first, so the copy is at least as new
+        if (version.equals(localCopy.getDataVersion())) return false;
+        boolean unique = areStudentRowsUnique();
+        try (Connection conn = source.getConnection()) {
+            localCopy.copyFrom(conn, version, unique);
+        }
+        return true;
+    }
+
+    /**
+     * Reads change log entries after a change id, oldest first.
+     * @param afterId The highest change id already applied.
+     * @param limit   The most entries to read.
+     * @return The entries.
+     * @throws SQLException If the query fails.
+     */
+    List<StudentChangeFeed.Change> getChanges(long afterId, int limit) throws SQLException {
+        String sql = "SELECT CHANGE_ID, STUDENT_LRN, SF_ID FROM STUDENT_CHANGE_LOG WHERE CHANGE_ID > ? ORDER BY CHANGE_ID LIMIT ?";
+        List<StudentChangeFeed.Change> changes = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, afterId);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int schoolFormId = rs.getInt("SF_ID");
+                        changes.add(new StudentChangeFeed.Change(rs.getLong("CHANGE_ID"), rs.getString("STUDENT_LRN"),
+                                rs.wasNull() ? -1 : schoolFormId));
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Reads the current values of the given students, and of every student in
+     * the given school forms. Students that no longer exist, or no longer join
+     * a school form, are simply absent.
+     * @param lrns          The LRNs to read.
+     * @param schoolFormIds The school forms whose students to read.
+     * @return The students, in no particular order.
+     * @throws SQLException If a query fails.
+     */
+    StudentStore getStudentsFor(Collection<String> lrns, Collection<Integer> schoolFormIds) throws SQLException {
+        StudentStore store = new StudentStore(lrns.size());
+        try (Connection conn = DBConnection.getConnection()) {
+            if (conn == null) throw new SQLException("No database connection");
+            readStudentsWhere(conn, "s.STUDENT_LRN", new ArrayList<Object>(lrns), store);
+            readStudentsWhere(conn, "s.SF_ID", new ArrayList<Object>(schoolFormIds), store);
+        }
+        return store;
+    }
+
+    private static void readStudentsWhere(Connection conn, String column, List<Object> values, StudentStore store) throws SQLException {
+        for (int from = 0; from < values.size(); from += IN_LIST_CHUNK) {
+            List<Object> chunk = values.subList(from, Math.min(values.size(), from + IN_LIST_CHUNK));
+            StringJoiner in = new StringJoiner(", ", " WHERE " + column + " IN (", ")");
+            for (int i = 0; i < chunk.size(); i++) in.add("?");
+            try (PreparedStatement pstmt = conn.prepareStatement(STUDENT_SELECT + in)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setObject(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (store.findRow(rs.getString("STUDENT_LRN")) < 0) { // Read once, if both by LRN and by school form
+                            addStudent(store, rs);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
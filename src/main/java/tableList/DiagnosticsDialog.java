@@ -0,0 +1,94 @@
+package tableList;
+
+import java.awt.Font;
+import java.awt.Frame;
+import java.util.function.Supplier;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+
+import net.miginfocom.swing.MigLayout;
+
+/**
+ * DiagnosticsDialog Class
+ * Hidden panel (Ctrl+Shift+D) showing the stage timings and counters of
+ * {@link Metrics}, with the result cache and connection pool statistics,
+ * refreshed every second while open.
+ */
+class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MS = 1000;
+
+    private final JTextArea text = new JTextArea(24, 100);
+    private final Supplier<StudentResultCache.CacheStats> cacheStats;
+    private final Timer refreshTimer;
+
+    /**
+     * @param owner      The parent frame.
+     * @param cacheStats Supplies the result cache statistics.
+     */
+    DiagnosticsDialog(Frame owner, Supplier<StudentResultCache.CacheStats> cacheStats) {
+        super(owner, "Diagnostics", false);
+        this.cacheStats = cacheStats;
+        setLayout(new MigLayout("fill, insets 10", "[grow]", "[][grow][]"));
+
+        JCheckBox recordCheckBox = new JCheckBox("Record metrics", Metrics.isEnabled());
+        recordCheckBox.addActionListener(e -> Metrics.setEnabled(recordCheckBox.isSelected()));
+        add(recordCheckBox, "wrap");
+
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(new JScrollPane(text), "grow, wrap");
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        add(resetButton, "split 2, align right");
+        add(closeButton);
+
+        refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+        refresh();
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        if (visible) {
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+        super.setVisible(visible);
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    private void refresh() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Metrics.isEnabled() ? "Recording" : "Not recording").append("\n\nTimers\n");
+        for (Metrics.Timer t : Metrics.timers()) {
+            sb.append("  ").append(t).append('\n');
+        }
+        sb.append("\nCounters\n");
+        for (Metrics.Counter c : Metrics.counters()) {
+            sb.append("  ").append(c).append('\n');
+        }
+        sb.append("\nResult cache\n  ").append(cacheStats.get()).append('\n');
+        ConnectionPool.PoolStats pool = DBConnection.getPoolStats();
+        sb.append("\nConnection pool\n  ").append(pool == null ? "unavailable" : pool).append('\n');
+        text.setText(sb.toString());
+        text.setCaretPosition(0);
+    }
+}
@@ -0,0 +1,280 @@
+package tableList;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * EmbeddedStudentDatabase Class
+ * An embedded H2 database with the STUDENT and SCHOOL_FORM tables of the
+ * MariaDB schema, used in place of the server.
+ * <p>
+ * As a file it is the local copy the viewer falls back to when the server
+ * cannot be reached: {@link #copyFrom} replaces its contents with the
+ * server's once a complete copy has been read, and the data version they were copied at is kept with them (see
+ * {@link DatabaseManager#getDataVersion()}). In memory it is the fixture the
+ * benchmarks fill with generated students.
+ * </p>
+ * <p>
+ * H2 runs in MariaDB mode and ignores case in comparisons, like the
+ * production collation, so DatabaseManager's statements run unchanged. The
+ * change log table is not copied; without it the change feed stays idle.
+ * The H2 driver must be on the classpath (see {@link #isDriverAvailable()}).
+ * </p>
+ */
+class EmbeddedStudentDatabase implements StudentDataSource {
+    private static final String OPTIONS = ";MODE=MariaDB;IGNORECASE=TRUE";
+    private static final int COPY_BATCH = 1000;
+    private static final String STAGING = "_STAGING"; // Suffix of the tables a copy is written to
+
+    private final String description;
+    private final ConnectionPool pool;
+
+    private EmbeddedStudentDatabase(String url, String description) {
+        Properties info = new Properties();
+        info.setProperty("user", "sa");
+        info.setProperty("password", "");
+        this.description = description;
+        this.pool = new ConnectionPool(url, info, 1, 4, 10_000, 5 * 60_000, 60_000);
+    }
+
+    /**
+     * Opens an in-memory database. It lives until the JVM exits, so a later
+     * call with the same name sees the same tables.
+     * @param name The database name; each name is a separate database.
+     * @return The database; create its tables with {@link #createSchema}.
+     */
+    static EmbeddedStudentDatabase inMemory(String name) {
+        return new EmbeddedStudentDatabase("jdbc:h2:mem:" + name + OPTIONS + ";DB_CLOSE_DELAY=-1", "in-memory database " + name);
+    }
+
+    /**
+     * Opens a database file, creating it if needed.
+     * @param file The file, without H2's ".mv.db" suffix.
+     * @return The database.
+     */
+    static EmbeddedStudentDatabase openFile(Path file) {
+        return new EmbeddedStudentDatabase("jdbc:h2:file:" + file.toAbsolutePath() + OPTIONS, "local copy");
+    }
+
+    /**
+     * Gets where the local copy of the server's data is kept.
+     * @return The file, without H2's suffix, or null if the local copy is turned off.
+     */
+    static Path configuredPath() {
+        String setting = System.getProperty("studentviewer.mirror");
+        if (setting == null || setting.trim().isEmpty()) {
+            return Paths.get(System.getProperty("user.home"), ".student-viewer", "mirror", "students");
+        }
+        if ("off".equalsIgnoreCase(setting) || "false".equalsIgnoreCase(setting)) {
+            return null;
+        }
+        return Paths.get(setting);
+    }
+
+    /**
+     * @return True if the H2 driver is on the classpath.
+     */
+    static boolean isDriverAvailable() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * (Re)creates the STUDENT and SCHOOL_FORM tables, empty. Keys are only
+     * declared unique if they are on the server, since DatabaseManager
+     * counts students differently otherwise.
+     * @param conn       A connection to the database.
+     * @param uniqueKeys Whether STUDENT_LRN and SF_ID are primary keys.
+     * @throws SQLException If the tables could not be created.
+     */
+    static void createSchema(Connection conn, boolean uniqueKeys) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS DATA_VERSION (VERSION VARCHAR(255))");
+        }
+        createTables(conn, "", uniqueKeys);
+    }
+
+    /**
+     * Drops and creates STUDENT and SCHOOL_FORM, or the staging tables
+     * {@link #copyFrom} fills, under names and index names with a suffix.
+     */
+    private static void createTables(Connection conn, String suffix, boolean uniqueKeys) throws SQLException {
+        String key = uniqueKeys ? " PRIMARY KEY" : "";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS STUDENT" + suffix);
+            stmt.execute("DROP TABLE IF EXISTS SCHOOL_FORM" + suffix);
+            stmt.execute("CREATE TABLE SCHOOL_FORM" + suffix + " (SF_ID INT" + key + ", SF_GRADE_LEVEL VARCHAR(255), " +
+                    "SF_SECTION VARCHAR(255), SF_TRACK_AND_STRAND VARCHAR(255))");
+            stmt.execute("CREATE TABLE STUDENT" + suffix + " (STUDENT_LRN VARCHAR(255)" + key + ", STUDENT_LASTNAME VARCHAR(255), " +
+                    "STUDENT_FIRSTNAME VARCHAR(255), STUDENT_MIDDLENAME VARCHAR(255), STUDENT_SEX VARCHAR(255), " +
+                    "STUDENT_AGE INT, SF_ID INT)");
+            stmt.execute("CREATE INDEX STUDENT_NAME_ORDER" + suffix + " ON STUDENT" + suffix +
+                    " (STUDENT_LASTNAME, STUDENT_FIRSTNAME, STUDENT_LRN)");
+            stmt.execute("CREATE INDEX STUDENT_SCHOOL_FORM" + suffix + " ON STUDENT" + suffix + " (SF_ID)");
+            if (!uniqueKeys) {
+                stmt.execute("CREATE INDEX SCHOOL_FORM_ID" + suffix + " ON SCHOOL_FORM" + suffix + " (SF_ID)");
+            }
+        }
+    }
+
+    /**
+     * Records the data version the tables hold.
+     * @param conn    A connection to the database.
+     * @param version The version, or null to mark the tables incomplete.
+     * @throws SQLException If the version could not be written.
+     */
+    static void setDataVersion(Connection conn, String version) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS DATA_VERSION (VERSION VARCHAR(255))");
+            stmt.execute("DELETE FROM DATA_VERSION");
+        }
+        if (version != null) {
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO DATA_VERSION VALUES (?)")) {
+                pstmt.setString(1, version);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Gets the data version the tables hold.
+     * @return The version, or null if the tables were never completely filled.
+     * @throws SQLException If the database could not be read.
+     */
+    String getDataVersion() throws SQLException {
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS DATA_VERSION (VERSION VARCHAR(255))");
+            try (ResultSet rs = stmt.executeQuery("SELECT VERSION FROM DATA_VERSION")) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the tables hold a complete copy.
+     * @return False if they were never filled or cannot be read.
+     */
+    boolean hasData() {
+        try {
+            return getDataVersion() != null;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the tables' contents with those of another database. The rows
+     * are streamed into staging tables, so memory use does not depend on the
+     * number of students, and the current tables stay untouched until every
+     * row has been copied. Only then are the staging tables renamed into
+     * place and the new version recorded. The tables are marked incomplete
+     * during the rename, since H2 commits each statement of it separately.
+     * @param source      A connection to the database to copy, usually the server.
+     * @param version     The data version of the source, read before the copy starts.
+     * @param uniqueKeys  Whether the source's STUDENT_LRN and SF_ID are unique.
+     * @throws SQLException If reading or writing fails; the previous copy is then kept.
+     */
+    void copyFrom(Connection source, String version, boolean uniqueKeys) throws SQLException {
+        try (Connection conn = getConnection()) {
+            createTables(conn, STAGING, uniqueKeys);
+            conn.setAutoCommit(false);
+            try {
+                copyRows(source, conn, "SELECT SF_ID, SF_GRADE_LEVEL, SF_SECTION, SF_TRACK_AND_STRAND FROM SCHOOL_FORM",
+                        "INSERT INTO SCHOOL_FORM" + STAGING + " VALUES (?, ?, ?, ?)", 4);
+                copyRows(source, conn, "SELECT STUDENT_LRN, STUDENT_LASTNAME, STUDENT_FIRSTNAME, STUDENT_MIDDLENAME, " +
+                                "STUDENT_SEX, STUDENT_AGE, SF_ID FROM STUDENT",
+                        "INSERT INTO STUDENT" + STAGING + " VALUES (?, ?, ?, ?, ?, ?, ?)", 7);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                dropStaging(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            setDataVersion(conn, null);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS STUDENT");
+                stmt.execute("DROP TABLE IF EXISTS SCHOOL_FORM");
+                stmt.execute("ALTER TABLE STUDENT" + STAGING + " RENAME TO STUDENT");
+                stmt.execute("ALTER TABLE SCHOOL_FORM" + STAGING + " RENAME TO SCHOOL_FORM");
+                stmt.execute("ALTER INDEX STUDENT_NAME_ORDER" + STAGING + " RENAME TO STUDENT_NAME_ORDER");
+                stmt.execute("ALTER INDEX STUDENT_SCHOOL_FORM" + STAGING + " RENAME TO STUDENT_SCHOOL_FORM");
+                stmt.execute("ALTER INDEX IF EXISTS SCHOOL_FORM_ID" + STAGING + " RENAME TO SCHOOL_FORM_ID");
+            }
+            setDataVersion(conn, version);
+        }
+    }
+
+    private static void dropStaging(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS STUDENT" + STAGING);
+            stmt.execute("DROP TABLE IF EXISTS SCHOOL_FORM" + STAGING);
+        } catch (SQLException e) {
+            e.printStackTrace(); // Dropped by the next copy
+        }
+    }
+
+    private static void copyRows(Connection source, Connection target, String select, String insert, int columns) throws SQLException {
+        try (Statement read = source.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             PreparedStatement write = target.prepareStatement(insert)) {
+            read.setFetchSize(COPY_BATCH);
+            try (ResultSet rs = read.executeQuery(select)) {
+                int pending = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        write.setObject(i, rs.getObject(i));
+                    }
+                    write.addBatch();
+                    if (++pending == COPY_BATCH) {
+                        write.executeBatch();
+                        pending = 0;
+                    }
+                }
+                write.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public void warmUp() throws SQLException {
+        pool.prewarm();
+    }
+
+    @Override
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
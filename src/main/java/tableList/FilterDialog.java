@@ -0,0 +1,216 @@
+package tableList;
+
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.util.Set;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.border.TitledBorder;
+
+// Imports for GTable and its components
+import net.miginfocom.swing.MigLayout;
+
+/**
+ * FilterDialog Class
+ * Provides a dialog for users to set advanced filter criteria.
+ */
+class FilterDialog extends JDialog {
+    private final FilterCriteria currentFilterCriteria; // The criteria object to modify
+    private final LookupCache.Lookups lookups;
+    private JTextField firstNameField, lastNameField, middleNameField;
+    private JCheckBox middleInitialOnlyCheckBox;
+    private JComboBox<String> gradeLevelComboBox, sectionComboBox, trackStrandComboBox;
+    private JCheckBox maleCheckBox, femaleCheckBox;
+    private JSpinner minAgeSpinner, maxAgeSpinner;
+    private int initialDbMinAge, initialDbMaxAge; // Store initial DB min/max ages for reset
+    private boolean filtersApplied = false;
+
+    public FilterDialog(Frame owner, FilterCriteria criteriaToModify, LookupCache.Lookups lookups) {
+        super(owner, "Advanced Student Filters", true);
+        this.currentFilterCriteria = criteriaToModify;
+        this.lookups = lookups;
+
+        // Initial min/max ages from DB for spinner defaults and reset functionality
+        initialDbMinAge = lookups.getMinAge();
+        initialDbMaxAge = lookups.getMaxAge();
+
+        initComponents();
+        loadCriteria(currentFilterCriteria); // Load existing criteria into dialog fields
+        pack();
+        setMinimumSize(new Dimension(500, getHeight())); // Adjusted width
+        setLocationRelativeTo(owner);
+    }
+
+    private void initComponents() {
+        setLayout(new MigLayout("insets dialog, fillx, wrap 2", "[right]para[grow,fill]", ""));
+
+        // Name Filtering Section
+        JPanel namePanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
+        namePanel.setBorder(new TitledBorder("Filter by Name"));
+        namePanel.add(new JLabel("First Name:")); firstNameField = new JTextField(); namePanel.add(firstNameField, "growx");
+        namePanel.add(new JLabel("Last Name:")); lastNameField = new JTextField(); namePanel.add(lastNameField, "growx");
+        namePanel.add(new JLabel("Middle Name:")); middleNameField = new JTextField(); namePanel.add(middleNameField, "split 2, growx");
+        middleInitialOnlyCheckBox = new JCheckBox("Initial Only"); namePanel.add(middleInitialOnlyCheckBox, "gapleft 5");
+        add(namePanel, "span 2, growx, wrap unrel");
+
+        // Academic Filtering Section
+        JPanel academicPanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
+        academicPanel.setBorder(new TitledBorder("Filter by Academics"));
+        gradeLevelComboBox = new JComboBox<>(choices(lookups.getGradeLevels())); academicPanel.add(new JLabel("Grade Level:")); academicPanel.add(gradeLevelComboBox, "growx");
+        sectionComboBox = new JComboBox<>(choices(lookups.getSections())); academicPanel.add(new JLabel("Section:")); academicPanel.add(sectionComboBox, "growx");
+        trackStrandComboBox = new JComboBox<>(choices(lookups.getTrackStrands())); academicPanel.add(new JLabel("Track & Strand:")); academicPanel.add(trackStrandComboBox, "growx");
+
+        // Cascade: each dropdown only offers values that exist under the ones above it
+        gradeLevelComboBox.addActionListener(e -> {
+            setChoices(sectionComboBox, lookups.getSectionsFor((String) gradeLevelComboBox.getSelectedItem()));
+            updateTrackStrandChoices();
+        });
+        sectionComboBox.addActionListener(e -> updateTrackStrandChoices());
+        add(academicPanel, "span 2, growx, wrap unrel");
+
+        // Demographics Filtering Section
+        JPanel demoPanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
+        demoPanel.setBorder(new TitledBorder("Filter by Demographics"));
+        maleCheckBox = new JCheckBox("Male"); femaleCheckBox = new JCheckBox("Female");
+        JPanel sexPanel = new JPanel(new MigLayout("insets 0, gap 0", "[]10[]", "[]")); // Layout for sex checkboxes
+        sexPanel.add(maleCheckBox); sexPanel.add(femaleCheckBox);
+        demoPanel.add(new JLabel("Sex:")); demoPanel.add(sexPanel, "growx");
+
+        // Age Spinners
+        // Use initialDbMinAge and initialDbMaxAge for spinner bounds
+        SpinnerNumberModel minModel = new SpinnerNumberModel(initialDbMinAge, initialDbMinAge, Math.max(initialDbMinAge, initialDbMaxAge + 20), 1);
+        minAgeSpinner = new JSpinner(minModel);
+        SpinnerNumberModel maxModel = new SpinnerNumberModel(Math.min(initialDbMaxAge + 5, initialDbMaxAge + 20), initialDbMinAge, Math.max(initialDbMinAge, initialDbMaxAge + 20), 1);
+        maxAgeSpinner = new JSpinner(maxModel);
+
+        JPanel agePanel = new JPanel(new MigLayout("insets 0, fillx", "[][grow,fill][][]", ""));
+        agePanel.add(new JLabel("Min:")); agePanel.add(minAgeSpinner, "w 60!");
+        agePanel.add(new JLabel("Max:"), "gapleft 15"); agePanel.add(maxAgeSpinner, "w 60!");
+        demoPanel.add(new JLabel("Age Range:")); demoPanel.add(agePanel, "growx");
+        add(demoPanel, "span 2, growx, wrap unrel");
+
+        // Action Buttons
+        JButton applyButton = new JButton("Apply Filters"); applyButton.addActionListener(e -> applyFilters());
+        JButton clearButton = new JButton("Clear Filters"); clearButton.addActionListener(e -> clearFiltersAndApply());
+        JButton cancelButton = new JButton("Cancel"); cancelButton.addActionListener(e -> { filtersApplied = false; setVisible(false); dispose(); });
+
+        JPanel buttonPanel = new JPanel(new MigLayout("insets 0, align right")); // Align buttons to the right
+        buttonPanel.add(applyButton);
+        buttonPanel.add(clearButton, "gapleft 5");
+        buttonPanel.add(cancelButton, "gapleft 5");
+        add(buttonPanel, "span 2, align right, gaptop 15");
+    }
+
+    private static DefaultComboBoxModel<String> choices(Set<String> values) {
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement("All");
+        values.forEach(model::addElement);
+        return model;
+    }
+
+    /**
+     * Replaces a dropdown's values, keeping the selection if it is still offered.
+     */
+    private static void setChoices(JComboBox<String> comboBox, Set<String> values) {
+        Object selected = comboBox.getSelectedItem();
+        DefaultComboBoxModel<String> model = choices(values);
+        if (selected != null && model.getIndexOf(selected) >= 0) {
+            model.setSelectedItem(selected);
+        }
+        comboBox.setModel(model);
+    }
+
+    private void updateTrackStrandChoices() {
+        setChoices(trackStrandComboBox, lookups.getTrackStrandsFor(
+                (String) gradeLevelComboBox.getSelectedItem(), (String) sectionComboBox.getSelectedItem()));
+    }
+
+    /**
+     * Loads the current filter criteria into the dialog's input fields.
+     * @param criteria The FilterCriteria object to load from.
+     */
+    private void loadCriteria(FilterCriteria criteria) {
+        firstNameField.setText(criteria.filterFirstName);
+        lastNameField.setText(criteria.filterLastName);
+        middleNameField.setText(criteria.filterMiddleName);
+        middleInitialOnlyCheckBox.setSelected(criteria.middleInitialOnly);
+
+        gradeLevelComboBox.setSelectedItem(criteria.filterGradeLevel);
+        sectionComboBox.setSelectedItem(criteria.filterSection);
+
+        // Handle trackStrandComboBox item existence
+        if (criteria.filterTrackStrand == null || ((DefaultComboBoxModel<String>)trackStrandComboBox.getModel()).getIndexOf(criteria.filterTrackStrand) == -1) {
+             trackStrandComboBox.setSelectedItem("All");
+        } else {
+            trackStrandComboBox.setSelectedItem(criteria.filterTrackStrand);
+        }
+
+        maleCheckBox.setSelected(criteria.filterMale);
+        femaleCheckBox.setSelected(criteria.filterFemale);
+
+        // Safely set spinner values within their model's bounds
+        SpinnerNumberModel minModel = (SpinnerNumberModel) minAgeSpinner.getModel();
+        minAgeSpinner.setValue(Math.max((Integer)minModel.getMinimum(), Math.min(criteria.minAge, (Integer)minModel.getMaximum())));
+
+        SpinnerNumberModel maxModel = (SpinnerNumberModel) maxAgeSpinner.getModel();
+        maxAgeSpinner.setValue(Math.min((Integer)maxModel.getMaximum(), Math.max(criteria.maxAge, (Integer)maxModel.getMinimum())));
+    }
+
+    /**
+     * Applies the filters set in the dialog to the currentFilterCriteria object.
+     */
+    private void applyFilters() {
+        currentFilterCriteria.filterFirstName = firstNameField.getText().trim();
+        currentFilterCriteria.filterLastName = lastNameField.getText().trim();
+        currentFilterCriteria.filterMiddleName = middleNameField.getText().trim();
+        currentFilterCriteria.middleInitialOnly = middleInitialOnlyCheckBox.isSelected();
+        currentFilterCriteria.filterGradeLevel = (String) gradeLevelComboBox.getSelectedItem();
+        currentFilterCriteria.filterSection = (String) sectionComboBox.getSelectedItem();
+        currentFilterCriteria.filterTrackStrand = (String) trackStrandComboBox.getSelectedItem();
+        currentFilterCriteria.filterMale = maleCheckBox.isSelected();
+        currentFilterCriteria.filterFemale = femaleCheckBox.isSelected();
+        currentFilterCriteria.minAge = (Integer) minAgeSpinner.getValue();
+        currentFilterCriteria.maxAge = (Integer) maxAgeSpinner.getValue();
+
+        filtersApplied = true;
+        setVisible(false);
+        dispose();
+    }
+
+    /**
+     * Clears all filter fields in the dialog and applies these cleared filters.
+     */
+    private void clearFiltersAndApply() {
+        // Reset UI fields
+        firstNameField.setText(""); lastNameField.setText(""); middleNameField.setText("");
+        middleInitialOnlyCheckBox.setSelected(false);
+        gradeLevelComboBox.setSelectedItem("All");
+        sectionComboBox.setSelectedItem("All");
+        trackStrandComboBox.setSelectedItem("All");
+        maleCheckBox.setSelected(true); femaleCheckBox.setSelected(true);
+        minAgeSpinner.setValue(initialDbMinAge); // Reset to initial DB min age
+        maxAgeSpinner.setValue(initialDbMaxAge > initialDbMinAge ? initialDbMaxAge + 5 : initialDbMinAge + 20); // Reset to default max age logic
+
+        // Reset the underlying FilterCriteria object
+        currentFilterCriteria.reset(initialDbMinAge, initialDbMaxAge);
+
+        filtersApplied = true;
+        setVisible(false);
+        dispose();
+    }
+
+    /**
+     * Checks if the filters were applied by the user (i.e., "Apply" or "Clear" was clicked).
+     * @return True if filters were applied, false otherwise (e.g., dialog was cancelled).
+     */
+    public boolean wereFiltersApplied() { return filtersApplied; }
+}
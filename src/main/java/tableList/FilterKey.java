@@ -0,0 +1,96 @@
+package tableList;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * FilterKey Class
+ * Immutable, normalized snapshot of a {@link FilterCriteria}, used as a cache
+ * key. Criteria that select the same students produce equal keys: text is
+ * trimmed and lower-cased (name columns compare case-insensitively), empty
+ * dropdowns read as "All", and a middle-initial filter keeps only the initial.
+ */
+final class FilterKey {
+    private final String searchTerm;
+    private final String firstName;
+    private final String lastName;
+    private final String middleName;
+    private final boolean middleInitialOnly;
+    private final String gradeLevel;
+    private final String section;
+    private final String trackStrand;
+    private final boolean male;
+    private final boolean female;
+    private final int minAge;
+    private final int maxAge;
+    private final int hash;
+
+    /**
+     * Takes a snapshot of the criteria as they are now; later edits to the
+     * criteria do not affect the key.
+     * @param criteria The criteria to snapshot.
+     */
+    FilterKey(FilterCriteria criteria) {
+        searchTerm = text(criteria.searchTerm);
+        firstName = text(criteria.filterFirstName);
+        lastName = text(criteria.filterLastName);
+        String middle = text(criteria.filterMiddleName);
+        middleInitialOnly = criteria.middleInitialOnly && !middle.isEmpty();
+        middleName = middleInitialOnly ? middle.substring(0, 1) : middle;
+        gradeLevel = dropdown(criteria.filterGradeLevel);
+        section = dropdown(criteria.filterSection);
+        trackStrand = dropdown(criteria.filterTrackStrand);
+        male = criteria.filterMale;
+        female = criteria.filterFemale;
+        minAge = criteria.minAge;
+        maxAge = criteria.maxAge;
+        hash = Objects.hash(searchTerm, firstName, lastName, middleName, middleInitialOnly,
+                gradeLevel, section, trackStrand, male, female, minAge, maxAge);
+    }
+
+    public String getGradeLevel() { return gradeLevel; }
+    public String getSection() { return section; }
+    public String getTrackStrand() { return trackStrand; }
+
+    /**
+     * Estimates the memory held by this key, for cache size accounting.
+     * @return The approximate size in bytes.
+     */
+    long estimateBytes() {
+        return 64 + StudentResultCache.stringBytes(searchTerm) + StudentResultCache.stringBytes(firstName)
+                + StudentResultCache.stringBytes(lastName) + StudentResultCache.stringBytes(middleName);
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String dropdown(String value) {
+        return value == null || value.isEmpty() ? "All" : value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FilterKey)) return false;
+        FilterKey k = (FilterKey) o;
+        return hash == k.hash && middleInitialOnly == k.middleInitialOnly && male == k.male && female == k.female
+                && minAge == k.minAge && maxAge == k.maxAge
+                && searchTerm.equals(k.searchTerm) && firstName.equals(k.firstName)
+                && lastName.equals(k.lastName) && middleName.equals(k.middleName)
+                && gradeLevel.equals(k.gradeLevel) && section.equals(k.section) && trackStrand.equals(k.trackStrand);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterKey[search=" + searchTerm + ", first=" + firstName + ", last=" + lastName
+                + ", middle=" + middleName + (middleInitialOnly ? " (initial)" : "")
+                + ", grade=" + gradeLevel + ", section=" + section + ", track=" + trackStrand
+                + ", male=" + male + ", female=" + female + ", age=" + minAge + "-" + maxAge + "]";
+    }
+}
@@ -0,0 +1,156 @@
+package tableList;
+
+import java.util.Arrays;
+
+/**
+ * LongIntHashMap Class
+ * Open-addressing hash map from long keys to int values, without boxing.
+ * Uses linear probing, and deletes by shifting later entries back, so no
+ * tombstones build up. Not thread-safe.
+ */
+final class LongIntHashMap {
+    private static final long FREE = 0; // Key 0 is stored out of line
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /**
+     * @param expectedSize The number of entries to allocate room for up front.
+     * @param missingValue The value returned by {@link #get(long)} for absent keys.
+     */
+    LongIntHashMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @param key The key.
+     * @return The value, or the missing value if the key is absent.
+     */
+    int get(long key) {
+        if (key == FREE) return hasZeroKey ? zeroValue : missingValue;
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == FREE) return missingValue;
+        }
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     * @return The previous value, or the missing value if the key was absent.
+     */
+    int put(long key, int value) {
+        if (key == FREE) {
+            int previous = hasZeroKey ? zeroValue : missingValue;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        for (; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Removes a key.
+     * @return The value it had, or the missing value if it was absent.
+     */
+    int remove(long key) {
+        if (key == FREE) {
+            if (!hasZeroKey) return missingValue;
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        for (; keys[slot] != key; slot = (slot + 1) & mask) {
+            if (keys[slot] == FREE) return missingValue;
+        }
+        int previous = values[slot];
+        size--;
+
+        // Shift back entries whose probe sequence ran through the freed slot
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = FREE;
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int mix(long key) {
+        // Murmur3 finalizer; LRN keys differ mostly in their high bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
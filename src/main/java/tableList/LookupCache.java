@@ -0,0 +1,209 @@
+package tableList;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * LookupCache Class
+ * Holds the values behind the filter dropdowns (grade levels, sections,
+ * tracks/strands) and the students' age range. They are loaded with two small
+ * queries, served from memory afterwards, and refreshed on a background
+ * thread periodically or when {@link #refreshNow()} is called after a change.
+ * <p>
+ * The grade/section/track combinations are kept as well, so dependent
+ * dropdowns (sections of the selected grade, say) are computed from memory.
+ * Listeners are notified on the event dispatch thread whenever the values
+ * change, and once after the first load.
+ * </p>
+ */
+class LookupCache {
+    private static final int[] FALLBACK_AGES = {12, 22}; // Same fallback as getMinMaxAge
+
+    private final DatabaseManager dbManager;
+    private final long refreshPeriodMillis;
+    private final List<Consumer<Lookups>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lookup-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile Lookups current;
+
+    /**
+     * @param dbManager           The database access object.
+     * @param refreshPeriodMillis How often the values are reloaded in the background.
+     */
+    LookupCache(DatabaseManager dbManager, long refreshPeriodMillis) {
+        this.dbManager = dbManager;
+        this.refreshPeriodMillis = refreshPeriodMillis;
+    }
+
+    /**
+     * Starts loading the values in the background and schedules the periodic refresh.
+     */
+    void start() {
+        refresher.scheduleWithFixedDelay(this::reload, 0, refreshPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reloads the values in the background, e.g. after student records changed.
+     */
+    void refreshNow() {
+        refresher.execute(this::reload);
+    }
+
+    /**
+     * Gets the values loaded most recently.
+     * @return The lookups, or null if the first load has not finished.
+     */
+    Lookups get() {
+        return current;
+    }
+
+    /**
+     * Serves values from elsewhere, e.g. a local snapshot, until the first
+     * load finishes. Listeners are not notified; a later load that finds the
+     * same values does not notify them either.
+     * @param lookups The values to serve.
+     */
+    void seed(Lookups lookups) {
+        if (current == null) {
+            current = lookups;
+        }
+    }
+
+    /**
+     * Registers a listener called on the event dispatch thread with the new
+     * values after the first load and whenever a refresh finds a change.
+     * @param listener The listener.
+     */
+    void addListener(Consumer<Lookups> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(Consumer)}.
+     * @param listener The listener.
+     */
+    void removeListener(Consumer<Lookups> listener) {
+        listeners.remove(listener);
+    }
+
+    private void reload() {
+        Lookups previous = current;
+        Lookups loaded;
+        try {
+            loaded = new Lookups(dbManager.getMinMaxAge(), dbManager.getSchoolFormDimensions());
+        } catch (SQLException | RuntimeException e) {
+            // Also runtime failures: a task that throws is never scheduled again
+            e.printStackTrace();
+            if (previous != null) return; // Keep serving the last values
+            DBConnection.showError("Error fetching filter options: " + e.getMessage(), "Database Error");
+            loaded = new Lookups(FALLBACK_AGES, Collections.emptyList());
+        }
+        if (loaded.equals(previous)) return;
+        current = loaded;
+        final Lookups changed = loaded;
+        SwingUtilities.invokeLater(() -> {
+            for (Consumer<Lookups> listener : listeners) {
+                listener.accept(changed);
+            }
+        });
+    }
+
+    /**
+     * Lookups Class
+     * Immutable snapshot of the dropdown values and age range.
+     */
+    static final class Lookups {
+        private final int minAge;
+        private final int maxAge;
+        private final List<String[]> combinations; // Distinct {grade, section, track/strand}
+        private final Set<String> gradeLevels;
+        private final Set<String> sections;
+        private final Set<String> trackStrands;
+
+        Lookups(int[] minMaxAge, List<String[]> combinations) {
+            this.minAge = minMaxAge[0];
+            this.maxAge = minMaxAge[1];
+            this.combinations = combinations;
+            this.gradeLevels = collect(0, null, null);
+            this.sections = collect(1, null, null);
+            this.trackStrands = collect(2, null, null);
+        }
+
+        public int getMinAge() { return minAge; }
+        public int getMaxAge() { return maxAge; }
+        public Set<String> getGradeLevels() { return gradeLevels; }
+        public Set<String> getSections() { return sections; }
+        public Set<String> getTrackStrands() { return trackStrands; }
+        /** @return The distinct {grade, section, track/strand} combinations. */
+        public List<String[]> getCombinations() { return Collections.unmodifiableList(combinations); }
+
+        /**
+         * Gets the sections that exist in a grade level.
+         * @param gradeLevel The grade level, or "All"/null for every grade.
+         * @return The sections, sorted.
+         */
+        public Set<String> getSectionsFor(String gradeLevel) {
+            return isAll(gradeLevel) ? sections : collect(1, gradeLevel, null);
+        }
+
+        /**
+         * Gets the tracks/strands that exist in a grade level and section.
+         * @param gradeLevel The grade level, or "All"/null for every grade.
+         * @param section    The section, or "All"/null for every section.
+         * @return The tracks/strands, sorted.
+         */
+        public Set<String> getTrackStrandsFor(String gradeLevel, String section) {
+            return isAll(gradeLevel) && isAll(section) ? trackStrands : collect(2, gradeLevel, section);
+        }
+
+        private Set<String> collect(int column, String gradeLevel, String section) {
+            Set<String> values = new TreeSet<>();
+            for (String[] combination : combinations) {
+                if (!isAll(gradeLevel) && !gradeLevel.equals(combination[0])) continue;
+                if (!isAll(section) && !section.equals(combination[1])) continue;
+                String value = combination[column];
+                if (value != null) values.add(value);
+            }
+            return Collections.unmodifiableSet(values);
+        }
+
+        private static boolean isAll(String value) {
+            return value == null || "All".equals(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Lookups)) return false;
+            Lookups l = (Lookups) o;
+            if (minAge != l.minAge || maxAge != l.maxAge || combinations.size() != l.combinations.size()) return false;
+            for (int i = 0; i < combinations.size(); i++) {
+                String[] a = combinations.get(i), b = l.combinations.get(i);
+                if (!Objects.equals(a[0], b[0]) || !Objects.equals(a[1], b[1]) || !Objects.equals(a[2], b[2])) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 31 * minAge + maxAge;
+            for (String[] c : combinations) {
+                h = 31 * h + Objects.hash(c[0], c[1], c[2]);
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tableList;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LrnIndex Class
+ * Maps LRNs to int positions (rows, document ids) in constant time. LRNs are
+ * packed with {@link LrnKey} into a primitive {@link LongIntHashMap}, so
+ * lookups neither hash Strings nor box; the rare LRN that cannot be packed
+ * goes to an ordinary map.
+ */
+final class LrnIndex {
+    /** Returned by {@link #get(String)} for LRNs that are not indexed. */
+    static final int MISSING = -1;
+
+    private final LongIntHashMap packed;
+    private final Map<String, Integer> unpacked = new HashMap<>();
+
+    /**
+     * @param expectedSize The number of LRNs to allocate room for up front.
+     */
+    LrnIndex(int expectedSize) {
+        packed = new LongIntHashMap(expectedSize, MISSING);
+    }
+
+    /**
+     * @param lrn The LRN.
+     * @return Its position, or {@link #MISSING}.
+     */
+    int get(String lrn) {
+        long key = LrnKey.encode(lrn);
+        if (key != LrnKey.NONE) return packed.get(key);
+        Integer position = unpacked.get(lrn);
+        return position == null ? MISSING : position;
+    }
+
+    /**
+     * Maps an LRN to a position, replacing any previous one.
+     * @return The previous position, or {@link #MISSING}.
+     */
+    int put(String lrn, int position) {
+        long key = LrnKey.encode(lrn);
+        if (key != LrnKey.NONE) return packed.put(key, position);
+        Integer previous = unpacked.put(lrn, position);
+        return previous == null ? MISSING : previous;
+    }
+
+    /**
+     * Removes an LRN.
+     * @return The position it had, or {@link #MISSING}.
+     */
+    int remove(String lrn) {
+        long key = LrnKey.encode(lrn);
+        if (key != LrnKey.NONE) return packed.remove(key);
+        Integer previous = unpacked.remove(lrn);
+        return previous == null ? MISSING : previous;
+    }
+
+    boolean contains(String lrn) {
+        return get(lrn) != MISSING;
+    }
+
+    int size() {
+        return packed.size() + unpacked.size();
+    }
+
+    void clear() {
+        packed.clear();
+        unpacked.clear();
+    }
+}
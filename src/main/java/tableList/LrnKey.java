@@ -0,0 +1,54 @@
+package tableList;
+
+/**
+ * LrnKey Class
+ * Packs an LRN into a long so it can be stored and looked up without a String.
+ * LRNs are 12-digit numbers, and leading zeros matter, so the key keeps the
+ * digit count as well: {@code key = value * 16 + length}. A key of 0 stands
+ * for a null LRN. Values that are not all digits, or are longer than
+ * {@link #MAX_DIGITS} digits, have no key and must be kept as Strings.
+ */
+final class LrnKey {
+    /** Longest digit string that can be packed; 10^15 * 16 still fits in a long. */
+    static final int MAX_DIGITS = 15;
+    /** Returned by {@link #encode(String)} for LRNs that cannot be packed. */
+    static final long NONE = -1;
+
+    private LrnKey() {
+    }
+
+    /**
+     * Packs an LRN.
+     * @param lrn The LRN, may be null.
+     * @return The key, 0 for null, or {@link #NONE} if the LRN cannot be packed.
+     */
+    static long encode(String lrn) {
+        if (lrn == null) return 0;
+        int length = lrn.length();
+        if (length == 0 || length > MAX_DIGITS) return NONE;
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = lrn.charAt(i);
+            if (c < '0' || c > '9') return NONE;
+            value = value * 10 + (c - '0');
+        }
+        return value * 16 + length;
+    }
+
+    /**
+     * Unpacks a key produced by {@link #encode(String)}.
+     * @param key The key.
+     * @return The LRN, with its leading zeros, or null for key 0.
+     */
+    static String decode(long key) {
+        if (key == 0) return null;
+        int length = (int) (key & 15);
+        long value = key >>> 4;
+        char[] digits = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+}
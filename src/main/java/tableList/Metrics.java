@@ -0,0 +1,240 @@
+package tableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics Class
+ * Timers and counters around the stages a student list goes through:
+ * checking out a connection, executing the query, mapping rows into a
+ * StudentStore, building table rows, and painting the table.
+ * <p>
+ * Recording is off unless the {@code studentviewer.metrics} system property is
+ * true or it is switched on at runtime (diagnostics panel or JMX). While off,
+ * {@link Timer#start()} returns 0 after one volatile read and
+ * {@link Timer#stop(long)} returns at once, so the instrumented code pays
+ * next to nothing.
+ * </p>
+ * <p>
+ * Timings go into fixed log-linear histograms (64 buckets per power of two,
+ * so percentiles are within about 1.6%) updated with atomic increments, so
+ * recording neither locks nor allocates.
+ * </p>
+ */
+final class Metrics {
+    private static volatile boolean enabled = Boolean.getBoolean("studentviewer.metrics");
+
+    private static final Map<String, Timer> TIMERS = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final Map<String, Counter> COUNTERS = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    static final Timer CONNECTION_CHECKOUT = timer("db.connection.checkout");
+    static final Timer QUERY_EXECUTE = timer("db.query.execute");
+    static final Timer ROW_MAPPING = timer("db.rows.map");
+    static final Timer ROW_BUILD = timer("ui.rows.build");
+    static final Timer TABLE_PAINT = timer("ui.table.paint");
+    static final Counter ROWS_FETCHED = counter("db.rows.fetched");
+    static final Counter CONNECTIONS_OPENED = counter("db.connections.opened");
+    static final Counter RELOADS_REQUESTED = counter("ui.reloads.requested");
+    static final Counter RELOADS_RUN = counter("ui.reloads.run");
+
+    private Metrics() {
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Clears every timer and counter.
+     */
+    static void reset() {
+        for (Timer t : timers()) t.reset();
+        for (Counter c : counters()) c.reset();
+    }
+
+    static List<Timer> timers() {
+        synchronized (TIMERS) {
+            return new ArrayList<>(TIMERS.values());
+        }
+    }
+
+    static List<Counter> counters() {
+        synchronized (COUNTERS) {
+            return new ArrayList<>(COUNTERS.values());
+        }
+    }
+
+    private static Timer timer(String name) {
+        Timer t = new Timer(name);
+        TIMERS.put(name, t);
+        return t;
+    }
+
+    private static Counter counter(String name) {
+        Counter c = new Counter(name);
+        COUNTERS.put(name, c);
+        return c;
+    }
+
+    /**
+     * Timer Class
+     * Records durations of one stage into a histogram.
+     */
+    static final class Timer {
+        private static final int PRECISION_BITS = 7;
+        private static final int SUB_BUCKETS = 1 << (PRECISION_BITS - 1); // Per power of two
+        private static final int BUCKETS = (65 - PRECISION_BITS) * SUB_BUCKETS;
+
+        private final String name;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        String getName() { return name; }
+
+        /**
+         * Starts timing one occurrence of the stage.
+         * @return The start time to pass to {@link #stop(long)}, or 0 if recording is off.
+         */
+        long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Records the time since {@link #start()}.
+         * @param start The value start() returned.
+         */
+        void stop(long start) {
+            if (start != 0) {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Records a duration measured elsewhere, if recording is on.
+         * @param nanos The duration in nanoseconds.
+         */
+        void record(long nanos) {
+            if (!enabled || nanos < 0) return;
+            counts.incrementAndGet(bucket(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // Retry; another thread raised the maximum
+            }
+        }
+
+        long getCount() { return count.sum(); }
+
+        double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (double) n / 1e6;
+        }
+
+        double getMaxMillis() { return maxNanos.get() / 1e6; }
+
+        /**
+         * Gets a percentile of the recorded durations.
+         * @param percentile Between 0 and 100, e.g. 99.
+         * @return The duration in milliseconds, or 0 if nothing was recorded.
+         */
+        double getPercentileMillis(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos.get()) / 1e6;
+            }
+            return getMaxMillis();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: count=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms",
+                    name, getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+        }
+
+        /**
+         * Maps a value to its bucket: values below 128 get one bucket each, larger
+         * ones 64 buckets per power of two, indexed by their top seven bits.
+         */
+        private static int bucket(long value) {
+            if (value < 2 * SUB_BUCKETS) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - (PRECISION_BITS - 1);
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) return bucket;
+            int shift = bucket / SUB_BUCKETS - 1;
+            long topBits = bucket % SUB_BUCKETS + SUB_BUCKETS;
+            return ((topBits + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * Counter Class
+     * Counts occurrences, e.g. rows fetched.
+     */
+    static final class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        String getName() { return name; }
+
+        /**
+         * Adds to the counter, if recording is on.
+         * @param n The amount to add.
+         */
+        void add(long n) {
+            if (enabled) value.add(n);
+        }
+
+        void increment() {
+            add(1);
+        }
+
+        long get() { return value.sum(); }
+
+        void reset() { value.reset(); }
+
+        @Override
+        public String toString() {
+            return name + ": " + get();
+        }
+    }
+}
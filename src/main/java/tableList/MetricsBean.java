@@ -0,0 +1,79 @@
+package tableList;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * MetricsBean Class
+ * Implements {@link MetricsMXBean} over the static {@link Metrics} registry.
+ */
+class MetricsBean implements MetricsMXBean {
+    static final String OBJECT_NAME = "tableList:type=Metrics";
+
+    /**
+     * Registers the bean with the platform MBean server, once. Failures are
+     * only logged; the viewer works without JMX.
+     */
+    static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(new MetricsBean(), MetricsMXBean.class, true), name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return Metrics.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        Metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public String[] getTimers() {
+        List<Metrics.Timer> timers = Metrics.timers();
+        String[] lines = new String[timers.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = timers.get(i).toString();
+        }
+        return lines;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Metrics.Counter c : Metrics.counters()) {
+            counters.put(c.getName(), c.get());
+        }
+        return counters;
+    }
+
+    @Override
+    public double percentileMillis(String timer, double percentile) {
+        for (Metrics.Timer t : Metrics.timers()) {
+            if (t.getName().equals(timer)) {
+                return t.getPercentileMillis(percentile);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,36 @@
+package tableList;
+
+import java.util.Map;
+
+/**
+ * MetricsMXBean Interface
+ * JMX view of {@link Metrics}, registered as {@code tableList:type=Metrics} so
+ * JConsole or VisualVM can read the stage timings of a running viewer.
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return One line per timer with its count, mean, p50, p99 and max.
+     */
+    String[] getTimers();
+
+    /**
+     * @return The counters by name.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @param timer      The timer name, e.g. "db.query.execute".
+     * @param percentile Between 0 and 100.
+     * @return The percentile in milliseconds, or -1 for an unknown timer.
+     */
+    double percentileMillis(String timer, double percentile);
+
+    /**
+     * Clears every timer and counter.
+     */
+    void reset();
+}
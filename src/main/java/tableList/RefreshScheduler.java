@@ -0,0 +1,88 @@
+package tableList;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * RefreshScheduler Class
+ * Coalesces reload requests from the UI into as few reloads as possible.
+ * <p>
+ * A request made while the view is idle runs at the end of the current event,
+ * so a click still answers at once and several requests from one event (a
+ * dialog applying filters, then a field being cleared) share one reload.
+ * Requests arriving within the quiet period after a reload are held and
+ * answered by a single trailing reload once the burst settles, but no later
+ * than the maximum delay after the first held request, so a steady stream of
+ * changes still shows progress.
+ * </p>
+ * <p>
+ * All methods must be called on the event dispatch thread, and the reload
+ * runs there too.
+ * </p>
+ */
+class RefreshScheduler {
+    private final Runnable reload;
+    private final int quietMillis;
+    private final long maxDelayNanos;
+    private final Timer trailingTimer;
+
+    private boolean runQueued; // A leading reload is queued with invokeLater
+    private long lastRunNanos;
+    private long heldSinceNanos; // When the oldest held request arrived; 0 if none
+    private boolean hasRun;
+
+    /**
+     * @param quietMillis    How long after a reload further requests are held back.
+     * @param maxDelayMillis Longest a held request waits for its reload.
+     * @param reload         Performs the reload, on the event dispatch thread.
+     */
+    RefreshScheduler(int quietMillis, int maxDelayMillis, Runnable reload) {
+        this.reload = reload;
+        this.quietMillis = quietMillis;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000L;
+        this.trailingTimer = new Timer(quietMillis, e -> runNow());
+        trailingTimer.setRepeats(false);
+    }
+
+    /**
+     * Asks for a reload. Does nothing if one is already on its way.
+     */
+    void request() {
+        Metrics.RELOADS_REQUESTED.increment();
+        if (runQueued) return;
+        long now = System.nanoTime();
+        if (heldSinceNanos != 0) {
+            // Part of a burst: wait for it to settle, unless it has gone on too long
+            if (now - heldSinceNanos < maxDelayNanos) {
+                trailingTimer.restart();
+            }
+            return;
+        }
+        if (hasRun && now - lastRunNanos < quietMillis * 1_000_000L) {
+            heldSinceNanos = now;
+            trailingTimer.restart();
+            return;
+        }
+        runQueued = true;
+        SwingUtilities.invokeLater(() -> {
+            if (runQueued) runNow();
+        });
+    }
+
+    /**
+     * Drops any reload that has been requested but not yet run.
+     */
+    void cancel() {
+        runQueued = false;
+        heldSinceNanos = 0;
+        trailingTimer.stop();
+    }
+
+    private void runNow() {
+        cancel();
+        hasRun = true;
+        lastRunNanos = System.nanoTime();
+        Metrics.RELOADS_RUN.increment();
+        reload.run();
+    }
+}
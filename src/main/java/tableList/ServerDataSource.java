@@ -0,0 +1,63 @@
+package tableList;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * ServerDataSource Class
+ * The MariaDB server, through a {@link ConnectionPool}.
+ */
+class ServerDataSource implements StudentDataSource {
+    private final String url;
+    private final ConnectionPool pool;
+
+    /**
+     * Creates the source. No connections are opened until the first checkout or {@link #warmUp()}.
+     * @param url  JDBC URL of the server.
+     * @param pool The pool of connections to it.
+     */
+    ServerDataSource(String url, ConnectionPool pool) {
+        this.url = url;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a source with a pool of the given size.
+     * @see ConnectionPool#ConnectionPool(String, Properties, int, int, long, long, long)
+     */
+    ServerDataSource(String url, Properties info, int minIdle, int maxSize,
+                     long checkoutTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        this(url, new ConnectionPool(url, info, minIdle, maxSize, checkoutTimeoutMillis, idleTimeoutMillis, leakThresholdMillis));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    @Override
+    public String getDescription() {
+        return url;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public void warmUp() throws SQLException {
+        pool.prewarm();
+    }
+
+    @Override
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
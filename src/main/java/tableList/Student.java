@@ -0,0 +1,122 @@
+package tableList;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Student Class
+ * Represents a student with their details. A Student is a flyweight view of
+ * one row of a {@link StudentStore}; it holds no field values of its own.
+ */
+class Student {
+    /** The list's display order: last name, first name (case-insensitive), then LRN. */
+    public static final Comparator<Student> SORT_ORDER = Comparator
+            .comparing(Student::getLastName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Student::getFirstName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Student::getLrn, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final StudentStore store;
+    private final int row;
+
+    /**
+     * Creates a standalone student backed by a store of its own. Bulk loads
+     * should add rows to a shared {@link StudentStore} instead.
+     */
+    public Student(String lrn, String lastName, String firstName, String middleName,
+                   String sex, int age, String gradeLevel, String section, String trackAndStrand) {
+        this.store = new StudentStore(1);
+        this.row = store.add(lrn, lastName, firstName, middleName, sex, age, gradeLevel, section, trackAndStrand);
+    }
+
+    /**
+     * Creates a view of a row in a store.
+     * @param store The store holding the values.
+     * @param row   The row index.
+     */
+    Student(StudentStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    // Getters
+    public String getLrn() { return store.getLrn(row); }
+    public String getLastName() { return store.getLastName(row); }
+    public String getFirstName() { return store.getFirstName(row); }
+    public String getMiddleName() { String middleName = store.getMiddleName(row); return middleName == null ? "" : middleName; }
+    public String getSex() { return store.getSex(row); }
+    public int getAge() { return store.getAge(row); }
+    public String getGradeLevel() { return store.getGradeLevel(row); }
+    public String getSection() { return store.getSection(row); }
+    public String getTrackAndStrand() { return store.getTrackAndStrand(row); }
+
+    /** @return The store this view reads from. */
+    StudentStore getStore() { return store; }
+
+    /** @return The row of this student in its store. */
+    int getRow() { return row; }
+
+    /**
+     * Gets this student's position in the (last name, first name, LRN) sort order.
+     * @return The seek key used for keyset pagination.
+     */
+    public StudentKey getKey() {
+        return new StudentKey(getLastName(), getFirstName(), getLrn());
+    }
+
+    /**
+     * Gets the full name of the student (LastName, FirstName M.).
+     * @return The full name.
+     */
+    public String getFullName() {
+        String middleName = getMiddleName();
+        return getLastName() + ", " + getFirstName() + " " + (!middleName.isEmpty() ? middleName.charAt(0) + "." : "");
+    }
+
+     /**
+     * Gets the full name of the student in format: FirstName MiddleInitial. LastName.
+     * @return The formatted full name.
+     */
+    public String getFormattedName() {
+        String firstName = getFirstName(), middleName = getMiddleName(), lastName = getLastName();
+        StringJoiner sj = new StringJoiner(" ");
+        if (firstName != null && !firstName.isEmpty()) sj.add(firstName);
+        if (!middleName.isEmpty()) sj.add(middleName.charAt(0) + ".");
+        if (lastName != null && !lastName.isEmpty()) sj.add(lastName);
+        return sj.toString();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Student)) return false;
+        Student other = (Student) o;
+        if (store == other.store && row == other.row) return true;
+        return getAge() == other.getAge()
+                && Objects.equals(getLrn(), other.getLrn())
+                && Objects.equals(getLastName(), other.getLastName())
+                && Objects.equals(getFirstName(), other.getFirstName())
+                && Objects.equals(store.getMiddleName(row), other.store.getMiddleName(other.row))
+                && Objects.equals(getSex(), other.getSex())
+                && Objects.equals(getGradeLevel(), other.getGradeLevel())
+                && Objects.equals(getSection(), other.getSection())
+                && Objects.equals(getTrackAndStrand(), other.getTrackAndStrand());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getLrn(), getLastName(), getFirstName(), store.getMiddleName(row), getSex(), getAge(),
+                getGradeLevel(), getSection(), getTrackAndStrand());
+    }
+
+    @Override
+    public String toString() {
+        return "Student{" +
+               "lrn='" + getLrn() + '\'' +
+               ", fullName='" + getFullName() + '\'' +
+               ", age=" + getAge() +
+               ", gradeLevel='" + getGradeLevel() + '\'' +
+               '}';
+    }
+}
@@ -1,684 +1,411 @@
 package tableList;
 
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
-import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
 import java.awt.event.ItemEvent;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.print.PrinterAbortException;
+import java.awt.print.PrinterException;
+import java.awt.print.PrinterJob;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.StringJoiner;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
-
-import javax.swing.DefaultComboBoxModel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+import javax.swing.AbstractAction;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
-import javax.swing.JDialog;
+import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.JSpinner;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
-import javax.swing.SpinnerNumberModel;
+import javax.swing.KeyStroke;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.EmptyBorder;
-import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileFilter;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.formdev.flatlaf.FlatLightLaf;
 
 // Imports for GTable and its components
+import lyfjshs.gomis.components.table.CheckSelectionModel;
 import lyfjshs.gomis.components.table.DefaultTableActionManager;
 import lyfjshs.gomis.components.table.GTable;
 import net.miginfocom.swing.MigLayout;
 
 
 /**
- * Student POJO Class
- * Represents a student with their details.
- */
-class Student {
-    private String lrn;
-    private String lastName;
-    private String firstName;
-    private String middleName;
-    private String sex;
-    private int age;
-    private String gradeLevel;
-    private String section;
-    private String trackAndStrand;
-
-    public Student(String lrn, String lastName, String firstName, String middleName,
-                   String sex, int age, String gradeLevel, String section, String trackAndStrand) {
-        this.lrn = lrn;
-        this.lastName = lastName;
-        this.firstName = firstName;
-        this.middleName = middleName;
-        this.sex = sex;
-        this.age = age;
-        this.gradeLevel = gradeLevel;
-        this.section = section;
-        this.trackAndStrand = trackAndStrand;
-    }
-
-    // Getters
-    public String getLrn() { return lrn; }
-    public String getLastName() { return lastName; }
-    public String getFirstName() { return firstName; }
-    public String getMiddleName() { return middleName == null ? "" : middleName; }
-    public String getSex() { return sex; }
-    public int getAge() { return age; }
-    public String getGradeLevel() { return gradeLevel; }
-    public String getSection() { return section; }
-    public String getTrackAndStrand() { return trackAndStrand; }
-
-    /**
-     * Gets the full name of the student (LastName, FirstName M.).
-     * @return The full name.
-     */
-    public String getFullName() {
-        return lastName + ", " + firstName + " " + (middleName != null && !middleName.isEmpty() ? middleName.charAt(0) + "." : "");
-    }
-
-     /**
-     * Gets the full name of the student in format: FirstName MiddleInitial. LastName.
-     * @return The formatted full name.
-     */
-    public String getFormattedName() {
-        StringJoiner sj = new StringJoiner(" ");
-        if (firstName != null && !firstName.isEmpty()) sj.add(firstName);
-        if (middleName != null && !middleName.isEmpty()) sj.add(middleName.charAt(0) + ".");
-        if (lastName != null && !lastName.isEmpty()) sj.add(lastName);
-        return sj.toString();
-    }
-
-
-    @Override
-    public String toString() {
-        return "Student{" +
-               "lrn='" + lrn + '\'' +
-               ", fullName='" + getFullName() + '\'' +
-               ", age=" + age +
-               ", gradeLevel='" + gradeLevel + '\'' +
-               '}';
-    }
-}
-
-/**
- * FilterCriteria Class
- * Holds the criteria for filtering student data.
+ * StudentApp Class
+ * Main application window for viewing and filtering student data.
  */
-class FilterCriteria {
-    String searchTerm = ""; // General search for LRN or parts of name
-    String filterFirstName = "";
-    String filterLastName = "";
-    String filterMiddleName = "";
-    boolean middleInitialOnly = false;
-    String filterGradeLevel = "All";
-    String filterSection = "All"; // Added section filter
-    String filterTrackStrand = "All";
-    boolean filterMale = true;
-    boolean filterFemale = true;
-    int minAge = 0;
-    int maxAge = 100;
-
-    public FilterCriteria() {}
-
-    /**
-     * Resets all filter criteria to their default values.
-     * @param dbMinAge The minimum age found in the database (for default setting).
-     * @param dbMaxAge The maximum age found in the database (for default setting).
-     */
-    public void reset(int dbMinAge, int dbMaxAge) {
-        searchTerm = "";
-        filterFirstName = "";
-        filterLastName = "";
-        filterMiddleName = "";
-        middleInitialOnly = false;
-        filterGradeLevel = "All";
-        filterSection = "All";
-        filterTrackStrand = "All";
-        filterMale = true;
-        filterFemale = true;
-        minAge = dbMinAge;
-        maxAge = dbMaxAge > dbMinAge ? dbMaxAge + 5 : dbMinAge + 20; // Default max age with a small buffer
-    }
-
-    /**
-     * Checks if any specific filters (beyond search term and default age/sex) are active.
-     * @param dbMinAge Minimum age from DB for default comparison.
-     * @param dbMaxAge Maximum age from DB for default comparison.
-     * @return True if specific filters are active, false otherwise.
-     */
-    public boolean hasActiveSpecificFilters(int dbMinAge, int dbMaxAge) {
-        if (filterFirstName != null && !filterFirstName.isEmpty()) return true;
-        if (filterLastName != null && !filterLastName.isEmpty()) return true;
-        if (filterMiddleName != null && !filterMiddleName.isEmpty()) return true;
-        if (!"All".equals(filterGradeLevel)) return true;
-        if (!"All".equals(filterSection)) return true;
-        if (!"All".equals(filterTrackStrand)) return true;
-        // Check if sex filter is non-default (i.e., not both true)
-        if (!filterMale || !filterFemale) {
-            if (filterMale != filterFemale) return true; // Only one is selected
-            if (!filterMale && !filterFemale) return true; // None selected (effectively filtering all out)
-        }
-        // Check if age is different from default range
-        int defaultMaxAge = dbMaxAge > dbMinAge ? dbMaxAge + 5 : dbMinAge + 20;
-        if (minAge != dbMinAge || maxAge != defaultMaxAge) return true;
-
-        return false;
-    }
-
-    /**
-     * Counts the number of active filters.
-     * @param dbMinAge Minimum age from DB for default comparison.
-     * @param dbMaxAge Maximum age from DB for default comparison.
-     * @return The count of active filters.
-     */
-    public int getActiveFilterCount(int dbMinAge, int dbMaxAge) {
-        int count = 0;
-        if (searchTerm != null && !searchTerm.isEmpty()) count++;
-        if (filterFirstName != null && !filterFirstName.isEmpty()) count++;
-        if (filterLastName != null && !filterLastName.isEmpty()) count++;
-        if (filterMiddleName != null && !filterMiddleName.isEmpty()) count++;
-        if (!"All".equals(filterGradeLevel)) count++;
-        if (!"All".equals(filterSection)) count++;
-        if (!"All".equals(filterTrackStrand)) count++;
-        if (!filterMale || !filterFemale) { // If not both are true (default)
-             if (filterMale != filterFemale) count++; // Only one selected counts as a filter
-             else if (!filterMale && !filterFemale) count++; // Neither selected also counts
-        }
-        int defaultMaxAge = dbMaxAge > dbMinAge ? dbMaxAge + 5 : dbMinAge + 20;
-        if (minAge != dbMinAge || maxAge != defaultMaxAge) {
-            count++;
-        }
-        return count;
-    }
-}
+public class StudentApp extends JFrame {
+    private final DatabaseManager dbManager;
+    private GTable studentTable;
+    private final FilterCriteria currentFilters;
+    private StudentTableProvider studentProvider; // Supplies GTable with the current page of students
+
+    // Recent pages and counts, so switching back to a filter doesn't re-run its query
+    private static final long RESULT_CACHE_MAX_BYTES = 8L * 1024 * 1024;
+    private static final long RESULT_CACHE_TTL_MS = 2 * 60_000;
+    private final StudentResultCache resultCache = new StudentResultCache(RESULT_CACHE_MAX_BYTES, RESULT_CACHE_TTL_MS);
+
+    // Dropdown values and age range, loaded once and refreshed in the background
+    private static final long LOOKUP_REFRESH_MS = 10 * 60_000;
+    private final LookupCache lookupCache;
+    private static final long CHANGE_POLL_MS = 5_000;
+    private final StudentChangeFeed changeFeed; // Idle when the database has no change log
+    // The local copy of the server's tables, used when the server cannot be reached
+    private static final long LOCAL_COPY_FIRST_UPDATE_MS = 60_000;
+    private static final long LOCAL_COPY_REFRESH_MS = 30 * 60_000;
+    private final ScheduledExecutorService localCopyUpdater = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "local-copy-update");
+        t.setDaemon(true);
+        return t;
+    });
+    private boolean lookupsLoaded;
 
-/**
- * DatabaseManager Class
- * Handles database operations for fetching student data.
- */
-class DatabaseManager {
+    private int currentPageSize = 25; // Default page size
+    private static final int ALL_ROWS = Integer.MAX_VALUE; // "All" in the page size box: stream every row in
+    private final Integer[] availablePageSizes = {10, 25, 50, 100, 250, ALL_ROWS};
 
-    public DatabaseManager() {
-    }
+    // Streaming ("All" rows) mode
+    private static final int STREAM_BATCH_SIZE = 1000;
+    private static final int STREAM_QUEUE_BATCHES = 4;
+    private StudentStreamLoader streamLoader;
+    private List<StudentStore> streamedBatches; // Stores of the rows shown while streaming, for LRN lookups
 
-    /**
-     * Fetches a list of students from the database based on filter criteria.
-     *
-     * @param page       The current page number (1-indexed). Ignored if pageSize is MAX_VALUE.
-     * @param pageSize   The number of students per page. If Integer.MAX_VALUE, fetches all.
-     * @param criteria   The filter criteria to apply.
-     * @return A list of Student objects.
-     */
-    public List<Student> getStudents(int page, int pageSize, FilterCriteria criteria) {
-        List<Student> students = new ArrayList<>();
-        List<Object> params = new ArrayList<>();
-        StringBuilder sqlBuilder = new StringBuilder(
-            "SELECT s.STUDENT_LRN, s.STUDENT_LASTNAME, s.STUDENT_FIRSTNAME, s.STUDENT_MIDDLENAME, " +
-            "s.STUDENT_SEX, s.STUDENT_AGE, sf.SF_GRADE_LEVEL, sf.SF_SECTION, sf.SF_TRACK_AND_STRAND " +
-            "FROM STUDENT s JOIN SCHOOL_FORM sf ON s.SF_ID = sf.SF_ID"
-        );
-        StringBuilder whereClause = new StringBuilder();
-
-        // General Search Term (LRN or Name parts)
-        if (criteria.searchTerm != null && !criteria.searchTerm.isEmpty()) {
-            addCondition(whereClause,
-                "(s.STUDENT_LRN LIKE ? OR " +
-                "LOWER(s.STUDENT_FIRSTNAME) LIKE ? OR " +
-                "LOWER(s.STUDENT_LASTNAME) LIKE ? OR " +
-                "LOWER(s.STUDENT_MIDDLENAME) LIKE ? OR " +
-                "LOWER(CONCAT(s.STUDENT_FIRSTNAME, ' ', s.STUDENT_LASTNAME)) LIKE ? OR " +
-                "LOWER(CONCAT(s.STUDENT_LASTNAME, ', ', s.STUDENT_FIRSTNAME)) LIKE ?)"
-            );
-            String searchTermParam = "%" + criteria.searchTerm.toLowerCase() + "%";
-            for(int i=0; i<6; i++) params.add(searchTermParam);
-        }
-
-        // Detailed Name Filters (if search term is not primarily used for names)
-        if (criteria.filterFirstName != null && !criteria.filterFirstName.isEmpty()) {
-            addCondition(whereClause, "LOWER(s.STUDENT_FIRSTNAME) LIKE ?");
-            params.add("%" + criteria.filterFirstName.toLowerCase() + "%");
-        }
-        if (criteria.filterLastName != null && !criteria.filterLastName.isEmpty()) {
-            addCondition(whereClause, "LOWER(s.STUDENT_LASTNAME) LIKE ?");
-            params.add("%" + criteria.filterLastName.toLowerCase() + "%");
-        }
-        if (criteria.filterMiddleName != null && !criteria.filterMiddleName.isEmpty()) {
-            if (criteria.middleInitialOnly) {
-                addCondition(whereClause, "LOWER(s.STUDENT_MIDDLENAME) LIKE ?");
-                params.add(criteria.filterMiddleName.toLowerCase().charAt(0) + "%");
-            } else {
-                addCondition(whereClause, "LOWER(s.STUDENT_MIDDLENAME) LIKE ?");
-                params.add("%" + criteria.filterMiddleName.toLowerCase() + "%");
-            }
-        }
-        // Grade Level Filter
-        if (!"All".equals(criteria.filterGradeLevel)) {
-            addCondition(whereClause, "sf.SF_GRADE_LEVEL = ?");
-            params.add(criteria.filterGradeLevel);
-        }
-        // Section Filter
-        if (!"All".equals(criteria.filterSection)) {
-            addCondition(whereClause, "sf.SF_SECTION = ?");
-            params.add(criteria.filterSection);
-        }
-        // Track & Strand Filter
-        if (!"All".equals(criteria.filterTrackStrand)) {
-            addCondition(whereClause, "sf.SF_TRACK_AND_STRAND = ?");
-            params.add(criteria.filterTrackStrand);
-        }
-        // Sex Filter
-        if (!criteria.filterMale && criteria.filterFemale) {
-            addCondition(whereClause, "s.STUDENT_SEX = ?"); params.add("Female");
-        } else if (criteria.filterMale && !criteria.filterFemale) {
-            addCondition(whereClause, "s.STUDENT_SEX = ?"); params.add("Male");
-        } else if (!criteria.filterMale && !criteria.filterFemale) { // Neither selected
-            addCondition(whereClause, "1 = 0"); // Effectively returns no results for sex
-        }
-        // Age Range Filter
-        addCondition(whereClause, "s.STUDENT_AGE BETWEEN ? AND ?");
-        params.add(criteria.minAge); params.add(criteria.maxAge);
-
-        if (whereClause.length() > 0) {
-            sqlBuilder.append(" WHERE ").append(whereClause);
-        }
-
-        sqlBuilder.append(" ORDER BY s.STUDENT_LASTNAME ASC, s.STUDENT_FIRSTNAME ASC");
-
-        if (pageSize != Integer.MAX_VALUE) { // Apply pagination only if not fetching all
-            sqlBuilder.append(" LIMIT ? OFFSET ?");
-            params.add(pageSize);
-            params.add((page - 1) * pageSize);
-        }
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sqlBuilder.toString())) {
-            for (int i = 0; i < params.size(); i++) {
-                pstmt.setObject(i + 1, params.get(i));
-            }
-            // System.out.println("Executing SQL: " + pstmt.toString()); // For debugging
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    students.add(new Student(
-                        rs.getString("STUDENT_LRN"), rs.getString("STUDENT_LASTNAME"),
-                        rs.getString("STUDENT_FIRSTNAME"), rs.getString("STUDENT_MIDDLENAME"),
-                        rs.getString("STUDENT_SEX"), rs.getInt("STUDENT_AGE"),
-                        rs.getString("SF_GRADE_LEVEL"), rs.getString("SF_SECTION"),
-                        rs.getString("SF_TRACK_AND_STRAND")
-                    ));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error fetching student data: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return students;
-    }
-
-    /**
-     * Counts the total number of students matching the filter criteria.
-     * @param criteria The filter criteria.
-     * @return The total count of matching students.
-     */
-    public int getTotalStudentCount(FilterCriteria criteria) {
-        List<Object> params = new ArrayList<>();
-        StringBuilder sqlBuilder = new StringBuilder("SELECT COUNT(DISTINCT s.STUDENT_LRN) FROM STUDENT s JOIN SCHOOL_FORM sf ON s.SF_ID = sf.SF_ID");
-        StringBuilder whereClause = new StringBuilder();
-
-        // Apply the same filtering logic as in getStudents()
-        if (criteria.searchTerm != null && !criteria.searchTerm.isEmpty()) {
-             addCondition(whereClause,
-                "(s.STUDENT_LRN LIKE ? OR " +
-                "LOWER(s.STUDENT_FIRSTNAME) LIKE ? OR " +
-                "LOWER(s.STUDENT_LASTNAME) LIKE ? OR " +
-                "LOWER(s.STUDENT_MIDDLENAME) LIKE ? OR " +
-                "LOWER(CONCAT(s.STUDENT_FIRSTNAME, ' ', s.STUDENT_LASTNAME)) LIKE ? OR " +
-                "LOWER(CONCAT(s.STUDENT_LASTNAME, ', ', s.STUDENT_FIRSTNAME)) LIKE ?)"
-            );
-            String searchTermParam = "%" + criteria.searchTerm.toLowerCase() + "%";
-            for(int i=0; i<6; i++) params.add(searchTermParam);
-        }
-        if (criteria.filterFirstName != null && !criteria.filterFirstName.isEmpty()) {
-            addCondition(whereClause, "LOWER(s.STUDENT_FIRSTNAME) LIKE ?");
-            params.add("%" + criteria.filterFirstName.toLowerCase() + "%");
-        }
-        if (criteria.filterLastName != null && !criteria.filterLastName.isEmpty()) {
-            addCondition(whereClause, "LOWER(s.STUDENT_LASTNAME) LIKE ?");
-            params.add("%" + criteria.filterLastName.toLowerCase() + "%");
-        }
-        if (criteria.filterMiddleName != null && !criteria.filterMiddleName.isEmpty()) {
-            if (criteria.middleInitialOnly) {
-                addCondition(whereClause, "LOWER(s.STUDENT_MIDDLENAME) LIKE ?");
-                params.add(criteria.filterMiddleName.toLowerCase().charAt(0) + "%");
-            } else {
-                addCondition(whereClause, "LOWER(s.STUDENT_MIDDLENAME) LIKE ?");
-                params.add("%" + criteria.filterMiddleName.toLowerCase() + "%");
-            }
-        }
-        if (!"All".equals(criteria.filterGradeLevel)) {
-            addCondition(whereClause, "sf.SF_GRADE_LEVEL = ?");
-            params.add(criteria.filterGradeLevel);
-        }
-        if (!"All".equals(criteria.filterSection)) {
-            addCondition(whereClause, "sf.SF_SECTION = ?");
-            params.add(criteria.filterSection);
-        }
-        if (!"All".equals(criteria.filterTrackStrand)) {
-            addCondition(whereClause, "sf.SF_TRACK_AND_STRAND = ?");
-            params.add(criteria.filterTrackStrand);
-        }
-        if (!criteria.filterMale && criteria.filterFemale) {
-            addCondition(whereClause, "s.STUDENT_SEX = ?"); params.add("Female");
-        } else if (criteria.filterMale && !criteria.filterFemale) {
-            addCondition(whereClause, "s.STUDENT_SEX = ?"); params.add("Male");
-        } else if (!criteria.filterMale && !criteria.filterFemale) {
-            addCondition(whereClause, "1 = 0");
-        }
-        addCondition(whereClause, "s.STUDENT_AGE BETWEEN ? AND ?");
-        params.add(criteria.minAge);
-        params.add(criteria.maxAge);
+    private JTextField searchField;
+    private JLabel appliedFiltersLabel;
+    private JComboBox<Integer> pageSizeComboBox;
+    private JButton printSelectedButton; // New button
+    private JButton exportButton;
+    private JButton filterButton;
+    private JCheckBox instantSearchCheckBox;
+
+    // Instant search
+    private static final int SEARCH_DEBOUNCE_MS = 150;
+    private Timer searchDebounceTimer;
+    private StudentSearchIndex searchIndex; // Built the first time instant search is turned on
+    private StudentFilterEngine filterEngine; // Filters the same students in memory
+    private Object[][] filterEngineRows; // Table rows by store row, created when first shown
+    private int[] shownRows; // Filter engine rows in table order while in-memory results are shown
+    private boolean indexBuilding; // A fresh copy for the filter engine is being loaded
+    private final Path snapshotFile = StudentSnapshot.configuredPath(); // Null unless snapshots are turned on
+    private boolean showingSnapshot; // Students come from the snapshot until the database is checked
+    private String snapshotVersion; // Data version of the snapshot on disk
+    private DiagnosticsDialog diagnosticsDialog; // Opened with Ctrl+Shift+D
+
+    // Reloads requested by the UI are coalesced
+    private static final int RELOAD_QUIET_MS = 250;
+    private static final int RELOAD_MAX_DELAY_MS = 1000;
+    private final RefreshScheduler reloadScheduler = new RefreshScheduler(RELOAD_QUIET_MS, RELOAD_MAX_DELAY_MS, this::loadData);
+    private List<Object> loadedView; // Filters and source of the rows on screen; null forces the next reload
+
+    // Checked students are kept by LRN key (see LrnKey); LRNs that cannot be packed get negative ids
+    private final Map<String, Long> unpackedLrnIds = new ConcurrentHashMap<>();
+    private final List<String> unpackedLrns = new ArrayList<>();
 
+    private int dbMinAge, dbMaxAge; // Store min/max age from DB for filter label
 
-        if (whereClause.length() > 0) {
-            sqlBuilder.append(" WHERE ").append(whereClause);
-        }
+    public StudentApp() {
+        dbManager = new DatabaseManager();
+        currentFilters = new FilterCriteria();
+        lookupCache = new LookupCache(dbManager, LOOKUP_REFRESH_MS);
+        changeFeed = new StudentChangeFeed(dbManager, CHANGE_POLL_MS);
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sqlBuilder.toString())) {
-            for (int i = 0; i < params.size(); i++) {
-                pstmt.setObject(i + 1, params.get(i));
-            }
-            // System.out.println("Executing Count SQL: " + pstmt.toString()); // For debugging
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
+        updateTitle();
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveSnapshotOnExit();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error counting students: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return 0;
-    }
+        });
 
+        initComponents();
+        pack();
+        setMinimumSize(new Dimension(1024, 768));
+        setLocationRelativeTo(null);
 
-    private void addCondition(StringBuilder whereClause, String condition) {
-        if (whereClause.length() > 0) {
-            whereClause.append(" AND ");
-        }
-        whereClause.append(condition);
+        loadInitialData();
     }
 
-    // Methods to fetch distinct values for filter dropdowns
-    public Set<String> getDistinctGradeLevels() {
-        Set<String> gradeLevels = new TreeSet<>(); // Use TreeSet for natural sorting
-        String sql = "SELECT DISTINCT SF_GRADE_LEVEL FROM SCHOOL_FORM WHERE SF_GRADE_LEVEL IS NOT NULL AND SF_GRADE_LEVEL != '' ORDER BY SF_GRADE_LEVEL ASC";
-        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) gradeLevels.add(rs.getString("SF_GRADE_LEVEL"));
-        } catch (SQLException e) { e.printStackTrace(); JOptionPane.showMessageDialog(null, "Error fetching grade levels: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE); }
-        return gradeLevels;
-    }
-     public Set<String> getDistinctSections() {
-        Set<String> sections = new TreeSet<>();
-        String sql = "SELECT DISTINCT SF_SECTION FROM SCHOOL_FORM WHERE SF_SECTION IS NOT NULL AND SF_SECTION != '' ORDER BY SF_SECTION ASC";
-        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) sections.add(rs.getString("SF_SECTION"));
-        } catch (SQLException e) { e.printStackTrace(); JOptionPane.showMessageDialog(null, "Error fetching sections: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE); }
-        return sections;
+    /**
+     * Starts loading the lookup values (dropdowns and age range) in the
+     * background; the first page is loaded once the age range is known. The
+     * window is shown with a loading indicator in the meantime, unless the
+     * local snapshot is read first, in which case its students are shown
+     * until the database has been checked.
+     */
+    private void loadInitialData() {
+        studentTable.setLoading(true);
+        filterButton.setEnabled(false); // Needs the dropdown values
+        changeFeed.start(this::applyChanges); // Reads the high-water mark before the first load
+        lookupCache.addListener(this::lookupsChanged);
+        DBConnection.addDataSourceListener(source -> dataSourceChanged());
+        loadSnapshot();
+        lookupCache.start();
+        startLocalCopyUpdates();
     }
 
-
-    public Set<String> getDistinctTrackStrands() {
-        Set<String> trackStrands = new TreeSet<>();
-        String sql = "SELECT DISTINCT SF_TRACK_AND_STRAND FROM SCHOOL_FORM WHERE SF_TRACK_AND_STRAND IS NOT NULL AND SF_TRACK_AND_STRAND != '' AND SF_TRACK_AND_STRAND != 'N/A' ORDER BY SF_TRACK_AND_STRAND ASC";
-        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) trackStrands.add(rs.getString("SF_TRACK_AND_STRAND"));
-        } catch (SQLException e) { e.printStackTrace(); JOptionPane.showMessageDialog(null, "Error fetching tracks/strands: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE); }
-        return trackStrands;
+    /**
+     * Shows in the title where the students on screen come from.
+     */
+    private void updateTitle() {
+        String title = "Student List Viewer";
+        if (showingSnapshot) {
+            title += " (saved copy)";
+        }
+        if (DBConnection.isOffline()) {
+            title += " - offline, " + DBConnection.getDataSource().getDescription();
+        }
+        setTitle(title);
     }
 
-    public int[] getMinMaxAge() {
-        String sql = "SELECT MIN(STUDENT_AGE), MAX(STUDENT_AGE) FROM STUDENT";
-        try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                int minAge = rs.getInt(1); int maxAge = rs.getInt(2);
-                // Provide sensible defaults if DB values are 0
-                return new int[]{minAge == 0 ? 12 : minAge, maxAge == 0 ? 22 : maxAge};
+    /**
+     * Keeps the local copy of the server's tables up to date in the
+     * background, starting a while after launch so it does not compete with
+     * the first queries.
+     */
+    private void startLocalCopyUpdates() {
+        localCopyUpdater.scheduleWithFixedDelay(() -> {
+            EmbeddedStudentDatabase localCopy = DBConnection.getLocalCopy();
+            if (localCopy == null) return;
+            try {
+                dbManager.updateLocalCopy(localCopy);
+            } catch (SQLException e) {
+                e.printStackTrace(); // Tried again on the next update
             }
-        } catch (SQLException e) { e.printStackTrace(); JOptionPane.showMessageDialog(null, "Error fetching min/max age: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE); }
-        return new int[]{12, 22}; // Default fallback
+        }, LOCAL_COPY_FIRST_UPDATE_MS, LOCAL_COPY_REFRESH_MS, TimeUnit.MILLISECONDS);
     }
-}
 
-/**
- * FilterDialog Class
- * Provides a dialog for users to set advanced filter criteria.
- */
-class FilterDialog extends JDialog {
-    private final FilterCriteria currentFilterCriteria; // The criteria object to modify
-    private final DatabaseManager dbManager;
-    private JTextField firstNameField, lastNameField, middleNameField;
-    private JCheckBox middleInitialOnlyCheckBox;
-    private JComboBox<String> gradeLevelComboBox, sectionComboBox, trackStrandComboBox;
-    private JCheckBox maleCheckBox, femaleCheckBox;
-    private JSpinner minAgeSpinner, maxAgeSpinner;
-    private int initialDbMinAge, initialDbMaxAge; // Store initial DB min/max ages for reset
-    private boolean filtersApplied = false;
-
-    public FilterDialog(Frame owner, FilterCriteria criteriaToModify, DatabaseManager dbManager) {
-        super(owner, "Advanced Student Filters", true);
-        this.currentFilterCriteria = criteriaToModify;
-        this.dbManager = dbManager;
-
-        // Fetch initial min/max ages from DB for spinner defaults and reset functionality
-        int[] dbAges = dbManager.getMinMaxAge();
-        initialDbMinAge = dbAges[0];
-        initialDbMaxAge = dbAges[1];
-
-        initComponents();
-        loadCriteria(currentFilterCriteria); // Load existing criteria into dialog fields
-        pack();
-        setMinimumSize(new Dimension(500, getHeight())); // Adjusted width
-        setLocationRelativeTo(owner);
-    }
-
-    private void initComponents() {
-        setLayout(new MigLayout("insets dialog, fillx, wrap 2", "[right]para[grow,fill]", ""));
-
-        // Name Filtering Section
-        JPanel namePanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
-        namePanel.setBorder(new TitledBorder("Filter by Name"));
-        namePanel.add(new JLabel("First Name:")); firstNameField = new JTextField(); namePanel.add(firstNameField, "growx");
-        namePanel.add(new JLabel("Last Name:")); lastNameField = new JTextField(); namePanel.add(lastNameField, "growx");
-        namePanel.add(new JLabel("Middle Name:")); middleNameField = new JTextField(); namePanel.add(middleNameField, "split 2, growx");
-        middleInitialOnlyCheckBox = new JCheckBox("Initial Only"); namePanel.add(middleInitialOnlyCheckBox, "gapleft 5");
-        add(namePanel, "span 2, growx, wrap unrel");
-
-        // Academic Filtering Section
-        JPanel academicPanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
-        academicPanel.setBorder(new TitledBorder("Filter by Academics"));
-        DefaultComboBoxModel<String> gradeModel = new DefaultComboBoxModel<>(); gradeModel.addElement("All"); dbManager.getDistinctGradeLevels().forEach(gradeModel::addElement);
-        gradeLevelComboBox = new JComboBox<>(gradeModel); academicPanel.add(new JLabel("Grade Level:")); academicPanel.add(gradeLevelComboBox, "growx");
-
-        DefaultComboBoxModel<String> sectionModel = new DefaultComboBoxModel<>(); sectionModel.addElement("All"); dbManager.getDistinctSections().forEach(sectionModel::addElement);
-        sectionComboBox = new JComboBox<>(sectionModel); academicPanel.add(new JLabel("Section:")); academicPanel.add(sectionComboBox, "growx");
-
-        DefaultComboBoxModel<String> trackStrandModel = new DefaultComboBoxModel<>(); trackStrandModel.addElement("All"); dbManager.getDistinctTrackStrands().forEach(trackStrandModel::addElement);
-        trackStrandComboBox = new JComboBox<>(trackStrandModel); academicPanel.add(new JLabel("Track & Strand:")); academicPanel.add(trackStrandComboBox, "growx");
-        add(academicPanel, "span 2, growx, wrap unrel");
-
-        // Demographics Filtering Section
-        JPanel demoPanel = new JPanel(new MigLayout("insets 0, fillx, wrap 2", "[right]para[grow,fill]", ""));
-        demoPanel.setBorder(new TitledBorder("Filter by Demographics"));
-        maleCheckBox = new JCheckBox("Male"); femaleCheckBox = new JCheckBox("Female");
-        JPanel sexPanel = new JPanel(new MigLayout("insets 0, gap 0", "[]10[]", "[]")); // Layout for sex checkboxes
-        sexPanel.add(maleCheckBox); sexPanel.add(femaleCheckBox);
-        demoPanel.add(new JLabel("Sex:")); demoPanel.add(sexPanel, "growx");
-
-        // Age Spinners
-        // Use initialDbMinAge and initialDbMaxAge for spinner bounds
-        SpinnerNumberModel minModel = new SpinnerNumberModel(initialDbMinAge, initialDbMinAge, Math.max(initialDbMinAge, initialDbMaxAge + 20), 1);
-        minAgeSpinner = new JSpinner(minModel);
-        SpinnerNumberModel maxModel = new SpinnerNumberModel(Math.min(initialDbMaxAge + 5, initialDbMaxAge + 20), initialDbMinAge, Math.max(initialDbMinAge, initialDbMaxAge + 20), 1);
-        maxAgeSpinner = new JSpinner(maxModel);
-
-        JPanel agePanel = new JPanel(new MigLayout("insets 0, fillx", "[][grow,fill][][]", ""));
-        agePanel.add(new JLabel("Min:")); agePanel.add(minAgeSpinner, "w 60!");
-        agePanel.add(new JLabel("Max:"), "gapleft 15"); agePanel.add(maxAgeSpinner, "w 60!");
-        demoPanel.add(new JLabel("Age Range:")); demoPanel.add(agePanel, "growx");
-        add(demoPanel, "span 2, growx, wrap unrel");
-
-        // Action Buttons
-        JButton applyButton = new JButton("Apply Filters"); applyButton.addActionListener(e -> applyFilters());
-        JButton clearButton = new JButton("Clear Filters"); clearButton.addActionListener(e -> clearFiltersAndApply());
-        JButton cancelButton = new JButton("Cancel"); cancelButton.addActionListener(e -> { filtersApplied = false; setVisible(false); dispose(); });
-
-        JPanel buttonPanel = new JPanel(new MigLayout("insets 0, align right")); // Align buttons to the right
-        buttonPanel.add(applyButton);
-        buttonPanel.add(clearButton, "gapleft 5");
-        buttonPanel.add(cancelButton, "gapleft 5");
-        add(buttonPanel, "span 2, align right, gaptop 15");
-    }
-
-    /**
-     * Loads the current filter criteria into the dialog's input fields.
-     * @param criteria The FilterCriteria object to load from.
-     */
-    private void loadCriteria(FilterCriteria criteria) {
-        firstNameField.setText(criteria.filterFirstName);
-        lastNameField.setText(criteria.filterLastName);
-        middleNameField.setText(criteria.filterMiddleName);
-        middleInitialOnlyCheckBox.setSelected(criteria.middleInitialOnly);
-
-        gradeLevelComboBox.setSelectedItem(criteria.filterGradeLevel);
-        sectionComboBox.setSelectedItem(criteria.filterSection);
-
-        // Handle trackStrandComboBox item existence
-        if (criteria.filterTrackStrand == null || ((DefaultComboBoxModel<String>)trackStrandComboBox.getModel()).getIndexOf(criteria.filterTrackStrand) == -1) {
-             trackStrandComboBox.setSelectedItem("All");
-        } else {
-            trackStrandComboBox.setSelectedItem(criteria.filterTrackStrand);
+    /**
+     * Picks up a switch between the server and the local copy: cached results
+     * and the view on screen came from the other source, so they are read
+     * again. The in-memory copy is kept; it is at least as new as the local copy.
+     */
+    private void dataSourceChanged() {
+        updateTitle();
+        resultCache.invalidateAll();
+        lookupCache.refreshNow();
+        if (lookupsLoaded && !((instantSearchCheckBox.isSelected() || showingSnapshot) && filterEngine != null)) {
+            loadedView = null;
+            reloadScheduler.request();
         }
-
-        maleCheckBox.setSelected(criteria.filterMale);
-        femaleCheckBox.setSelected(criteria.filterFemale);
-
-        // Safely set spinner values within their model's bounds
-        SpinnerNumberModel minModel = (SpinnerNumberModel) minAgeSpinner.getModel();
-        minAgeSpinner.setValue(Math.max((Integer)minModel.getMinimum(), Math.min(criteria.minAge, (Integer)minModel.getMaximum())));
-
-        SpinnerNumberModel maxModel = (SpinnerNumberModel) maxAgeSpinner.getModel();
-        maxAgeSpinner.setValue(Math.min((Integer)maxModel.getMaximum(), Math.max(criteria.maxAge, (Integer)maxModel.getMinimum())));
     }
 
     /**
-     * Applies the filters set in the dialog to the currentFilterCriteria object.
+     * Tries the server again in the background while working offline. If it
+     * is back, {@link #dataSourceChanged()} reloads the view from it.
      */
-    private void applyFilters() {
-        currentFilterCriteria.filterFirstName = firstNameField.getText().trim();
-        currentFilterCriteria.filterLastName = lastNameField.getText().trim();
-        currentFilterCriteria.filterMiddleName = middleNameField.getText().trim();
-        currentFilterCriteria.middleInitialOnly = middleInitialOnlyCheckBox.isSelected();
-        currentFilterCriteria.filterGradeLevel = (String) gradeLevelComboBox.getSelectedItem();
-        currentFilterCriteria.filterSection = (String) sectionComboBox.getSelectedItem();
-        currentFilterCriteria.filterTrackStrand = (String) trackStrandComboBox.getSelectedItem();
-        currentFilterCriteria.filterMale = maleCheckBox.isSelected();
-        currentFilterCriteria.filterFemale = femaleCheckBox.isSelected();
-        currentFilterCriteria.minAge = (Integer) minAgeSpinner.getValue();
-        currentFilterCriteria.maxAge = (Integer) maxAgeSpinner.getValue();
+    private void reconnect() {
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return DBConnection.reconnect();
+            }
 
-        filtersApplied = true;
-        setVisible(false);
-        dispose();
+            @Override
+            protected void done() {
+                try {
+                    if (!get()) {
+                        JOptionPane.showMessageDialog(StudentApp.this,
+                                "The database server is still unreachable. Showing the local copy.",
+                                "Offline", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }.execute();
     }
 
     /**
-     * Clears all filter fields in the dialog and applies these cleared filters.
+     * Reads the local snapshot in the background. Its students become the
+     * filter engine's copy, and are shown if the lookups have not arrived
+     * from the database yet; the copy is then reconciled with the database.
+     * Without a snapshot, a copy of all students is loaded in the background
+     * to take one.
      */
-    private void clearFiltersAndApply() {
-        // Reset UI fields
-        firstNameField.setText(""); lastNameField.setText(""); middleNameField.setText("");
-        middleInitialOnlyCheckBox.setSelected(false);
-        gradeLevelComboBox.setSelectedItem("All");
-        sectionComboBox.setSelectedItem("All");
-        trackStrandComboBox.setSelectedItem("All");
-        maleCheckBox.setSelected(true); femaleCheckBox.setSelected(true);
-        minAgeSpinner.setValue(initialDbMinAge); // Reset to initial DB min age
-        maxAgeSpinner.setValue(initialDbMaxAge > initialDbMinAge ? initialDbMaxAge + 5 : initialDbMinAge + 20); // Reset to default max age logic
-
-        // Reset the underlying FilterCriteria object
-        currentFilterCriteria.reset(initialDbMinAge, initialDbMaxAge);
+    private void loadSnapshot() {
+        if (snapshotFile == null) return;
+        new SwingWorker<StudentSnapshot, Void>() {
+            private StudentSearchIndex index;
+            private StudentFilterEngine engine;
+
+            @Override
+            protected StudentSnapshot doInBackground() {
+                StudentSnapshot snapshot = StudentSnapshot.read(snapshotFile);
+                if (snapshot != null) {
+                    index = new StudentSearchIndex(snapshot.getStore().asList());
+                    engine = new StudentFilterEngine(snapshot.getStore(), index);
+                }
+                return snapshot;
+            }
 
-        filtersApplied = true;
-        setVisible(false);
-        dispose();
+            @Override
+            protected void done() {
+                StudentSnapshot snapshot;
+                try {
+                    snapshot = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    snapshot = null;
+                }
+                if (snapshot == null) {
+                    if (searchIndex == null && !indexBuilding) {
+                        buildSearchIndex(); // Takes the first snapshot
+                    }
+                    return;
+                }
+                if (filterEngine != null || indexBuilding) return; // A copy is already on its way from the database
+                searchIndex = index;
+                filterEngine = engine;
+                filterEngineRows = new Object[engine.getStore().size()][];
+                snapshotVersion = snapshot.getDataVersion();
+                if (!lookupsLoaded) { // Otherwise the database answered first; the copy still serves instant search
+                    showingSnapshot = true;
+                    updateTitle();
+                    lookupCache.seed(snapshot.getLookups());
+                    lookupsChanged(snapshot.getLookups());
+                }
+                reconcileSnapshot();
+            }
+        }.execute();
     }
 
     /**
-     * Checks if the filters were applied by the user (i.e., "Apply" or "Clear" was clicked).
-     * @return True if filters were applied, false otherwise (e.g., dialog was cancelled).
+     * Checks the snapshot being shown against the database in the background.
+     * If the data is unchanged the snapshot is current as it is; if the change
+     * log covers the difference, the change feed delivers just the changes
+     * since the snapshot; otherwise a fresh copy is loaded. In each case the
+     * view then returns to its usual source. If the database cannot be
+     * reached, the snapshot stays on screen until the next refresh (F5).
      */
-    public boolean wereFiltersApplied() { return filtersApplied; }
-}
-
-
-/**
- * StudentApp Class
- * Main application window for viewing and filtering student data.
- */
-public class StudentApp extends JFrame {
-    private final DatabaseManager dbManager;
-    private GTable studentTable;
-    private final FilterCriteria currentFilters;
-    private List<Student> currentStudentList; // Holds the currently displayed list of students
-
-    private int currentPageSize = 25; // Default page size
-    private final Integer[] availablePageSizes = {10, 25, 50, 100, 250};
-
-    private JTextField searchField;
-    private JLabel appliedFiltersLabel;
-    private JComboBox<Integer> pageSizeComboBox;
-    private JButton printSelectedButton; // New button
-
-
-    private int dbMinAge, dbMaxAge; // Store min/max age from DB for filter label
-
-    public StudentApp() {
-        dbManager = new DatabaseManager();
-        currentFilters = new FilterCriteria();
-        currentStudentList = new ArrayList<>();
+    private void reconcileSnapshot() {
+        String saved = snapshotVersion;
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws SQLException, InterruptedException {
+                String current = dbManager.getDataVersion();
+                if (current.equals(saved)) return true;
+                if (saved != null && saved.startsWith("log:") && current.startsWith("log:")) {
+                    return changeFeed.resumeFrom(Long.parseLong(saved.substring(4))); // Replays the changes since
+                }
+                return false;
+            }
 
-        // Initialize min/max ages from DB
-        int[] dbAges = dbManager.getMinMaxAge();
-        dbMinAge = dbAges[0];
-        dbMaxAge = dbAges[1];
-        currentFilters.minAge = dbMinAge;
-        currentFilters.maxAge = dbMaxAge > dbMinAge ? dbMaxAge + 5 : dbMinAge + 20;
+            @Override
+            protected void done() {
+                boolean current;
+                try {
+                    current = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace(); // Offline; keep showing the snapshot
+                    return;
+                }
+                if (!current) {
+                    buildSearchIndex(); // Replaces the copy and the snapshot
+                }
+                leaveSnapshot();
+            }
+        }.execute();
+    }
 
+    /**
+     * Returns from the snapshot to the usual source of rows: the database,
+     * or the filter engine if instant search is on.
+     */
+    private void leaveSnapshot() {
+        if (!showingSnapshot) return;
+        showingSnapshot = false;
+        updateTitle();
+        if (!instantSearchCheckBox.isSelected()) {
+            loadedView = null;
+            reloadScheduler.request();
+        }
+    }
 
-        setTitle("Student List Viewer");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    /**
+     * Saves the filter engine's copy when the window closes, if the change
+     * feed has brought it past the snapshot on disk. Copies loaded in full
+     * are saved as they are loaded, by {@link #buildSearchIndex()}.
+     */
+    private void saveSnapshotOnExit() {
+        if (snapshotFile == null || filterEngine == null || indexBuilding || showingSnapshot
+                || !changeFeed.isAvailable() || lookupCache.get() == null) return;
+        String version = "log:" + changeFeed.getAppliedMark();
+        if (version.equals(snapshotVersion)) return;
+        try {
+            StudentSnapshot.write(snapshotFile, filterEngine, lookupCache.get(), version);
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace(); // The snapshot on disk is still usable
+        }
+    }
 
-        initComponents();
-        loadData();
-        pack();
-        setMinimumSize(new Dimension(1024, 768));
-        setLocationRelativeTo(null);
+    /**
+     * Picks up new lookup values. The first call sets the default age filter
+     * and loads the first page; later calls only refresh the age range used
+     * for the filter label.
+     * @param lookups The new lookup values.
+     */
+    private void lookupsChanged(LookupCache.Lookups lookups) {
+        dbMinAge = lookups.getMinAge();
+        dbMaxAge = lookups.getMaxAge();
+        if (!lookupsLoaded) {
+            lookupsLoaded = true;
+            filterButton.setEnabled(true);
+            currentFilters.minAge = dbMinAge;
+            currentFilters.maxAge = dbMaxAge > dbMinAge ? dbMaxAge + 5 : dbMinAge + 20;
+            studentTable.setLoading(false);
+            reloadScheduler.request();
+        } else {
+            updateAppliedFiltersLabel();
+        }
     }
 
     private void initComponents() {
@@ -686,25 +413,36 @@ public class StudentApp extends JFrame {
         mainPanel.setBorder(new EmptyBorder(10,10,10,10)); // Increased padding
 
         // --- Top Panel for Search, Filters, and Page Size ---
-        JPanel topPanel = new JPanel(new MigLayout("insets 0, fillx", "[][grow,fill]para[]para[]para[right]para[]para[]", "[]")); // Added one more para[] for the new button
+        JPanel topPanel = new JPanel(new MigLayout("insets 0, fillx", "[][grow,fill]para[][]para[]para[right]para[]para[]", "[]")); // Added one more para[] for the new button
         topPanel.add(new JLabel("Search LRN/Name:"));
         searchField = new JTextField();
         searchField.putClientProperty("JTextField.placeholderText", "Enter LRN or any part of name...");
         topPanel.add(searchField, "growx");
 
+        // With instant search on, each pause in typing runs the search
+        searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MS, e -> applySearch());
+        searchDebounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchTextChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTextChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTextChanged(); }
+        });
+
         JButton searchButton = new JButton("Search");
         searchButton.setToolTipText("Apply search term");
-        searchButton.addActionListener(e -> {
-            currentFilters.searchTerm = searchField.getText().trim();
-            // Reset detailed name filters if a general search term is used
-            currentFilters.filterFirstName = "";
-            currentFilters.filterLastName = "";
-            currentFilters.filterMiddleName = "";
-            loadData();
-        });
+        searchButton.addActionListener(e -> applySearch());
         topPanel.add(searchButton);
 
-        JButton filterButton = new JButton("Advanced Filters...");
+        instantSearchCheckBox = new JCheckBox("Instant");
+        instantSearchCheckBox.setToolTipText("Search and filter as you type using an in-memory copy of all students");
+        instantSearchCheckBox.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED) {
+                buildSearchIndex();
+            }
+        });
+        topPanel.add(instantSearchCheckBox);
+
+        filterButton = new JButton("Advanced Filters...");
         filterButton.setToolTipText("Open advanced filter options");
         filterButton.addActionListener(e -> openFilterDialog());
         topPanel.add(filterButton);
@@ -715,18 +453,39 @@ public class StudentApp extends JFrame {
         printSelectedButton.addActionListener(e -> printSelectedStudents());
         topPanel.add(printSelectedButton, "gapleft 10"); // Add some gap
 
+        exportButton = new JButton("Export...");
+        exportButton.setToolTipText("Export every student matching the current filters to CSV or Excel");
+        exportButton.addActionListener(e -> exportStudents());
+        topPanel.add(exportButton, "gapleft 5");
+
         appliedFiltersLabel = new JLabel("Filters: 0 | Total: 0");
         topPanel.add(appliedFiltersLabel, "gapleft push");
 
         pageSizeComboBox = new JComboBox<>(availablePageSizes);
         pageSizeComboBox.setSelectedItem(currentPageSize);
         pageSizeComboBox.setToolTipText("Select records per page");
+        pageSizeComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                Object text = Integer.valueOf(ALL_ROWS).equals(value) ? "All" : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
         pageSizeComboBox.addItemListener(e -> {
             if (e.getStateChange() == ItemEvent.SELECTED) {
                 JComboBox<?> sourceComboBox = (JComboBox<?>) e.getSource();
                 currentPageSize = (Integer) sourceComboBox.getSelectedItem();
-                studentTable.setPaginationEnabled(true, currentPageSize);
-                loadData(); 
+                // Only the view changes: the table re-slices the rows it holds, or asks the
+                // current provider for pages of the new size. Nothing is re-queried, except
+                // that "All" from a paged query has to stream in the rows not yet read.
+                if (currentPageSize == ALL_ROWS && studentProvider != null) {
+                    studentTable.clearData(); // Don't let the old provider fetch everything; the rows are streamed in
+                    studentTable.setPaginationEnabled(false, currentPageSize);
+                    loadedView = null;
+                    reloadScheduler.request();
+                } else {
+                    studentTable.setPaginationEnabled(currentPageSize != ALL_ROWS, currentPageSize);
+                }
             }
         });
         topPanel.add(new JLabel("Rows:"), "gapleft 10");
@@ -734,6 +493,23 @@ public class StudentApp extends JFrame {
 
         mainPanel.add(topPanel, "wrap");
 
+        mainPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), "refresh");
+        mainPanel.getActionMap().put("refresh", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refreshData();
+            }
+        });
+        // Hidden diagnostics panel with the query, load and render timings
+        mainPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(
+                KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        mainPanel.getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showDiagnostics();
+            }
+        });
+
         // --- GTable Setup ---
         // Added "Select" column for checkbox
         String[] columnNames = {"Select", "LRN", "Name", "Sex", "Age", "Grade", "Section", "Track/Strand", "Actions"};
@@ -754,7 +530,7 @@ public class StudentApp extends JFrame {
         actionManager.addAction("View", (table, row) -> {
             // LRN is now at index 1 because of the checkbox column at index 0
             String lrn = (String) studentTable.getModel().getValueAt(row, 1); 
-            Student student = findStudentByLrn(lrn); // findStudentByLrn needs to be aware of currentStudentList content
+            Student student = findStudentByLrn(lrn);
             if (student != null) {
                 displayStudentDetails(student);
             } else {
@@ -770,6 +546,10 @@ public class StudentApp extends JFrame {
 
         studentTable = new GTable(new Object[][]{}, columnNames, columnTypes, editableColumns, columnWidthProportions, alignments, true, actionManager); // Set includeCheckbox to true
         studentTable.setPaginationEnabled(true, currentPageSize);
+        studentTable.setPaintTimeListener(Metrics.TABLE_PAINT::record);
+        studentTable.setRowIdFunction(row -> studentId((String) row[1])); // Checks carry across pages and reloads
+        // The row count arrives asynchronously once a query finishes
+        studentTable.addPropertyChangeListener("totalRows", e -> updateAppliedFiltersLabel());
 
         JScrollPane scrollPane = new JScrollPane(studentTable);
         mainPanel.add(scrollPane, "grow, wrap");
@@ -780,82 +560,694 @@ public class StudentApp extends JFrame {
     
     /**
      * Action handler for the "Print Selected" button.
-     * Iterates through the table, finds selected students, and prints their LRN and Name.
+     * Prints every checked student, on any page, as a class list or as
+     * student sheets (see {@link StudentReportJob}), or lists them. Students
+     * checked one by one are looked up by LRN; after "select all matching"
+     * (clicking the Select header) the current results are walked instead,
+     * skipping the students unchecked since. Results from the database are
+     * walked on a background thread.
      */
     private void printSelectedStudents() {
-        StringBuilder selectedStudentsInfo = new StringBuilder("Selected Students:\n");
-        boolean anySelected = false;
-        // GTable paginates data, so getRowCount() gives rows on the current page.
-        // If you need to get all selected items across all pages, GTable would need a method for that,
-        // or you'd manage selections against the full currentStudentList.
-        // For this implementation, we process the current view of the table.
-        for (int i = 0; i < studentTable.getRowCount(); i++) {
-            Boolean isSelected = (Boolean) studentTable.getValueAt(i, 0); // Checkbox is at column 0
-            if (isSelected != null && isSelected) {
-                anySelected = true;
-                String lrn = (String) studentTable.getValueAt(i, 1);    // LRN is at column 1
-                String name = (String) studentTable.getValueAt(i, 2);   // Name is at column 2
-                selectedStudentsInfo.append("LRN: ").append(lrn).append(", Name: ").append(name).append("\n");
-            }
-        }
-
-        if (anySelected) {
-            System.out.println(selectedStudentsInfo.toString()); // Print to console
-            // You can also display this in a JOptionPane or a JTextArea in a dialog
-            JTextArea textArea = new JTextArea(selectedStudentsInfo.toString());
-            textArea.setEditable(false);
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(400, 300));
-            JOptionPane.showMessageDialog(this, scrollPane, "Selected Student Details", JOptionPane.INFORMATION_MESSAGE);
+        CheckSelectionModel selection = studentTable.getCheckSelectionModel();
+        if (selection.isSelectionEmpty()) {
+            JOptionPane.showMessageDialog(this, "No students selected.", "Print Selected", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        if (!selection.isAllMatchingSelected()) {
+            List<String> lrns = new ArrayList<>();
+            selection.forEachSelected(id -> lrns.add(lrnForId(id)));
+            if (filterEngine != null) {
+                List<Student> students = new ArrayList<>(lrns.size());
+                for (String lrn : lrns) {
+                    Student student = filterEngine.find(lrn);
+                    if (student != null) students.add(student);
+                }
+                showSelectedStudents(students);
+            } else {
+                collectSelectedStudents(() -> new ArrayList<>(dbManager.getStudentsFor(lrns, Collections.emptyList()).asList()));
+            }
+            return;
+        }
+
+        LongPredicate selected = selection.snapshot();
+        List<Student> students = new ArrayList<>();
+        if (shownRows != null) {
+            for (int row : shownRows) {
+                Student student = filterEngine.getStore().get(row);
+                if (selected.test(studentId(student.getLrn()))) students.add(student);
+            }
+            showSelectedStudents(students);
+        } else if (streamedBatches != null) {
+            for (StudentStore batch : streamedBatches) {
+                for (Student student : batch.asList()) {
+                    if (selected.test(studentId(student.getLrn()))) students.add(student);
+                }
+            }
+            showSelectedStudents(students);
         } else {
+            FilterCriteria filters = currentFilters.copy();
+            collectSelectedStudents(() -> {
+                dbManager.streamStudents(filters, STREAM_BATCH_SIZE, batch -> {
+                    for (Student student : batch.asList()) {
+                        if (isSelected(selected, student.getLrn())) students.add(student);
+                    }
+                });
+                return students;
+            });
+        }
+    }
+
+    /**
+     * Collects checked students on a background thread, then shows them.
+     * @param collector Reads the students; runs off the event dispatch thread.
+     */
+    private void collectSelectedStudents(Callable<List<Student>> collector) {
+        printSelectedButton.setEnabled(false);
+        new SwingWorker<List<Student>, Void>() {
+            @Override
+            protected List<Student> doInBackground() throws Exception {
+                return collector.call();
+            }
+
+            @Override
+            protected void done() {
+                printSelectedButton.setEnabled(true);
+                try {
+                    showSelectedStudents(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    DBConnection.showError("Error reading selected students: " + e.getCause().getMessage(), "Database Error");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Asks how the checked students should be printed, and prints them.
+     * @param students The checked students.
+     */
+    private void showSelectedStudents(List<Student> students) {
+        if (students.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No students selected.", "Print Selected", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String[] choices = {StudentReportJob.Kind.CLASS_LIST.getTitle(), StudentReportJob.Kind.STUDENT_SHEETS.getTitle(), "Show List", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this, "Print " + students.size() + " selected students as:", "Print Selected",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+        switch (choice) {
+            case 0: printReport(students, StudentReportJob.Kind.CLASS_LIST); break;
+            case 1: printReport(students, StudentReportJob.Kind.STUDENT_SHEETS); break;
+            case 2: showStudentList(students); break;
+            default: break;
+        }
+    }
+
+    /**
+     * Prints students on a background thread after the print dialog, with a
+     * progress monitor whose Cancel button aborts the job. Pages are laid out
+     * by the report's own workers as the printer asks for them.
+     * @param students The students to print.
+     * @param kind     The layout.
+     */
+    private void printReport(List<Student> students, StudentReportJob.Kind kind) {
+        PrinterJob job = PrinterJob.getPrinterJob();
+        job.setJobName(kind.getTitle() + " (" + students.size() + " students)");
+        if (!job.printDialog()) return;
+        StudentReportJob report = new StudentReportJob(students, kind, job.defaultPage());
+        job.setPageable(report);
+        int pages = report.getNumberOfPages();
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Printing " + job.getJobName(), "Preparing...", 0, pages);
+        monitor.setMillisToDecideToPopup(200);
+        monitor.setMillisToPopup(200);
+        printSelectedButton.setEnabled(false);
+        SwingWorker<Void, Integer> worker = new SwingWorker<Void, Integer>() {
+            @Override
+            protected Void doInBackground() throws PrinterException {
+                report.setProgressListener(this::publish);
+                try {
+                    job.print();
+                } finally {
+                    report.close();
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<Integer> printed) {
+                int page = printed.get(printed.size() - 1);
+                monitor.setNote("Page " + page + " of " + pages);
+                monitor.setProgress(Math.min(page, pages - 1)); // Closed by done(), not by reaching the maximum
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                printSelectedButton.setEnabled(true);
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof PrinterAbortException) return; // Cancelled
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(StudentApp.this, "Printing failed: " + e.getCause().getMessage(),
+                            "Print Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        Timer cancelWatch = new Timer(250, null);
+        cancelWatch.addActionListener(e -> {
+            if (worker.isDone()) {
+                cancelWatch.stop();
+            } else if (monitor.isCanceled()) {
+                cancelWatch.stop();
+                job.cancel(); // The next page request fails with PrinterAbortException
+            }
+        });
+        cancelWatch.start();
+        worker.execute();
+    }
+
+    /**
+     * Prints the given students' LRNs and names to the console and shows them in a dialog, in display order.
+     * @param students The students to list.
+     */
+    private void showStudentList(List<Student> students) {
+        students.sort(Student.SORT_ORDER);
+        StringBuilder selectedStudentsInfo = new StringBuilder("Selected Students (" + students.size() + "):\n");
+        for (Student student : students) {
+            selectedStudentsInfo.append("LRN: ").append(student.getLrn()).append(", Name: ").append(student.getFullName()).append("\n");
+        }
+        System.out.println(selectedStudentsInfo.toString()); // Print to console
+        JTextArea textArea = new JTextArea(selectedStudentsInfo.toString());
+        textArea.setEditable(false);
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(400, 300));
+        JOptionPane.showMessageDialog(this, scrollPane, "Selected Student Details", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Action handler for the "Export..." button.
+     * Asks for a file and format, then writes every student matching the
+     * current filters to it on a background thread, behind a progress monitor
+     * whose Cancel button stops the query and discards the partial file.
+     */
+    private void exportStudents() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Students");
+        chooser.setAcceptAllFileFilterUsed(false);
+        Map<FileFilter, StudentExporter.Format> formats = new HashMap<>();
+        for (StudentExporter.Format format : StudentExporter.Format.values()) {
+            FileNameExtensionFilter filter = new FileNameExtensionFilter(
+                    format.getDescription() + " (*." + format.getExtension() + ")", format.getExtension());
+            formats.put(filter, format);
+            chooser.addChoosableFileFilter(filter);
+            if (format == StudentExporter.Format.CSV) chooser.setFileFilter(filter);
+        }
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        StudentExporter.Format format = formats.get(chooser.getFileFilter());
+        File file = chooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith("." + format.getExtension())) {
+            file = new File(file.getParentFile(), file.getName() + "." + format.getExtension());
         }
+        if (file.exists() && JOptionPane.showConfirmDialog(this, file.getName() + " already exists. Replace it?",
+                "Export Students", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        int expected = studentTable.getTotalRows(); // Matches the current filters; only used for the progress bar
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exporting students to " + file.getName(),
+                "Running query...", 0, Math.max(1, expected));
+        monitor.setMillisToDecideToPopup(200);
+        monitor.setMillisToPopup(200);
+        FilterCriteria filters = currentFilters.copy();
+        File target = file;
+        AtomicReference<Thread> exportThread = new AtomicReference<>();
+        StudentExporter exporter = new StudentExporter(dbManager);
+        exportButton.setEnabled(false);
+
+        SwingWorker<Integer, Integer> worker = new SwingWorker<Integer, Integer>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                exportThread.set(Thread.currentThread());
+                try {
+                    return exporter.export(filters, format, target.toPath(), this::publish);
+                } finally {
+                    exportThread.set(null);
+                }
+            }
+
+            @Override
+            protected void process(List<Integer> written) {
+                int rows = written.get(written.size() - 1);
+                monitor.setNote(rows + (expected > 0 ? " of " + expected : "") + " students written");
+                monitor.setProgress(Math.min(rows, Math.max(1, expected) - 1)); // Closed by done(), not by reaching the maximum
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                exportButton.setEnabled(true);
+                if (isCancelled()) return;
+                try {
+                    int rows = get();
+                    JOptionPane.showMessageDialog(StudentApp.this, "Exported " + rows + " students to\n" + target.getAbsolutePath(),
+                            "Export Students", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException) return; // Cancelled
+                    e.getCause().printStackTrace();
+                    DBConnection.showError("Error exporting students: " + e.getCause().getMessage(), "Export Error");
+                }
+            }
+        };
+        // The monitor has no cancel callback; watch it, including while the query runs and nothing is published
+        Timer cancelWatch = new Timer(250, null);
+        cancelWatch.addActionListener(e -> {
+            if (worker.isDone()) {
+                cancelWatch.stop();
+            } else if (monitor.isCanceled()) {
+                cancelWatch.stop();
+                Thread thread = exportThread.get();
+                worker.cancel(true);
+                dbManager.cancelQuery(thread);
+            }
+        });
+        cancelWatch.start();
+        worker.execute();
+    }
+
+    /**
+     * Gets the id a student's row is checked under: its LRN key, or for an LRN
+     * that cannot be packed, a negative id assigned on first use.
+     * Call on the event dispatch thread.
+     * @param lrn The student's LRN.
+     * @return The row id.
+     */
+    private long studentId(String lrn) {
+        long key = LrnKey.encode(lrn);
+        if (key != LrnKey.NONE) return key;
+        return unpackedLrnIds.computeIfAbsent(lrn, k -> {
+            unpackedLrns.add(k);
+            return (long) -unpackedLrns.size();
+        });
+    }
+
+    /**
+     * Gets the LRN a row id was made from.
+     * @param id An id from {@link #studentId(String)}.
+     * @return The LRN.
+     */
+    private String lrnForId(long id) {
+        return id >= 0 ? LrnKey.decode(id) : unpackedLrns.get((int) (-id - 1));
+    }
+
+    /**
+     * Tests a student against a selection snapshot from any thread, without
+     * assigning ids: an LRN that never got an id was never checked or unchecked.
+     */
+    private boolean isSelected(LongPredicate selected, String lrn) {
+        long key = LrnKey.encode(lrn);
+        if (key != LrnKey.NONE) return selected.test(key);
+        Long id = unpackedLrnIds.get(lrn);
+        return id != null ? selected.test(id) : selected.test(Long.MIN_VALUE); // Never a real id
     }
 
 
     /**
-     * Finds a student in the currentStudentList by their LRN.
-     * This list (currentStudentList) holds all students matching the current filter,
-     * not just the ones on the current page of GTable.
+     * Finds a displayed student by their LRN, through the LRN index of the
+     * loaded page's store or of the search index rather than a scan.
      * @param lrn The LRN to search for.
      * @return The Student object if found, null otherwise.
      */
     private Student findStudentByLrn(String lrn) {
         if (lrn == null) return null;
-        for (Student student : currentStudentList) { // Search the master list
-            if (lrn.equals(student.getLrn())) {
-                return student;
+        if (streamedBatches != null) {
+            for (StudentStore batch : streamedBatches) {
+                Student student = batch.find(lrn);
+                if (student != null) return student;
+            }
+            return null;
+        }
+        if (studentProvider == null) {
+            return filterEngine != null ? filterEngine.find(lrn) : null; // Results were filtered in memory
+        }
+        List<Student> shown = studentProvider.getCurrentStudents();
+        // A page is read by a single query, so all of its students share one store
+        return shown.isEmpty() ? null : shown.get(0).getStore().find(lrn);
+    }
+
+    /**
+     * Restarts the debounce timer when the search text changes and instant search is on.
+     */
+    private void searchTextChanged() {
+        if (instantSearchCheckBox.isSelected()) {
+            searchDebounceTimer.restart();
+        }
+    }
+
+    /**
+     * Applies the search field's text. When instant search is on and its copy
+     * of the students is loaded, results are filtered in memory without a
+     * query; otherwise the database is searched.
+     */
+    private void applySearch() {
+        searchDebounceTimer.stop();
+        currentFilters.searchTerm = searchField.getText().trim();
+        // Reset detailed name filters if a general search term is used
+        currentFilters.filterFirstName = "";
+        currentFilters.filterLastName = "";
+        currentFilters.filterMiddleName = "";
+        reloadScheduler.request();
+    }
+
+    /**
+     * Shows the students matching the current filters, evaluated in memory by
+     * the filter engine, in the database's display order.
+     */
+    private void showLocalResults() {
+        BitSet matches = filterEngine.filter(currentFilters);
+        long start = Metrics.ROW_BUILD.start();
+        int[] order = filterEngine.inDisplayOrder(matches);
+        Object[][] rows = new Object[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            rows[i] = localRow(order[i]);
+        }
+        Metrics.ROW_BUILD.stop(start);
+        shownRows = order;
+        studentProvider = null;
+        studentTable.setData(rows);
+    }
+
+    /**
+     * Gets the table row of a filter engine row, creating it on first use.
+     */
+    private Object[] localRow(int row) {
+        if (row >= filterEngineRows.length) {
+            filterEngineRows = Arrays.copyOf(filterEngineRows, filterEngine.getStore().size()); // Grown by the change feed
+        }
+        if (filterEngineRows[row] == null) {
+            filterEngineRows[row] = StudentTableProvider.toRow(filterEngine.getStore().get(row));
+        }
+        return filterEngineRows[row];
+    }
+
+    /**
+     * Applies students changed in the database, as reported by the change
+     * feed, without re-running the current query. The in-memory copy is
+     * updated row by row, and so is the table when it shows in-memory
+     * results; a page from the database is re-read on its own, and a streamed
+     * list is streamed again.
+     * @param delta The changes.
+     * @return False if the delta should be fetched again later.
+     */
+    private boolean applyChanges(StudentChangeFeed.Delta delta) {
+        if (delta.isFullReload()) {
+            reloadEverything();
+            return true;
+        }
+        if (delta.isEmpty()) return true;
+        if (indexBuilding) return false; // The copy being loaded may predate the changes
+        resultCache.invalidateAll();
+        lookupCache.refreshNow(); // Ages and school forms may have changed
+        if (filterEngine != null) {
+            applyLocalChanges(delta);
+        }
+        if (studentProvider != null) {
+            studentProvider.invalidate();
+            studentTable.refreshPage();
+        } else if (streamedBatches != null) {
+            loadedView = null; // Streamed rows are not tracked per student
+            reloadScheduler.request();
+        }
+        return true;
+    }
+
+    /**
+     * Applies a delta to the filter engine and, when in-memory results are
+     * shown, to the table: rows of deleted students and students that no
+     * longer match are removed, new matches are inserted at their place in
+     * the display order, and a changed student that keeps its place is
+     * updated where it is.
+     */
+    private void applyLocalChanges(StudentChangeFeed.Delta delta) {
+        StudentFilterEngine engine = filterEngine;
+        int firstNewRow = engine.getStore().size();
+        Map<Integer, Integer> replacements = new HashMap<>(); // Retired row -> its new row
+        for (String lrn : delta.getDeletedLrns()) {
+            engine.remove(lrn);
+        }
+        StudentStore changed = delta.getStudents();
+        for (int i = 0; i < changed.size(); i++) {
+            int previous = engine.findRow(changed.getLrn(i));
+            int row = engine.upsert(changed.get(i));
+            if (previous >= 0) replacements.put(previous, row);
+        }
+        if (shownRows == null) return; // The table is not showing in-memory results
+
+        BitSet matches = engine.filter(currentFilters);
+        int[] inserts = matches.stream().filter(row -> row >= firstNewRow).boxed()
+                .sorted(engine::compareDisplayOrder).mapToInt(Integer::intValue).toArray();
+        int[] old = shownRows;
+        int[] shown = new int[old.length + inserts.length];
+        int out = 0;
+        int next = 0; // Next of the inserts
+        for (int j = 0; j < old.length; j++) {
+            int row = old[j];
+            Integer replacement = engine.isLive(row) ? null : replacements.get(row);
+            while (next < inserts.length && (replacement == null || inserts[next] != replacement)
+                    && engine.compareDisplayOrder(inserts[next], row) < 0) {
+                studentTable.insertRow(out, localRow(inserts[next]));
+                shown[out++] = inserts[next++];
+            }
+            if (engine.isLive(row)) {
+                shown[out++] = row;
+            } else if (replacement != null && next < inserts.length && inserts[next] == replacement
+                    && (j + 1 == old.length || engine.compareDisplayOrder(replacement, old[j + 1]) <= 0)) {
+                studentTable.updateRow(out, localRow(replacement)); // Same place, new values
+                shown[out++] = inserts[next++];
+            } else {
+                studentTable.removeRow(out);
+            }
+        }
+        while (next < inserts.length) {
+            studentTable.insertRow(out, localRow(inserts[next]));
+            shown[out++] = inserts[next++];
+        }
+        shownRows = Arrays.copyOf(shown, out);
+    }
+
+    /**
+     * Loads every student in the background, indexes them for instant search
+     * and builds the filter engine over them. If an index already exists it is
+     * refreshed in place, re-indexing only students that changed since it was built.
+     */
+    private void buildSearchIndex() {
+        instantSearchCheckBox.setText("Instant (indexing...)");
+        indexBuilding = true;
+        StudentSearchIndex existingIndex = searchIndex;
+        new SwingWorker<List<Student>, Void>() {
+            private StudentSearchIndex built;
+            private StudentFilterEngine engine;
+            private String savedVersion;
+
+            @Override
+            protected List<Student> doInBackground() throws SQLException {
+                String version = snapshotFile == null ? null : readDataVersion(); // Read first, so the copy is at least as new
+                // Throws rather than returning a partial list, which would be indexed and saved as complete
+                List<Student> students = dbManager.getAllStudents();
+                if (existingIndex == null) {
+                    built = new StudentSearchIndex(students);
+                }
+                // All students come from one query, and so from one store
+                StudentStore store = students.isEmpty() ? new StudentStore() : students.get(0).getStore();
+                engine = new StudentFilterEngine(store, built != null ? built : existingIndex);
+                LookupCache.Lookups lookups = lookupCache.get();
+                if (version != null && lookups != null) {
+                    try {
+                        StudentSnapshot.write(snapshotFile, engine, lookups, version); // Before the engine is shared
+                        savedVersion = version;
+                    } catch (IOException | RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                return students;
+            }
+
+            @Override
+            protected void done() {
+                instantSearchCheckBox.setText("Instant");
+                indexBuilding = false;
+                try {
+                    List<Student> students = get();
+                    if (built != null) {
+                        searchIndex = built;
+                    } else {
+                        searchIndex.refresh(students);
+                    }
+                    filterEngine = engine;
+                    filterEngineRows = new Object[engine.getStore().size()][];
+                    shownRows = null; // Rows of the previous engine; shown afresh by the reload below
+                    if (savedVersion != null) {
+                        snapshotVersion = savedVersion;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    return;
+                }
+                if (instantSearchCheckBox.isSelected()) {
+                    reloadScheduler.request(); // From now on filtered in memory
+                }
             }
+        }.execute();
+    }
+
+    /**
+     * Reads the database's data version for a snapshot.
+     * @return The version, or null if it could not be read; no snapshot is taken then.
+     */
+    private String readDataVersion() {
+        try {
+            return dbManager.getDataVersion();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
         }
-        return null;
     }
 
     /**
      * Loads data from the database based on current filters and updates the GTable.
+     * GTable fetches only the visible page from the provider, on a background
+     * thread; starting a new load cancels the query of the previous one. With
+     * instant search on, the filters are evaluated in memory instead.
+     * <p>
+     * Runs through {@link #reloadScheduler}; call {@code reloadScheduler.request()}
+     * rather than this method. Does nothing if the same filters are already
+     * shown from the same source, unless {@link #loadedView} was cleared.
+     * </p>
      */
     private void loadData() {
-        // Fetch ALL students matching the current filters. GTable will handle pagination.
-        currentStudentList = dbManager.getStudents(1, Integer.MAX_VALUE, currentFilters);
-
-        // The number of columns in dataForGTable must match studentTable.getColumnCount()
-        // which is now 9 (Select, LRN, Name, Sex, Age, Grade, Section, Track/Strand, Actions)
-        Object[][] dataForGTable = new Object[currentStudentList.size()][studentTable.getColumnCount()];
-        for (int i = 0; i < currentStudentList.size(); i++) {
-            Student s = currentStudentList.get(i);
-            dataForGTable[i] = new Object[]{
-                Boolean.FALSE, // For the "Select" checkbox column
-                s.getLrn(), 
-                s.getFullName(), 
-                s.getSex(), 
-                s.getAge(),
-                s.getGradeLevel(), 
-                s.getSection(), 
-                s.getTrackAndStrand(),
-                "" // Placeholder for actions column, GTable's ActionManager handles rendering
-            };
-        }
-        studentTable.setData(dataForGTable); // This will internally handle pagination display
-        updateAppliedFiltersLabel();
+        boolean local = (instantSearchCheckBox.isSelected() || showingSnapshot) && filterEngine != null;
+        List<Object> view = Arrays.asList(new FilterKey(currentFilters), local ? filterEngine : dbManager,
+                !local && currentPageSize == ALL_ROWS);
+        if (view.equals(loadedView)) return;
+        loadedView = view;
+
+        cancelStream();
+        shownRows = null;
+        if (local) {
+            showLocalResults();
+            return;
+        }
+        if (currentPageSize == ALL_ROWS) {
+            streamAllStudents();
+            return;
+        }
+        studentProvider = new StudentTableProvider(dbManager, currentFilters, resultCache);
+        studentTable.setDataProvider(studentProvider);
+    }
+
+    /**
+     * Shows every matching student without pagination. Rows are streamed in
+     * batches and appended as they arrive, so the top of the list appears
+     * while the rest is still loading.
+     */
+    private void streamAllStudents() {
+        studentProvider = null;
+        studentTable.clearData();
+        studentTable.setLoading(true);
+        List<StudentStore> batches = new ArrayList<>();
+        streamedBatches = batches;
+        streamLoader = new StudentStreamLoader(dbManager, currentFilters, STREAM_BATCH_SIZE, STREAM_QUEUE_BATCHES);
+        streamLoader.start(new StudentStreamLoader.Listener() {
+            @Override
+            public void batchLoaded(StudentStore batch, List<Object[]> rows) {
+                if (batches.isEmpty()) {
+                    studentTable.setLoading(false); // The growing record count shows the rest of the progress
+                }
+                batches.add(batch);
+                studentTable.appendRows(rows);
+            }
+
+            @Override
+            public void finished(int totalRows) {
+                streamLoader = null;
+                studentTable.setLoading(false);
+            }
+        });
+    }
+
+    /**
+     * Stops a streaming load in progress, if any, and leaves streaming mode.
+     */
+    private void cancelStream() {
+        if (streamLoader != null) {
+            streamLoader.cancel();
+            streamLoader = null;
+            studentTable.setLoading(false);
+        }
+        streamedBatches = null;
+    }
+
+    /**
+     * Brings the view up to date with changes made elsewhere. Bound to F5.
+     * With a change log in the database only the changed students are
+     * fetched (see {@link StudentChangeFeed}); otherwise everything is reloaded.
+     * While offline, the server is tried again instead.
+     */
+    private void refreshData() {
+        if (showingSnapshot) {
+            reconcileSnapshot(); // Try the database again
+        } else if (DBConnection.isOffline()) {
+            reconnect();
+        } else if (changeFeed.isAvailable()) {
+            changeFeed.pollNow();
+        } else {
+            reloadEverything();
+        }
+    }
+
+    /**
+     * Discards cached query results, reloads the current view from the
+     * database and refreshes the dropdown values.
+     */
+    private void reloadEverything() {
+        resultCache.invalidateAll();
+        lookupCache.refreshNow();
+        if (searchIndex != null) {
+            buildSearchIndex(); // Re-filters in memory once the copy is reloaded
+        }
+        if (lookupsLoaded && !((instantSearchCheckBox.isSelected() || showingSnapshot) && filterEngine != null)) {
+            loadedView = null;
+            reloadScheduler.request();
+        }
+    }
+
+    /**
+     * Gets the result cache's hit/miss/eviction counters, for tuning its size and TTL.
+     * @return The current cache statistics.
+     */
+    public StudentResultCache.CacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
+    /**
+     * Opens the diagnostics panel, or brings it to the front if already open.
+     */
+    private void showDiagnostics() {
+        if (diagnosticsDialog == null || !diagnosticsDialog.isDisplayable()) {
+            diagnosticsDialog = new DiagnosticsDialog(this, this::getResultCacheStats);
+        }
+        diagnosticsDialog.setVisible(true);
+        diagnosticsDialog.toFront();
     }
 
     /**
@@ -863,7 +1255,7 @@ public class StudentApp extends JFrame {
      */
     private void updateAppliedFiltersLabel() {
         int filterCount = currentFilters.getActiveFilterCount(dbMinAge, dbMaxAge);
-        int totalRecords = currentStudentList.size(); // Total records matching filter, before GTable pagination
+        int totalRecords = studentTable.getTotalRows(); // Total records matching filter, before GTable pagination
 
         String filterText = filterCount == 1 ? "1 Active Filter" : filterCount + " Active Filters";
         String recordText = totalRecords == 1 ? "1 Record Found" : totalRecords + " Records Found";
@@ -882,14 +1274,18 @@ public class StudentApp extends JFrame {
      * Opens the advanced filter dialog.
      */
     private void openFilterDialog() {
+        LookupCache.Lookups lookups = lookupCache.get(); // Loaded before the button is enabled
+        if (lookups == null) return;
+
         searchField.setText(""); 
+        searchDebounceTimer.stop(); // Clearing the field is not a search
         currentFilters.searchTerm = ""; 
 
-        FilterDialog dialog = new FilterDialog(this, currentFilters, dbManager);
+        FilterDialog dialog = new FilterDialog(this, currentFilters, lookups);
         dialog.setVisible(true);
 
         if (dialog.wereFiltersApplied()) {
-            loadData();
+            reloadScheduler.request();
         }
     }
 
@@ -935,36 +1331,16 @@ public class StudentApp extends JFrame {
             } catch (Exception e) { e.printStackTrace(); }
         }
 
+        MetricsBean.register();
+
+        // Open the first pooled connections while the UI is being built
+        Thread warmUp = new Thread(DBConnection::warmUp, "db-pool-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+
         SwingUtilities.invokeLater(() -> {
             StudentApp app = new StudentApp();
             app.setVisible(true);
         });
     }
 }
-
-class DBConnection {
-	//THIS IS LITERALLY MY DATABASE SETUP NO NEED TO CHANGE IT 
-    private static final String DB_URL = "jdbc:mariadb://localhost:3306/gomisdb";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "YourRootPassword123!"; 
-
-    public static Connection getConnection() {
-        Connection connection = null;
-        try {
-            Class.forName("org.mariadb.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null,
-                "MariaDB JDBC Driver not found. Please add it to your project's classpath.",
-                "Driver Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null,
-                "Database Connection Error: " + ex.getMessage() +
-                "\nPlease check your database server (" + DB_URL + ") and credentials.",
-                "DB Connection Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return connection;
-    }
-}
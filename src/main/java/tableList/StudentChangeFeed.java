@@ -0,0 +1,281 @@
+package tableList;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.swing.SwingUtilities;
+
+/**
+ * StudentChangeFeed Class
+ * Keeps the viewer current without re-running its queries. Triggers on
+ * STUDENT and SCHOOL_FORM append to STUDENT_CHANGE_LOG (see
+ * sql/student_change_log.sql); the feed remembers the highest change id
+ * applied and polls for newer entries on a background thread.
+ * <p>
+ * Each poll re-reads only the students named by the new entries, plus every
+ * student of a changed school form, and hands the result to the listener on
+ * the event dispatch thread as a {@link Delta}: students inserted or updated,
+ * and LRNs deleted. The high-water mark only moves once the listener reports
+ * the delta applied; a delta it declines is fetched again, current as of the
+ * next poll. Applying a delta twice does no harm, since it holds the
+ * students' latest values.
+ * </p>
+ * <p>
+ * Change ids can become visible out of order, since a transaction commits
+ * after taking its id; the mark waits at a missing id for a while before
+ * moving past it (see {@link #settledMark}).
+ * </p>
+ * <p>
+ * When more changes are waiting than are worth applying one by one, or the
+ * entries after the mark were already pruned from the log, the delta asks for
+ * a full reload instead. Without the change log table the feed stays idle
+ * and {@link #isAvailable()} is false.
+ * </p>
+ */
+class StudentChangeFeed {
+    private static final int MAX_CHANGES = 5000; // More waiting than this and a full reload is cheaper
+    private static final long GAP_GRACE_MS = 60_000; // How long a missing change id may still be committed
+
+    private final DatabaseManager dbManager;
+    private final long pollPeriodMillis;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "student-change-feed");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile Predicate<Delta> listener;
+    private volatile boolean available;
+    private volatile long appliedMark; // Highest change id applied
+    private volatile boolean deltaPending; // Handed to the listener, not answered yet
+    private long gapId = -1; // First missing change id above the mark; poller thread only
+    private long gapSeenAt;
+
+    /**
+     * @param dbManager        The database access object.
+     * @param pollPeriodMillis How often the change log is checked.
+     */
+    StudentChangeFeed(DatabaseManager dbManager, long pollPeriodMillis) {
+        this.dbManager = dbManager;
+        this.pollPeriodMillis = pollPeriodMillis;
+    }
+
+    /**
+     * Reads the current high-water mark in the background and starts polling,
+     * if the change log exists. Start the feed before the first load, so no
+     * change made during the load is missed.
+     * @param listener Called on the event dispatch thread with each delta;
+     *                 returns true once the delta is applied, false to have it fetched again.
+     */
+    void start(Predicate<Delta> listener) {
+        this.listener = listener;
+        poller.execute(() -> {
+            try {
+                if (!dbManager.hasChangeLog()) return;
+                appliedMark = dbManager.getChangeLogRange()[1];
+                available = true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return; // Full reloads only
+            }
+            poller.scheduleWithFixedDelay(this::poll, pollPeriodMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Checks whether changes are being tracked.
+     * @return True once the change log was found and the high-water mark read.
+     */
+    boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the highest change id applied so far.
+     * @return The high-water mark; 0 until the feed has started.
+     */
+    long getAppliedMark() {
+        return appliedMark;
+    }
+
+    /**
+     * Moves the high-water mark back to an earlier change id and polls, so
+     * the changes since then are delivered, e.g. to bring a copy of the
+     * students saved at that mark up to date. Blocks until the feed has
+     * started; do not call on the event dispatch thread.
+     * @param mark The change id the listener's copy is current as of.
+     * @return False if changes are not being tracked.
+     * @throws InterruptedException If interrupted while waiting for the feed to start.
+     */
+    boolean resumeFrom(long mark) throws InterruptedException {
+        try {
+            return poller.submit(() -> {
+                if (!available) return false;
+                appliedMark = Math.min(appliedMark, mark);
+                poll();
+                return true;
+            }).get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Polls in the background now, e.g. when the user asks for a refresh.
+     */
+    void pollNow() {
+        if (available) {
+            poller.execute(this::poll);
+        }
+    }
+
+    private void poll() {
+        if (deltaPending || DBConnection.isOffline()) return; // The local copy has no change log
+        long from = appliedMark;
+        Delta delta;
+        try {
+            long[] range = dbManager.getChangeLogRange();
+            if (range[1] <= from) return; // Nothing new
+            if (range[0] > from + 1) {
+                delta = new Delta(from, range[1], null, null); // Entries after the mark were pruned
+            } else {
+                delta = fetch(from);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace(); // Tried again on the next poll
+            return;
+        }
+        deltaPending = true;
+        final Delta fetched = delta;
+        SwingUtilities.invokeLater(() -> {
+            try {
+                if (listener.test(fetched)) {
+                    appliedMark = Math.max(appliedMark, fetched.toMark);
+                }
+            } finally {
+                deltaPending = false;
+            }
+        });
+    }
+
+    private Delta fetch(long from) throws SQLException {
+        List<Change> changes = dbManager.getChanges(from, MAX_CHANGES + 1);
+        if (changes.isEmpty()) {
+            return new Delta(from, from, new StudentStore(), Collections.emptySet());
+        }
+        long to = settledMark(from, changes);
+        if (changes.size() > MAX_CHANGES) {
+            return new Delta(from, to, null, null);
+        }
+
+        Set<String> lrns = new LinkedHashSet<>();
+        Set<Integer> schoolForms = new LinkedHashSet<>();
+        for (Change c : changes) {
+            if (c.lrn != null) lrns.add(c.lrn);
+            if (c.schoolFormId >= 0) schoolForms.add(c.schoolFormId);
+        }
+        StudentStore students = dbManager.getStudentsFor(lrns, schoolForms);
+        Set<String> deleted = new LinkedHashSet<>();
+        for (String lrn : lrns) {
+            if (students.findRow(lrn) < 0) deleted.add(lrn); // Gone, or no longer in a school form
+        }
+        return new Delta(from, to, students, deleted);
+    }
+
+    /**
+     * Finds how far the high-water mark may move over the fetched entries.
+     * Change ids are handed out when a transaction inserts its entry but only
+     * become visible when it commits, so a missing id may still appear. The
+     * mark stops before the first missing id until that id has been missing
+     * for {@link #GAP_GRACE_MS}; after that it is taken to belong to a rolled
+     * back transaction. Entries past the gap are applied now and again on the
+     * next poll, which does no harm.
+     * @param from    The current mark.
+     * @param changes The entries after it, in change id order.
+     * @return The new mark.
+     */
+    private long settledMark(long from, List<Change> changes) {
+        long expected = from + 1;
+        for (Change c : changes) {
+            if (c.changeId > expected) { // expected .. changeId - 1 are missing
+                long now = System.currentTimeMillis();
+                if (gapId != expected) {
+                    gapId = expected;
+                    gapSeenAt = now;
+                }
+                if (now - gapSeenAt < GAP_GRACE_MS) return expected - 1;
+            }
+            expected = c.changeId + 1;
+        }
+        return expected - 1;
+    }
+
+    /**
+     * Change Class
+     * One change log entry: a student, or a school form, that changed.
+     */
+    static final class Change {
+        final long changeId;
+        final String lrn; // Null for a school form change
+        final int schoolFormId; // -1 for a student change
+
+        Change(long changeId, String lrn, int schoolFormId) {
+            this.changeId = changeId;
+            this.lrn = lrn;
+            this.schoolFormId = schoolFormId;
+        }
+    }
+
+    /**
+     * Delta Class
+     * The students changed between two high-water marks, with their current values.
+     */
+    static final class Delta {
+        private final long fromMark;
+        private final long toMark;
+        private final StudentStore students; // Null when a full reload is needed
+        private final Set<String> deletedLrns;
+
+        Delta(long fromMark, long toMark, StudentStore students, Set<String> deletedLrns) {
+            this.fromMark = fromMark;
+            this.toMark = toMark;
+            this.students = students;
+            this.deletedLrns = deletedLrns;
+        }
+
+        public long getFromMark() { return fromMark; }
+        public long getToMark() { return toMark; }
+
+        /**
+         * @return True if too much changed to apply row by row; reload everything instead.
+         */
+        public boolean isFullReload() { return students == null; }
+
+        /**
+         * @return The inserted and updated students, with their current values.
+         */
+        public StudentStore getStudents() { return students; }
+
+        /**
+         * @return The LRNs of students that were deleted.
+         */
+        public Set<String> getDeletedLrns() { return deletedLrns; }
+
+        public boolean isEmpty() {
+            return students != null && students.size() == 0 && deletedLrns.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return isFullReload() ? "Delta{" + fromMark + ".." + toMark + ", full reload}"
+                    : "Delta{" + fromMark + ".." + toMark + ", upserts=" + students.size() + ", deletes=" + deletedLrns.size() + "}";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package tableList;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * StudentDataSource Interface
+ * Where DatabaseManager's connections come from: the MariaDB server
+ * ({@link ServerDataSource}), or an embedded database with its own copy of
+ * STUDENT and SCHOOL_FORM ({@link EmbeddedStudentDatabase}). DBConnection
+ * hands out connections from the current source, so every query runs
+ * unchanged against either.
+ */
+interface StudentDataSource {
+    /**
+     * Checks out a connection. Closing it returns it to the source.
+     * @return The connection.
+     * @throws SQLException If no connection could be opened.
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * @return A short description for messages, e.g. the server's address.
+     */
+    String getDescription();
+
+    /**
+     * @return True if the data is a local copy that other users' changes do not reach.
+     */
+    boolean isLocal();
+
+    /**
+     * Opens connections ahead of the first query.
+     * @throws SQLException If a connection cannot be opened.
+     */
+    void warmUp() throws SQLException;
+
+    /**
+     * @return The connection pool's counters.
+     */
+    ConnectionPool.PoolStats getPoolStats();
+
+    /**
+     * Closes the source's idle connections; connections still checked out
+     * are closed when they are returned.
+     */
+    void close();
+}
@@ -0,0 +1,362 @@
+package tableList;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.function.IntConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * StudentExporter Class
+ * Writes every student matching a FilterCriteria to a CSV or XLSX file,
+ * straight from the streaming query's ResultSet: no Student objects or table
+ * rows are built, and the file is written through a buffered FileChannel, so
+ * memory use stays the same however many students are exported.
+ * <p>
+ * XLSX files are written as raw SpreadsheetML parts into a ZIP stream, one
+ * row at a time, so no spreadsheet library is needed. A sheet holds at most
+ * {@link #XLSX_SHEET_ROWS} students; larger exports continue on further sheets.
+ * </p>
+ * <p>
+ * The file is first written next to the target under a temporary name and
+ * moved into place once complete, so a cancelled or failed export leaves
+ * nothing behind. Cancel by interrupting the exporting thread.
+ * </p>
+ */
+class StudentExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_EVERY = 500; // Rows between progress reports
+    static final int XLSX_SHEET_ROWS = 1_048_575; // Excel's row limit, less the header row
+
+    private static final String[] HEADERS = {
+        "LRN", "Last Name", "First Name", "Middle Name", "Sex", "Age", "Grade Level", "Section", "Track/Strand"
+    };
+    private static final String[] COLUMNS = {
+        "STUDENT_LRN", "STUDENT_LASTNAME", "STUDENT_FIRSTNAME", "STUDENT_MIDDLENAME", "STUDENT_SEX",
+        "STUDENT_AGE", "SF_GRADE_LEVEL", "SF_SECTION", "SF_TRACK_AND_STRAND"
+    };
+    private static final int AGE_COLUMN = 5;
+
+    /**
+     * Format Enum
+     * The file formats an export can be written in.
+     */
+    enum Format {
+        CSV("CSV (comma-separated)", "csv"),
+        XLSX("Excel workbook", "xlsx");
+
+        private final String description;
+        private final String extension;
+
+        Format(String description, String extension) {
+            this.description = description;
+            this.extension = extension;
+        }
+
+        String getDescription() { return description; }
+        String getExtension() { return extension; }
+    }
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * @param dbManager The database access object.
+     */
+    StudentExporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Exports the students matching the criteria, in display order.
+     * @param criteria The filter criteria; copied, so later edits do not affect the export.
+     * @param format   The file format.
+     * @param target   The file to write; replaced if it exists.
+     * @param progress Receives the number of rows written so far, now and then, on the calling thread.
+     * @return The number of students exported.
+     * @throws IOException          If the file cannot be written.
+     * @throws SQLException         If the query fails.
+     * @throws InterruptedException If the export was cancelled; the target is left untouched.
+     */
+    int export(FilterCriteria criteria, Format format, Path target, IntConsumer progress)
+            throws IOException, SQLException, InterruptedException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, "." + target.getFileName(), ".part");
+        boolean done = false;
+        try {
+            int rows;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                 RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new XlsxWriter(out)) {
+                writer.header(HEADERS);
+                String[] values = new String[COLUMNS.length];
+                int[] count = {0};
+                try {
+                    rows = dbManager.exportStudents(criteria.copy(), rs -> {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Export cancelled");
+                        }
+                        for (int i = 0; i < COLUMNS.length; i++) {
+                            values[i] = rs.getString(COLUMNS[i]);
+                        }
+                        writer.row(values);
+                        if (++count[0] % PROGRESS_EVERY == 0) {
+                            progress.accept(count[0]);
+                        }
+                    });
+                } catch (InterruptedIOException e) {
+                    throw new InterruptedException(e.getMessage());
+                } catch (SQLException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Export cancelled"); // The query was cancelled under us
+                    }
+                    throw e;
+                }
+                progress.accept(rows);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            done = true;
+            return rows;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * RowWriter Interface
+     * Writes rows of one file format.
+     */
+    private interface RowWriter extends AutoCloseable {
+        void header(String[] names) throws IOException;
+
+        /**
+         * @param values The row's values, in {@link #COLUMNS} order; nulls are written as empty cells.
+         */
+        void row(String[] values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * CsvWriter Class
+     * RFC 4180 CSV in UTF-8, with a byte order mark so Excel detects the encoding.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final Writer out;
+
+        CsvWriter(OutputStream stream) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            out.write('\uFEFF'); // Byte order mark
+        }
+
+        @Override
+        public void header(String[] names) throws IOException {
+            row(names);
+        }
+
+        @Override
+        public void row(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                String value = values[i];
+                if (value == null) continue;
+                if (needsQuotes(value)) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') return true;
+            }
+            return !value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * XlsxWriter Class
+     * A minimal XLSX workbook: sheets with inline strings, written row by row.
+     * The workbook, relationship and content-type parts list the sheets, so they
+     * are written last.
+     */
+    private static final class XlsxWriter implements RowWriter {
+        private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+        private static final String SHEET_START = XML_HEADER
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>";
+        private static final String SHEET_END = "</sheetData></worksheet>";
+
+        private final ZipOutputStream zip;
+        private final Writer out;
+        private String[] headers;
+        private int sheets;
+        private int sheetRow; // Rows written to the current sheet, header included
+
+        XlsxWriter(OutputStream stream) {
+            zip = new ZipOutputStream(stream, StandardCharsets.UTF_8);
+            out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void header(String[] names) throws IOException {
+            headers = names.clone();
+            startSheet();
+        }
+
+        @Override
+        public void row(String[] values) throws IOException {
+            if (sheetRow > XLSX_SHEET_ROWS) {
+                endSheet();
+                startSheet();
+            }
+            writeRow(values, AGE_COLUMN);
+        }
+
+        private void startSheet() throws IOException {
+            sheets++;
+            sheetRow = 0;
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+            out.write(SHEET_START);
+            writeRow(headers, -1);
+        }
+
+        private void endSheet() throws IOException {
+            out.write(SHEET_END);
+            out.flush();
+            zip.closeEntry();
+        }
+
+        private void writeRow(String[] values, int numericColumn) throws IOException {
+            sheetRow++;
+            out.write("<row r=\"");
+            out.write(Integer.toString(sheetRow));
+            out.write("\">");
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i];
+                if (value == null) continue;
+                String ref = (char) ('A' + i) + Integer.toString(sheetRow);
+                if (i == numericColumn && isInteger(value)) {
+                    out.write("<c r=\"" + ref + "\"><v>");
+                    out.write(value);
+                    out.write("</v></c>");
+                } else {
+                    out.write("<c r=\"" + ref + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                    writeEscaped(value);
+                    out.write("</t></is></c>");
+                }
+            }
+            out.write("</row>");
+        }
+
+        private static boolean isInteger(String value) {
+            if (value.isEmpty() || value.length() > 9) return false;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) < '0' || value.charAt(i) > '9') return false;
+            }
+            return true;
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&': out.write("&amp;"); break;
+                    case '<': out.write("&lt;"); break;
+                    case '>': out.write("&gt;"); break;
+                    case '"': out.write("&quot;"); break;
+                    default:
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            out.write(c);
+                        } // Other control characters are not allowed in XML 1.0
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (sheets == 0) {
+                    return; // Failed before the header; the partial file is discarded anyway
+                }
+                endSheet();
+                writeEntry("xl/workbook.xml", workbook());
+                writeEntry("xl/_rels/workbook.xml.rels", workbookRels());
+                writeEntry("_rels/.rels", XML_HEADER
+                        + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                        + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                        + "</Relationships>");
+                writeEntry("[Content_Types].xml", contentTypes());
+            } finally {
+                out.close();
+            }
+        }
+
+        private void writeEntry(String name, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            out.write(content);
+            out.flush();
+            zip.closeEntry();
+        }
+
+        private String workbook() {
+            StringBuilder xml = new StringBuilder(XML_HEADER)
+                    .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"")
+                    .append(" xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+            for (int i = 1; i <= sheets; i++) {
+                xml.append("<sheet name=\"Students").append(sheets > 1 ? " " + i : "")
+                        .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            }
+            return xml.append("</sheets></workbook>").toString();
+        }
+
+        private String workbookRels() {
+            StringBuilder xml = new StringBuilder(XML_HEADER)
+                    .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+            for (int i = 1; i <= sheets; i++) {
+                xml.append("<Relationship Id=\"rId").append(i)
+                        .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\"")
+                        .append(" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            }
+            return xml.append("</Relationships>").toString();
+        }
+
+        private String contentTypes() {
+            StringBuilder xml = new StringBuilder(XML_HEADER)
+                    .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                    .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                    .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                    .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+            for (int i = 1; i <= sheets; i++) {
+                xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                        .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            }
+            return xml.append("</Types>").toString();
+        }
+    }
+}
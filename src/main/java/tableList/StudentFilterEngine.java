@@ -0,0 +1,395 @@
+package tableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * StudentFilterEngine Class
+ * Evaluates {@link FilterCriteria} against a fully loaded {@link StudentStore}
+ * in memory, so filter changes need no database round trip once the whole
+ * student list has been read.
+ * <p>
+ * Every value of the dictionary-encoded columns (sex, grade level, section,
+ * track/strand) and every age gets a bitmap of the rows holding it, built once
+ * per store. Equality and range conditions are answered by OR-ing and AND-ing
+ * those bitmaps. Substring conditions are tested against the name pool first,
+ * since there are far fewer distinct names than students, and the rows that
+ * survive the bitmaps are then checked in parallel by name id. The search term
+ * is looked up in the trigram {@link StudentSearchIndex} when one is given.
+ * </p>
+ * <p>
+ * Matching follows {@link StudentQueryCompiler}: substrings are compared case
+ * insensitively, a 12-digit search term is an exact LRN, and a term with a space
+ * or comma also matches "First Last" and "Last, First". The result lists rows in
+ * store order, which is the order the store was loaded in.
+ * </p>
+ * <p>
+ * Changes fetched from the change feed are applied with {@link #upsert} and
+ * {@link #remove}: the store only grows, so a changed student is appended and
+ * its previous row retired. Retired rows never match a filter, and
+ * {@link #inDisplayOrder(BitSet)} merges appended rows into the load order.
+ * </p>
+ */
+class StudentFilterEngine {
+    private static final int LRN_LENGTH = 12;
+    private static final int SCAN_CHUNK_WORDS = 1024; // 65,536 rows per parallel task
+
+    private final StudentStore store;
+    private final StudentSearchIndex termIndex;
+    private final int loadedRows; // Rows in load order; later rows were appended by upsert
+    private final BitSet allRows; // Live rows
+    private String[] lowerNames; // By name id
+    private BitSet[] rowsBySex; // By dictionary code
+    private BitSet[] rowsByGradeLevel;
+    private BitSet[] rowsBySection;
+    private BitSet[] rowsByTrackStrand;
+    private final BitSet[] rowsByAge = new BitSet[256];
+
+    /**
+     * Builds the bitmaps. The store must only be changed through the engine
+     * while the engine is in use.
+     * @param store     The full student list.
+     * @param termIndex A search index over the same students, or null to scan for the search term.
+     */
+    StudentFilterEngine(StudentStore store, StudentSearchIndex termIndex) {
+        this.store = store;
+        this.termIndex = termIndex;
+        this.loadedRows = store.size();
+        this.allRows = new BitSet(loadedRows);
+        allRows.set(0, loadedRows);
+
+        lowerNames = new String[1];
+        rowsBySex = new BitSet[store.getSexes().size() + 1];
+        rowsByGradeLevel = new BitSet[store.getGradeLevels().size() + 1];
+        rowsBySection = new BitSet[store.getSections().size() + 1];
+        rowsByTrackStrand = new BitSet[store.getTrackStrands().size() + 1];
+        for (int row = 0; row < loadedRows; row++) {
+            markRow(row);
+        }
+        poolNames();
+    }
+
+    StudentStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return The live rows, i.e. without removed ones. The caller owns the bitmap.
+     */
+    BitSet liveRows() {
+        return (BitSet) allRows.clone();
+    }
+
+    /**
+     * Adds a student, or replaces the current row of a student with the same LRN.
+     * Also updates the search index, if the engine has one.
+     * @param student The student's current values.
+     * @return The student's new row.
+     */
+    int upsert(Student student) {
+        int previous = store.findRow(student.getLrn());
+        if (previous >= 0) {
+            allRows.clear(previous);
+        }
+        int row = store.add(student.getLrn(), student.getLastName(), student.getFirstName(), student.getMiddleName(),
+                student.getSex(), student.getAge(), student.getGradeLevel(), student.getSection(), student.getTrackAndStrand());
+        allRows.set(row);
+        markRow(row);
+        poolNames();
+        if (termIndex != null) {
+            termIndex.upsert(store.get(row));
+        }
+        return row;
+    }
+
+    /**
+     * Retires a student's row, and drops the student from the search index.
+     * @param lrn The LRN of the student.
+     * @return True if the student had a live row.
+     */
+    boolean remove(String lrn) {
+        int row = findRow(lrn);
+        if (row < 0) return false;
+        allRows.clear(row);
+        if (termIndex != null) {
+            termIndex.remove(lrn);
+        }
+        return true;
+    }
+
+    /**
+     * Finds a student's live row by LRN.
+     * @param lrn The LRN.
+     * @return The row, or -1 if no live row has that LRN.
+     */
+    int findRow(String lrn) {
+        int row = store.findRow(lrn);
+        return row >= 0 && allRows.get(row) ? row : -1;
+    }
+
+    /**
+     * Finds a student by LRN.
+     * @param lrn The LRN.
+     * @return A view of the student's live row, or null if there is none.
+     */
+    Student find(String lrn) {
+        int row = findRow(lrn);
+        return row < 0 ? null : store.get(row);
+    }
+
+    boolean isLive(int row) {
+        return allRows.get(row);
+    }
+
+    /**
+     * Lists rows in display order. Rows from the initial load are in the
+     * database's order already; rows appended by {@link #upsert} are merged in
+     * by {@link #compareDisplayOrder}.
+     * @param rows The rows to list, e.g. the result of {@link #filter}.
+     * @return The rows in display order.
+     */
+    int[] inDisplayOrder(BitSet rows) {
+        int[] loaded = rows.get(0, loadedRows).stream().toArray();
+        int[] appended = rows.get(loadedRows, Math.max(loadedRows, rows.length())).stream()
+                .map(i -> i + loadedRows).boxed()
+                .sorted(this::compareDisplayOrder)
+                .mapToInt(Integer::intValue).toArray();
+        if (appended.length == 0) return loaded;
+        int[] merged = new int[loaded.length + appended.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            merged[k] = j == appended.length || (i < loaded.length && compareDisplayOrder(loaded[i], appended[j]) <= 0)
+                    ? loaded[i++] : appended[j++];
+        }
+        return merged;
+    }
+
+    /**
+     * Compares two rows the way the database orders students: by last name,
+     * first name and LRN, ignoring case, with missing names first. This
+     * approximates the server's collation closely enough to place changed
+     * students among loaded ones.
+     */
+    int compareDisplayOrder(int a, int b) {
+        int c = compareNames(store.getLastNameId(a), store.getLastNameId(b));
+        if (c == 0) c = compareNames(store.getFirstNameId(a), store.getFirstNameId(b));
+        if (c == 0) c = String.valueOf(store.getLrn(a)).compareTo(String.valueOf(store.getLrn(b)));
+        return c;
+    }
+
+    private int compareNames(int a, int b) {
+        if (a == b) return 0;
+        if (a == 0) return -1;
+        if (b == 0) return 1;
+        return lowerNames[a].compareTo(lowerNames[b]);
+    }
+
+    /**
+     * Finds the students matching the criteria.
+     * @param criteria The filter criteria.
+     * @return The matching rows of the store. The caller owns the bitmap.
+     */
+    BitSet filter(FilterCriteria criteria) {
+        BitSet rows = (BitSet) allRows.clone();
+
+        // Cheap bitmap conditions first, so the scans below see fewer rows
+        if (isSpecific(criteria.filterGradeLevel)) {
+            rows.and(rowsFor(rowsByGradeLevel, store.getGradeLevels(), criteria.filterGradeLevel));
+        }
+        if (isSpecific(criteria.filterSection)) {
+            rows.and(rowsFor(rowsBySection, store.getSections(), criteria.filterSection));
+        }
+        if (isSpecific(criteria.filterTrackStrand)) {
+            rows.and(rowsFor(rowsByTrackStrand, store.getTrackStrands(), criteria.filterTrackStrand));
+        }
+        if (criteria.filterMale != criteria.filterFemale) {
+            rows.and(rowsFor(rowsBySex, store.getSexes(), criteria.filterMale ? "Male" : "Female"));
+        } else if (!criteria.filterMale) {
+            rows.clear(); // Neither sex selected
+        }
+        rows.and(rowsAged(criteria.minAge, criteria.maxAge));
+        if (rows.isEmpty()) return rows;
+
+        String firstName = trimToEmpty(criteria.filterFirstName);
+        String lastName = trimToEmpty(criteria.filterLastName);
+        String middleName = trimToEmpty(criteria.filterMiddleName);
+        boolean[] firstNameIds = firstName.isEmpty() ? null : namesContaining(firstName, false);
+        boolean[] lastNameIds = lastName.isEmpty() ? null : namesContaining(lastName, false);
+        boolean[] middleNameIds = middleName.isEmpty() ? null
+                : criteria.middleInitialOnly ? namesContaining(middleName.substring(0, 1), true)
+                : namesContaining(middleName, false);
+        if (firstNameIds != null || lastNameIds != null || middleNameIds != null) {
+            rows = scan(rows, row -> (firstNameIds == null || firstNameIds[store.getFirstNameId(row)])
+                    && (lastNameIds == null || lastNameIds[store.getLastNameId(row)])
+                    && (middleNameIds == null || middleNameIds[store.getMiddleNameId(row)]));
+        }
+
+        String term = trimToEmpty(criteria.searchTerm);
+        if (!term.isEmpty() && !rows.isEmpty()) {
+            rows = matchTerm(rows, term);
+        }
+        return rows;
+    }
+
+    private BitSet matchTerm(BitSet rows, String term) {
+        if (termIndex != null) {
+            rows.and(rowsOf(termIndex.search(term)));
+            return rows;
+        }
+        if (isDigits(term)) {
+            // Names hold no digits, so only the LRN can match
+            if (term.length() == LRN_LENGTH) {
+                BitSet match = new BitSet(store.size());
+                int row = store.findRow(term);
+                if (row >= 0 && rows.get(row)) match.set(row);
+                return match;
+            }
+            return scan(rows, row -> {
+                String lrn = store.getLrn(row);
+                return lrn != null && lrn.contains(term);
+            });
+        }
+
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        boolean[] ids = namesContaining(term, false);
+        if (term.indexOf(' ') < 0 && term.indexOf(',') < 0) {
+            return scan(rows, row -> ids[store.getFirstNameId(row)] || ids[store.getLastNameId(row)]
+                    || ids[store.getMiddleNameId(row)]);
+        }
+        return scan(rows, row -> {
+            if (ids[store.getFirstNameId(row)] || ids[store.getLastNameId(row)] || ids[store.getMiddleNameId(row)]) {
+                return true;
+            }
+            String first = lowerNames[store.getFirstNameId(row)];
+            String last = lowerNames[store.getLastNameId(row)];
+            if (first == null || last == null) return false; // CONCAT with NULL is NULL
+            return (first + ' ' + last).contains(lowerTerm) || (last + ", " + first).contains(lowerTerm);
+        });
+    }
+
+    private BitSet rowsOf(List<Student> students) {
+        BitSet rows = new BitSet(store.size());
+        for (Student s : students) {
+            int row = store.findRow(s.getLrn());
+            if (row >= 0) rows.set(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Tests the candidate rows in parallel. Each task owns a word-aligned range
+     * of the result, so the tasks never write to the same word.
+     */
+    private BitSet scan(BitSet candidates, IntPredicate test) {
+        long[] in = candidates.toLongArray();
+        long[] out = new long[in.length];
+        int tasks = (in.length + SCAN_CHUNK_WORDS - 1) / SCAN_CHUNK_WORDS;
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int end = Math.min(in.length, (task + 1) * SCAN_CHUNK_WORDS);
+            for (int w = task * SCAN_CHUNK_WORDS; w < end; w++) {
+                long word = in[w];
+                long result = 0;
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (test.test(w * 64 + bit)) result |= 1L << bit;
+                    word &= word - 1;
+                }
+                out[w] = result;
+            }
+        });
+        return BitSet.valueOf(out);
+    }
+
+    /**
+     * Flags the pooled names containing (or starting with) a value, case insensitively.
+     * @return Flags by name id; id 0 (null) never matches, as in SQL.
+     */
+    private boolean[] namesContaining(String value, boolean prefix) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        boolean[] ids = new boolean[lowerNames.length];
+        for (int id = 1; id < lowerNames.length; id++) {
+            ids[id] = prefix ? lowerNames[id].startsWith(lower) : lowerNames[id].contains(lower);
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the rows holding a dictionary value, compared case insensitively.
+     */
+    private BitSet rowsFor(BitSet[] bitmaps, StudentStore.Dictionary dictionary, String value) {
+        BitSet rows = new BitSet(store.size());
+        for (int code = 1; code <= dictionary.size() && code < bitmaps.length; code++) {
+            if (bitmaps[code] != null && dictionary.decode(code).equalsIgnoreCase(value)) {
+                rows.or(bitmaps[code]);
+            }
+        }
+        return rows;
+    }
+
+    private BitSet rowsAged(int minAge, int maxAge) {
+        BitSet rows = new BitSet(store.size());
+        for (int age = Math.max(minAge, 0); age <= Math.min(maxAge, rowsByAge.length - 1); age++) {
+            if (rowsByAge[age] != null) rows.or(rowsByAge[age]);
+        }
+        return rows;
+    }
+
+    private void markRow(int row) {
+        rowsBySex = mark(rowsBySex, store.getSexCode(row), row);
+        rowsByGradeLevel = mark(rowsByGradeLevel, store.getGradeLevelCode(row), row);
+        rowsBySection = mark(rowsBySection, store.getSectionCode(row), row);
+        rowsByTrackStrand = mark(rowsByTrackStrand, store.getTrackStrandCode(row), row);
+        mark(rowsByAge, store.getAge(row), row);
+    }
+
+    /**
+     * Lower-cases the pooled names not seen yet.
+     */
+    private void poolNames() {
+        StudentStore.Dictionary names = store.getNames();
+        int known = lowerNames.length;
+        if (names.size() + 1 == known) return;
+        lowerNames = Arrays.copyOf(lowerNames, names.size() + 1);
+        for (int id = Math.max(known, 1); id < lowerNames.length; id++) {
+            lowerNames[id] = names.decode(id).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Sets a row's bit in the bitmap of its code, growing the array for a code
+     * added since the engine was built.
+     * @return The array, or its grown copy.
+     */
+    private static BitSet[] mark(BitSet[] bitmaps, int code, int row) {
+        if (code >= bitmaps.length) {
+            bitmaps = Arrays.copyOf(bitmaps, code + 1);
+        }
+        BitSet rows = bitmaps[code];
+        if (rows == null) {
+            rows = new BitSet();
+            bitmaps[code] = rows;
+        }
+        rows.set(row);
+        return bitmaps;
+    }
+
+    private static boolean isSpecific(String dropdownValue) {
+        return dropdownValue != null && !dropdownValue.isEmpty() && !"All".equals(dropdownValue);
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static String trimToEmpty(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
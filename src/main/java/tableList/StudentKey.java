@@ -0,0 +1,45 @@
+package tableList;
+
+import java.util.Objects;
+
+/**
+ * StudentKey Class
+ * A student's position in the (last name, first name, LRN) ordering used by
+ * the student list. The LRN breaks ties between students with the same name,
+ * which keeps keyset pages from skipping or repeating rows.
+ */
+final class StudentKey {
+    private final String lastName;
+    private final String firstName;
+    private final String lrn;
+
+    public StudentKey(String lastName, String firstName, String lrn) {
+        this.lastName = lastName;
+        this.firstName = firstName;
+        this.lrn = lrn;
+    }
+
+    public String getLastName() { return lastName; }
+    public String getFirstName() { return firstName; }
+    public String getLrn() { return lrn; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StudentKey)) return false;
+        StudentKey other = (StudentKey) o;
+        return Objects.equals(lastName, other.lastName)
+                && Objects.equals(firstName, other.firstName)
+                && Objects.equals(lrn, other.lrn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lastName, firstName, lrn);
+    }
+
+    @Override
+    public String toString() {
+        return "StudentKey{" + lastName + ", " + firstName + ", " + lrn + '}';
+    }
+}
@@ -0,0 +1,24 @@
+package tableList;
+
+import java.util.List;
+
+/**
+ * StudentPage Class
+ * One page of students together with the total number of students matching
+ * the filters, as returned by a combined page and count query.
+ */
+final class StudentPage {
+    private final List<Student> students;
+    private final int totalCount;
+
+    StudentPage(List<Student> students, int totalCount) {
+        this.students = students;
+        this.totalCount = totalCount;
+    }
+
+    /** @return The students on this page, in display order. */
+    public List<Student> getStudents() { return students; }
+
+    /** @return The number of students matching the filters across all pages. */
+    public int getTotalCount() { return totalCount; }
+}
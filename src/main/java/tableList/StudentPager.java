@@ -0,0 +1,137 @@
+package tableList;
+
+import java.util.List;
+
+/**
+ * StudentPager Class
+ * Walks the filtered student list page by page using keyset (seek) queries.
+ * It remembers the first and last key of the page on screen, so first,
+ * previous, next and last all seek directly instead of using OFFSET.
+ * Jumps to a page that is not adjacent fall back to an OFFSET query.
+ * <p>
+ * The pager assumes the criteria do not change while it is in use; create a
+ * new pager whenever the filters change.
+ * </p>
+ */
+class StudentPager {
+    private final DatabaseManager dbManager;
+    private final FilterCriteria criteria;
+    private final int pageSize;
+
+    private int currentPage = 0; // 0 until the first page is loaded
+    private StudentKey pageStart;
+    private StudentKey pageEnd;
+
+    public StudentPager(DatabaseManager dbManager, FilterCriteria criteria, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.dbManager = dbManager;
+        this.criteria = criteria;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Loads the first page.
+     * @return The students on page 1.
+     */
+    public List<Student> firstPage() {
+        return remember(1, dbManager.getStudentsAfter(null, pageSize, criteria));
+    }
+
+    /**
+     * Loads the first page along with the total number of matching students,
+     * for when the total is not known yet.
+     * @return Page 1 and the total count.
+     */
+    public StudentPage firstPageCounted() {
+        StudentPage page = dbManager.getFirstStudentPage(pageSize, criteria);
+        remember(1, page.getStudents());
+        return page;
+    }
+
+    /**
+     * Loads the page after the current one.
+     * @return The students on the next page (empty past the end).
+     */
+    public List<Student> nextPage() {
+        if (currentPage == 0 || pageEnd == null) return firstPage();
+        return remember(currentPage + 1, dbManager.getStudentsAfter(pageEnd, pageSize, criteria));
+    }
+
+    /**
+     * Loads the page before the current one.
+     * @return The students on the previous page.
+     */
+    public List<Student> previousPage() {
+        if (currentPage <= 2 || pageStart == null) return firstPage();
+        return remember(currentPage - 1, dbManager.getStudentsBefore(pageStart, pageSize, criteria));
+    }
+
+    /**
+     * Loads the last page by seeking backwards from the end. Only the rows that
+     * belong on the last page are read, so page boundaries stay aligned with
+     * those produced by paging forward.
+     *
+     * @param totalRows The number of students matching the criteria.
+     * @return The students on the last page.
+     */
+    public List<Student> lastPage(int totalRows) {
+        int totalPages = getTotalPages(totalRows);
+        if (totalPages <= 1) return firstPage();
+        int rowsOnLastPage = totalRows - (totalPages - 1) * pageSize;
+        return remember(totalPages, dbManager.getStudentsBefore(null, rowsOnLastPage, criteria));
+    }
+
+    /**
+     * Loads any page, using a seek when the target is the first, last, current
+     * or an adjacent page and an OFFSET query otherwise.
+     *
+     * @param page      The 1-based page number.
+     * @param totalRows The number of students matching the criteria.
+     * @return The students on that page.
+     */
+    public List<Student> goToPage(int page, int totalRows) {
+        int totalPages = getTotalPages(totalRows);
+        page = Math.max(1, Math.min(page, Math.max(totalPages, 1)));
+
+        if (page == 1) return firstPage();
+        if (page == totalPages) return lastPage(totalRows);
+        if (currentPage != 0 && pageStart != null) {
+            if (page == currentPage) {
+                return remember(page, dbManager.getStudentsFrom(pageStart, pageSize, criteria));
+            }
+            if (page == currentPage + 1) return nextPage();
+            if (page == currentPage - 1) return previousPage();
+        }
+        return remember(page, dbManager.getStudents(page, pageSize, criteria));
+    }
+
+    /**
+     * Records a page obtained elsewhere (e.g. from a cache) as the current one,
+     * so the next navigation can still seek from its boundaries.
+     * @param page     The 1-based page number.
+     * @param students The students on that page.
+     */
+    public void moveTo(int page, List<Student> students) {
+        remember(page, students);
+    }
+
+    public int getCurrentPage() { return currentPage; }
+    public int getPageSize() { return pageSize; }
+
+    private int getTotalPages(int totalRows) {
+        return (int) Math.ceil((double) totalRows / pageSize);
+    }
+
+    private List<Student> remember(int page, List<Student> students) {
+        if (students.isEmpty()) {
+            // Past either end; keep the previous boundaries so the user can page back
+            return students;
+        }
+        currentPage = page;
+        pageStart = students.get(0).getKey();
+        pageEnd = students.get(students.size() - 1).getKey();
+        return students;
+    }
+}
@@ -0,0 +1,272 @@
+package tableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * StudentQueryCompiler Class
+ * Turns a FilterCriteria into the WHERE clause shared by every student query
+ * (pages, seeks, counts), so the queries cannot drift apart.
+ * <p>
+ * The clause is canonical: conditions always appear in the same order, and
+ * conditions that cannot exclude anyone are dropped (both sexes, an age range
+ * covering every recorded age, "All" dropdowns). Only the bind values depend on what
+ * the user typed. The SQL therefore depends only on which conditions are
+ * present (the "shape"), and full statements are cached per shape so the
+ * driver can reuse its server-side prepared statements.
+ * </p>
+ * <p>
+ * Name comparisons use plain LIKE without LOWER(), relying on the columns'
+ * case-insensitive collation; this lets an index serve prefix matches such as
+ * the middle-initial filter and an exact 12-digit LRN search.
+ * </p>
+ */
+class StudentQueryCompiler {
+    // Shape bits, one per condition variant
+    private static final int SEARCH_LRN_EXACT = 1;
+    private static final int SEARCH_LRN_PART = 1 << 1;
+    private static final int SEARCH_NAME = 1 << 2;
+    private static final int SEARCH_FULL_NAME = 1 << 3;
+    private static final int FIRST_NAME = 1 << 4;
+    private static final int LAST_NAME = 1 << 5;
+    private static final int MIDDLE_INITIAL = 1 << 6;
+    private static final int MIDDLE_NAME = 1 << 7;
+    private static final int GRADE_LEVEL = 1 << 8;
+    private static final int SECTION = 1 << 9;
+    private static final int TRACK_STRAND = 1 << 10;
+    private static final int SEX = 1 << 11;
+    private static final int MIN_AGE = 1 << 12;
+    private static final int MAX_AGE = 1 << 13;
+    private static final int NO_MATCH = 1 << 14;
+    private static final int AGE_KNOWN = 1 << 15;
+
+    private static final int LRN_LENGTH = 12;
+
+    private final Map<Integer, String> whereCache = new ConcurrentHashMap<>();
+    private final Map<String, String> sqlCache = new ConcurrentHashMap<>();
+    private volatile int[] ageBounds; // Actual min/max STUDENT_AGE, once known
+
+    /**
+     * Records the actual age range of the STUDENT table, so an age filter that
+     * covers it can be dropped.
+     * @param minAge The smallest age present.
+     * @param maxAge The largest age present.
+     */
+    void setAgeBounds(int minAge, int maxAge) {
+        ageBounds = new int[]{minAge, maxAge};
+    }
+
+    /**
+     * Compiles the criteria into a WHERE clause and its bind values.
+     * @param criteria The filter criteria.
+     * @return The compiled filter.
+     */
+    CompiledFilter compile(FilterCriteria criteria) {
+        int shape = 0;
+        List<Object> params = new ArrayList<>();
+
+        String term = trimToEmpty(criteria.searchTerm);
+        if (!term.isEmpty()) {
+            if (isDigits(term)) {
+                // Names hold no digits, so only the LRN can match
+                if (term.length() == LRN_LENGTH) {
+                    shape |= SEARCH_LRN_EXACT;
+                    params.add(term);
+                } else {
+                    shape |= SEARCH_LRN_PART;
+                    params.add(contains(term));
+                }
+            } else {
+                // A term without a space or comma can only match within one name,
+                // which the single-column comparisons already cover
+                boolean spansNames = term.indexOf(' ') >= 0 || term.indexOf(',') >= 0;
+                shape |= spansNames ? SEARCH_FULL_NAME : SEARCH_NAME;
+                int count = spansNames ? 5 : 3;
+                for (int i = 0; i < count; i++) params.add(contains(term));
+            }
+        }
+
+        String firstName = trimToEmpty(criteria.filterFirstName);
+        if (!firstName.isEmpty()) {
+            shape |= FIRST_NAME;
+            params.add(contains(firstName));
+        }
+        String lastName = trimToEmpty(criteria.filterLastName);
+        if (!lastName.isEmpty()) {
+            shape |= LAST_NAME;
+            params.add(contains(lastName));
+        }
+        String middleName = trimToEmpty(criteria.filterMiddleName);
+        if (!middleName.isEmpty()) {
+            if (criteria.middleInitialOnly) {
+                shape |= MIDDLE_INITIAL;
+                params.add(escapeLike(middleName.substring(0, 1)) + "%");
+            } else {
+                shape |= MIDDLE_NAME;
+                params.add(contains(middleName));
+            }
+        }
+
+        if (isSpecific(criteria.filterGradeLevel)) {
+            shape |= GRADE_LEVEL;
+            params.add(criteria.filterGradeLevel);
+        }
+        if (isSpecific(criteria.filterSection)) {
+            shape |= SECTION;
+            params.add(criteria.filterSection);
+        }
+        if (isSpecific(criteria.filterTrackStrand)) {
+            shape |= TRACK_STRAND;
+            params.add(criteria.filterTrackStrand);
+        }
+
+        if (criteria.filterMale != criteria.filterFemale) {
+            shape |= SEX;
+            params.add(criteria.filterMale ? "Male" : "Female");
+        } else if (!criteria.filterMale) {
+            shape |= NO_MATCH; // Neither sex selected
+        }
+
+        int[] bounds = ageBounds;
+        if (criteria.minAge > criteria.maxAge) {
+            shape |= NO_MATCH;
+        } else {
+            if (bounds == null || criteria.minAge > bounds[0]) {
+                shape |= MIN_AGE;
+                params.add(criteria.minAge);
+            } else if (criteria.minAge > 0) {
+                // MIN() skips NULL ages, so the bound does not cover them; like
+                // StudentFilterEngine, which reads them as 0, leave them out
+                shape |= AGE_KNOWN;
+            }
+            if (bounds == null || criteria.maxAge < bounds[1]) {
+                shape |= MAX_AGE;
+                params.add(criteria.maxAge);
+            }
+        }
+
+        if ((shape & NO_MATCH) != 0) {
+            return new CompiledFilter(NO_MATCH, whereClause(NO_MATCH), Collections.emptyList());
+        }
+        return new CompiledFilter(shape, whereClause(shape), params);
+    }
+
+    /**
+     * Gets the full SQL for a kind of query over a filter shape, building it on
+     * first use. The template receives the filter's WHERE clause (empty when
+     * nothing is filtered) and must depend only on it.
+     *
+     * @param kind     A name for the statement template, unique per template.
+     * @param filter   The compiled filter.
+     * @param template Builds the statement around the WHERE clause.
+     * @return The cached SQL.
+     */
+    String sql(String kind, CompiledFilter filter, Function<String, String> template) {
+        return sqlCache.computeIfAbsent(kind + '#' + filter.getShape(), k -> template.apply(filter.getWhereClause()));
+    }
+
+    private String whereClause(int shape) {
+        return whereCache.computeIfAbsent(shape, StudentQueryCompiler::buildWhereClause);
+    }
+
+    private static String buildWhereClause(int shape) {
+        List<String> conditions = new ArrayList<>();
+        if ((shape & NO_MATCH) != 0) {
+            conditions.add("1 = 0");
+        }
+        if ((shape & SEARCH_LRN_EXACT) != 0) {
+            conditions.add("s.STUDENT_LRN = ?");
+        }
+        if ((shape & SEARCH_LRN_PART) != 0) {
+            conditions.add("s.STUDENT_LRN LIKE ?");
+        }
+        if ((shape & (SEARCH_NAME | SEARCH_FULL_NAME)) != 0) {
+            String names = "s.STUDENT_FIRSTNAME LIKE ? OR s.STUDENT_LASTNAME LIKE ? OR s.STUDENT_MIDDLENAME LIKE ?";
+            if ((shape & SEARCH_FULL_NAME) != 0) {
+                names += " OR CONCAT(s.STUDENT_FIRSTNAME, ' ', s.STUDENT_LASTNAME) LIKE ?" +
+                         " OR CONCAT(s.STUDENT_LASTNAME, ', ', s.STUDENT_FIRSTNAME) LIKE ?";
+            }
+            conditions.add("(" + names + ")");
+        }
+        if ((shape & FIRST_NAME) != 0) conditions.add("s.STUDENT_FIRSTNAME LIKE ?");
+        if ((shape & LAST_NAME) != 0) conditions.add("s.STUDENT_LASTNAME LIKE ?");
+        if ((shape & (MIDDLE_INITIAL | MIDDLE_NAME)) != 0) conditions.add("s.STUDENT_MIDDLENAME LIKE ?");
+        if ((shape & GRADE_LEVEL) != 0) conditions.add("sf.SF_GRADE_LEVEL = ?");
+        if ((shape & SECTION) != 0) conditions.add("sf.SF_SECTION = ?");
+        if ((shape & TRACK_STRAND) != 0) conditions.add("sf.SF_TRACK_AND_STRAND = ?");
+        if ((shape & SEX) != 0) conditions.add("s.STUDENT_SEX = ?");
+        if ((shape & MIN_AGE) != 0 && (shape & MAX_AGE) != 0) {
+            conditions.add("s.STUDENT_AGE BETWEEN ? AND ?");
+        } else if ((shape & MIN_AGE) != 0) {
+            conditions.add("s.STUDENT_AGE >= ?");
+        } else if ((shape & MAX_AGE) != 0) {
+            conditions.add("s.STUDENT_AGE <= ?");
+        }
+        if ((shape & AGE_KNOWN) != 0) conditions.add("s.STUDENT_AGE IS NOT NULL");
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static boolean isSpecific(String dropdownValue) {
+        return dropdownValue != null && !dropdownValue.isEmpty() && !"All".equals(dropdownValue);
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static String trimToEmpty(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static String contains(String value) {
+        return "%" + escapeLike(value) + "%";
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input is matched literally.
+     */
+    private static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * CompiledFilter Class
+     * A WHERE clause (shared per shape) plus the bind values for one set of criteria.
+     */
+    static final class CompiledFilter {
+        private final int shape;
+        private final String whereClause;
+        private final List<Object> params;
+
+        CompiledFilter(int shape, String whereClause, List<Object> params) {
+            this.shape = shape;
+            this.whereClause = whereClause;
+            this.params = Collections.unmodifiableList(params);
+        }
+
+        /** @return The bit set of conditions present; equal shapes share SQL. */
+        public int getShape() { return shape; }
+
+        /** @return " WHERE ..." or an empty string when nothing is filtered. */
+        public String getWhereClause() { return whereClause; }
+
+        /** @return The bind values, in placeholder order. */
+        public List<Object> getParams() { return params; }
+
+        /** @return True if the criteria exclude every student, so no query is needed. */
+        public boolean matchesNothing() { return shape == NO_MATCH; }
+    }
+}
@@ -0,0 +1,478 @@
+package tableList;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Line2D;
+import java.awt.print.PageFormat;
+import java.awt.print.Pageable;
+import java.awt.print.Printable;
+import java.awt.print.PrinterAbortException;
+import java.awt.print.PrinterException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * StudentReportJob Class
+ * Prints students as class lists (one table per grade level and section,
+ * continued over as many pages as needed) or as one information sheet per
+ * student. Hand it to {@link java.awt.print.PrinterJob#setPageable}; printing
+ * to a PDF printer gives a PDF.
+ * <p>
+ * The page plan (which students go on which page) is worked out up front
+ * with integer arithmetic, against a layout measured once per job with
+ * shared fonts. Laying out a page (fitting and positioning every string) runs
+ * on worker threads, a few pages ahead of the page the printer is asking
+ * for; pages the printer has moved past are dropped. So a large job keeps
+ * only a handful of laid-out pages in memory, and the printer rarely waits.
+ * </p>
+ * <p>
+ * The students' values are copied when the job is created, so the job can
+ * run on any thread. Close the job when printing ends to stop its workers.
+ * </p>
+ */
+class StudentReportJob implements Pageable, Printable, AutoCloseable {
+    private static final int LOOKAHEAD_PAGES = 8; // Pages laid out ahead of the one being printed
+    private static final int MAX_WORKERS = 4;
+
+    // Shared by every job; fonts and the render context are immutable
+    private static final Font TITLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 14);
+    private static final Font HEADING_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 9);
+    private static final Font BODY_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 9);
+    private static final Font SMALL_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 7);
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true); // Printer units, 1/72 inch
+
+    private static final String[] LIST_HEADERS = {"#", "LRN", "Name", "Sex", "Age", "Remarks"};
+    private static final float[] LIST_WIDTHS = {0.06f, 0.18f, 0.42f, 0.08f, 0.06f, 0.20f}; // Fractions of the printable width
+    private static final String[] SHEET_LABELS = {
+        "LRN", "Last Name", "First Name", "Middle Name", "Sex", "Age", "Grade Level", "Section", "Track/Strand"
+    };
+
+    /**
+     * Kind Enum
+     * The layouts a report can be printed in.
+     */
+    enum Kind {
+        CLASS_LIST("Class List"),
+        STUDENT_SHEETS("Student Sheets");
+
+        private final String title;
+
+        Kind(String title) {
+            this.title = title;
+        }
+
+        String getTitle() { return title; }
+    }
+
+    private final Kind kind;
+    private final PageFormat format;
+    private final Entry[] entries; // In print order
+    private final String printedOn;
+
+    // Page plan: students entries[pageStart[p]] .. entries[pageStart[p] + pageRows[p] - 1] go on page p
+    private final int[] pageStart;
+    private final int[] pageRows;
+    private final int[] pageOfGroup; // Page number within the page's class list, from 1
+    private final int[] pagesInGroup;
+    private final PageGeometry geometry;
+
+    private final ExecutorService workers;
+    private final Map<Integer, Future<ReportPage>> laidOut = new ConcurrentHashMap<>();
+    private final AtomicInteger highestPrinted = new AtomicInteger(-1);
+    private volatile IntConsumer progressListener;
+
+    /**
+     * @param students The students to print; their values are copied.
+     * @param kind     The layout.
+     * @param format   The page format chosen for the printer.
+     */
+    StudentReportJob(List<Student> students, Kind kind, PageFormat format) {
+        this.kind = kind;
+        this.format = (PageFormat) format.clone();
+        this.printedOn = new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date());
+        this.geometry = new PageGeometry(this.format);
+
+        List<Student> ordered = new ArrayList<>(students);
+        if (kind == Kind.CLASS_LIST) {
+            ordered.sort(Comparator.comparing(Student::getGradeLevel, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Student::getSection, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Student::getTrackAndStrand, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Student.SORT_ORDER));
+        } else {
+            ordered.sort(Student.SORT_ORDER);
+        }
+        entries = new Entry[ordered.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry(ordered.get(i));
+        }
+
+        // Plan the pages: a sheet per student, or each class list in runs of rowsPerPage
+        List<int[]> plan = new ArrayList<>(); // {start, rows, pageOfGroup, pagesInGroup}
+        if (kind == Kind.STUDENT_SHEETS) {
+            for (int i = 0; i < entries.length; i++) {
+                plan.add(new int[]{i, 1, 1, 1});
+            }
+        } else {
+            int rowsPerPage = geometry.rowsPerPage;
+            for (int start = 0; start < entries.length; ) {
+                int end = start + 1;
+                while (end < entries.length && entries[end].sameGroup(entries[start])) end++;
+                int pages = (end - start + rowsPerPage - 1) / rowsPerPage;
+                for (int p = 0; p < pages; p++) {
+                    int first = start + p * rowsPerPage;
+                    plan.add(new int[]{first, Math.min(rowsPerPage, end - first), p + 1, pages});
+                }
+                start = end;
+            }
+        }
+        int pages = plan.size();
+        pageStart = new int[pages];
+        pageRows = new int[pages];
+        pageOfGroup = new int[pages];
+        pagesInGroup = new int[pages];
+        for (int p = 0; p < pages; p++) {
+            int[] page = plan.get(p);
+            pageStart[p] = page[0];
+            pageRows[p] = page[1];
+            pageOfGroup[p] = page[2];
+            pagesInGroup[p] = page[3];
+        }
+
+        int threads = Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "report-layout-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets what is told about progress.
+     * @param listener Receives the number of pages printed so far, on the printing thread.
+     */
+    void setProgressListener(IntConsumer listener) {
+        this.progressListener = listener;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public int getNumberOfPages() {
+        return pageStart.length;
+    }
+
+    @Override
+    public PageFormat getPageFormat(int pageIndex) {
+        checkPage(pageIndex);
+        return format;
+    }
+
+    @Override
+    public Printable getPrintable(int pageIndex) {
+        checkPage(pageIndex);
+        return this;
+    }
+
+    /**
+     * Paints a page, waiting for its layout if the workers have not finished
+     * it yet. The printer may ask for the same page more than once.
+     */
+    @Override
+    public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) throws PrinterException {
+        if (pageIndex < 0 || pageIndex >= getNumberOfPages()) {
+            return NO_SUCH_PAGE;
+        }
+        Future<ReportPage> future = layOutFrom(pageIndex);
+        ReportPage page;
+        try {
+            page = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PrinterAbortException("Printing interrupted");
+        } catch (ExecutionException e) {
+            PrinterException failure = new PrinterException("Could not lay out page " + (pageIndex + 1) + ": " + e.getCause());
+            failure.initCause(e.getCause());
+            throw failure;
+        }
+        page.paint((Graphics2D) graphics);
+
+        int printed = highestPrinted.get();
+        if (pageIndex > printed && highestPrinted.compareAndSet(printed, pageIndex)) {
+            IntConsumer listener = progressListener;
+            if (listener != null) listener.accept(pageIndex + 1);
+        }
+        return PAGE_EXISTS;
+    }
+
+    /**
+     * Stops the layout workers.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        laidOut.clear();
+    }
+
+    /**
+     * Queues the layout of a page and of the pages after it, and drops pages before it.
+     * @return The page's layout, possibly still in progress.
+     */
+    private Future<ReportPage> layOutFrom(int pageIndex) {
+        laidOut.entrySet().removeIf(e -> {
+            if (e.getKey() >= pageIndex) return false;
+            e.getValue().cancel(false);
+            return true;
+        });
+        int end = Math.min(getNumberOfPages(), pageIndex + LOOKAHEAD_PAGES);
+        for (int p = pageIndex; p < end; p++) {
+            final int page = p;
+            laidOut.computeIfAbsent(page, k -> workers.submit(() -> layOut(page)));
+        }
+        return laidOut.get(pageIndex);
+    }
+
+    private void checkPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= getNumberOfPages()) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + getNumberOfPages());
+        }
+    }
+
+    /**
+     * Positions and fits every string of a page. Runs on a worker thread.
+     * @param pageIndex The page.
+     * @return The page, ready to paint.
+     */
+    ReportPage layOut(int pageIndex) {
+        ReportPage page = new ReportPage();
+        PageGeometry m = geometry;
+        float y = m.top + m.titleAscent;
+        int first = pageStart[pageIndex];
+        if (kind == Kind.CLASS_LIST) {
+            Entry group = entries[first];
+            page.text(TITLE_FONT, fit(group.groupTitle(), TITLE_FONT, m.width), m.left, y);
+            y += m.titleDescent + m.smallHeight;
+            String continued = pagesInGroup[pageIndex] > 1
+                    ? " \u2014 page " + pageOfGroup[pageIndex] + " of " + pagesInGroup[pageIndex] : "";
+            page.text(SMALL_FONT, entriesInGroup(pageIndex) + " students" + continued, m.left, y);
+            y += m.smallHeight;
+
+            y += m.rowHeight;
+            for (int c = 0; c < LIST_HEADERS.length; c++) {
+                page.text(HEADING_FONT, LIST_HEADERS[c], m.columnX[c] + m.padding, y);
+            }
+            page.rule(m.left, y + m.bodyDescent + 1, m.left + m.width, 1f);
+            for (int r = 0; r < pageRows[pageIndex]; r++) {
+                Entry e = entries[first + r];
+                y += m.rowHeight;
+                int number = first + r - groupStart(pageIndex) + 1;
+                String[] cells = {Integer.toString(number), e.lrn, e.listName, e.sex, e.age, ""};
+                for (int c = 0; c < cells.length; c++) {
+                    String cell = fit(cells[c], BODY_FONT, m.columnWidth[c] - 2 * m.padding);
+                    page.text(BODY_FONT, cell, m.columnX[c] + m.padding, y);
+                }
+                page.rule(m.left, y + m.bodyDescent + 1, m.left + m.width, 0.25f);
+            }
+        } else {
+            Entry e = entries[first];
+            page.text(TITLE_FONT, "Student Information Sheet", m.left, y);
+            y += m.titleDescent + m.smallHeight;
+            page.text(SMALL_FONT, fit(e.fullName, SMALL_FONT, m.width), m.left, y);
+            y += m.smallHeight + m.rowHeight;
+            String[] values = {e.lrn, e.lastName, e.firstName, e.middleName, e.sex, e.age, e.gradeLevel, e.section, e.trackAndStrand};
+            float valueX = m.left + m.width * 0.3f;
+            for (int i = 0; i < SHEET_LABELS.length; i++) {
+                y += m.rowHeight * 1.4f;
+                page.text(HEADING_FONT, SHEET_LABELS[i], m.left, y);
+                page.text(BODY_FONT, fit(values[i], BODY_FONT, m.left + m.width - valueX), valueX, y);
+                page.rule(valueX, y + m.bodyDescent + 1, m.left + m.width, 0.25f);
+            }
+            y += m.rowHeight * 2.5f;
+            page.text(HEADING_FONT, "Remarks", m.left, y);
+            for (y += m.rowHeight * 1.6f; y < m.footerY - m.rowHeight; y += m.rowHeight * 1.6f) {
+                page.rule(m.left, y, m.left + m.width, 0.25f);
+            }
+        }
+
+        // Footer: job title and date on the left, page number on the right
+        page.rule(m.left, m.footerY - m.smallHeight, m.left + m.width, 0.5f);
+        page.text(SMALL_FONT, kind.getTitle() + " \u00B7 printed " + printedOn, m.left, m.footerY);
+        String number = "Page " + (pageIndex + 1) + " of " + getNumberOfPages();
+        page.text(SMALL_FONT, number, m.left + m.width - width(number, SMALL_FONT), m.footerY);
+        return page;
+    }
+
+    private int groupStart(int pageIndex) {
+        return pageStart[pageIndex - (pageOfGroup[pageIndex] - 1)];
+    }
+
+    private int entriesInGroup(int pageIndex) {
+        int lastPage = pageIndex + pagesInGroup[pageIndex] - pageOfGroup[pageIndex];
+        return pageStart[lastPage] + pageRows[lastPage] - groupStart(pageIndex);
+    }
+
+    /**
+     * Shortens a string with an ellipsis until it fits a width.
+     */
+    private static String fit(String text, Font font, float maxWidth) {
+        if (text == null || text.isEmpty() || width(text, font) <= maxWidth) {
+            return text == null ? "" : text;
+        }
+        int low = 0, high = text.length(); // Longest prefix that fits, by binary search
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (width(text.substring(0, mid) + "\u2026", font) <= maxWidth) low = mid;
+            else high = mid - 1;
+        }
+        return text.substring(0, low).trim() + "\u2026";
+    }
+
+    private static float width(String text, Font font) {
+        return (float) font.getStringBounds(text, FRC).getWidth();
+    }
+
+    /**
+     * PageGeometry Class
+     * Positions and sizes shared by every page of a job, measured once.
+     */
+    private static final class PageGeometry {
+        final float left, top, width, footerY;
+        final float titleAscent, titleDescent, smallHeight, bodyDescent, rowHeight, padding;
+        final int rowsPerPage;
+        final float[] columnX = new float[LIST_WIDTHS.length];
+        final float[] columnWidth = new float[LIST_WIDTHS.length];
+
+        PageGeometry(PageFormat format) {
+            left = (float) format.getImageableX();
+            top = (float) format.getImageableY();
+            width = (float) format.getImageableWidth();
+            float height = (float) format.getImageableHeight();
+            titleAscent = TITLE_FONT.getLineMetrics("Ag", FRC).getAscent();
+            titleDescent = TITLE_FONT.getLineMetrics("Ag", FRC).getDescent();
+            smallHeight = SMALL_FONT.getLineMetrics("Ag", FRC).getHeight() * 1.3f;
+            bodyDescent = BODY_FONT.getLineMetrics("Ag", FRC).getDescent();
+            rowHeight = BODY_FONT.getLineMetrics("Ag", FRC).getHeight() * 1.5f;
+            padding = 3;
+            footerY = top + height - SMALL_FONT.getLineMetrics("Ag", FRC).getDescent();
+
+            // Title, count line and header row above the table; a footer line below
+            float tableTop = top + titleAscent + titleDescent + 2 * smallHeight + rowHeight;
+            float tableBottom = footerY - 2 * smallHeight;
+            rowsPerPage = Math.max(1, (int) ((tableBottom - tableTop) / rowHeight));
+
+            float x = left;
+            for (int c = 0; c < LIST_WIDTHS.length; c++) {
+                columnX[c] = x;
+                columnWidth[c] = width * LIST_WIDTHS[c];
+                x += columnWidth[c];
+            }
+        }
+    }
+
+    /**
+     * Entry Class
+     * The printed values of one student, copied from its Student.
+     */
+    private static final class Entry {
+        final String lrn, lastName, firstName, middleName, fullName, listName;
+        final String sex, age, gradeLevel, section, trackAndStrand;
+
+        Entry(Student s) {
+            lrn = nullToEmpty(s.getLrn());
+            lastName = nullToEmpty(s.getLastName());
+            firstName = nullToEmpty(s.getFirstName());
+            middleName = nullToEmpty(s.getMiddleName());
+            fullName = s.getFullName();
+            listName = lastName + ", " + firstName + (middleName.isEmpty() ? "" : " " + middleName.charAt(0) + ".");
+            sex = nullToEmpty(s.getSex());
+            age = Integer.toString(s.getAge());
+            gradeLevel = s.getGradeLevel();
+            section = s.getSection();
+            trackAndStrand = s.getTrackAndStrand();
+        }
+
+        boolean sameGroup(Entry other) {
+            return Objects.equals(gradeLevel, other.gradeLevel) && Objects.equals(section, other.section)
+                    && Objects.equals(trackAndStrand, other.trackAndStrand);
+        }
+
+        String groupTitle() {
+            StringBuilder title = new StringBuilder(gradeLevel == null ? "?" : gradeLevel); // As the school form records it
+            if (section != null) title.append(" \u2013 ").append(section);
+            if (trackAndStrand != null) title.append(" (").append(trackAndStrand).append(')');
+            return title.toString();
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+
+    /**
+     * ReportPage Class
+     * A laid-out page: strings at fixed positions and horizontal rules.
+     */
+    static final class ReportPage {
+        private final List<Text> texts = new ArrayList<>();
+        private final List<float[]> rules = new ArrayList<>(); // {x1, y, x2, thickness}
+
+        void text(Font font, String text, float x, float y) {
+            if (!text.isEmpty()) texts.add(new Text(font, text, x, y));
+        }
+
+        void rule(float x1, float y, float x2, float thickness) {
+            rules.add(new float[]{x1, y, x2, thickness});
+        }
+
+        int size() {
+            return texts.size() + rules.size();
+        }
+
+        void paint(Graphics2D g) {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setColor(Color.GRAY);
+            for (float[] rule : rules) {
+                g.setStroke(new BasicStroke(rule[3]));
+                g.draw(new Line2D.Float(rule[0], rule[1], rule[2], rule[1]));
+            }
+            g.setColor(Color.BLACK);
+            for (Text text : texts) {
+                g.setFont(text.font);
+                g.drawString(text.text, text.x, text.y);
+            }
+        }
+
+        private static final class Text {
+            final Font font;
+            final String text;
+            final float x, y;
+
+            Text(Font font, String text, float x, float y) {
+                this.font = font;
+                this.text = text;
+                this.x = x;
+                this.y = y;
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package tableList;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * StudentResultCache Class
+ * Remembers recent query results (pages of students and row counts) per
+ * normalized filter, so flipping back to a grade or section viewed a moment
+ * ago is answered without touching the database.
+ * <p>
+ * Entries expire after a fixed time to live, and the least recently used
+ * entries are evicted once the estimated size of all cached students exceeds
+ * the byte budget. Anything that changes student data should call one of the
+ * invalidate methods.
+ * </p>
+ */
+class StudentResultCache {
+    // Rough per-object costs on a 64-bit JVM with compressed pointers
+    private static final long VIEW_BYTES = 24; // A Student view; the values live in its StudentStore
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // Access order for LRU
+    private long currentBytes;
+
+    // Statistics, guarded by this
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * @param maxBytes  Upper bound on the estimated memory held by cached results.
+     * @param ttlMillis How long a result may be served after it was fetched.
+     */
+    StudentResultCache(long maxBytes, long ttlMillis) {
+        if (maxBytes <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Invalid cache bounds: maxBytes=" + maxBytes + ", ttlMillis=" + ttlMillis);
+        }
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets a cached page of students. A page that was not cached itself is cut
+     * from a cached page of another size that holds all of its rows, so
+     * switching to a smaller page size, or to "All" for a result that fit on
+     * one page, needs no query.
+     * @param filter   The normalized filter.
+     * @param page     The 1-based page number.
+     * @param pageSize The page size, or Integer.MAX_VALUE for all students.
+     * @return The students, or null if not cached.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<Student> getPage(FilterKey filter, int page, int pageSize) {
+        Key key = new Key(filter, page, pageSize);
+        if (entries.containsKey(key)) {
+            return (List<Student>) get(key);
+        }
+        long from = (page - 1L) * pageSize;
+        long to = from + pageSize;
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            Key k = e.getKey();
+            if (k.pageSize == 0 || !k.filter.equals(filter) || System.nanoTime() - e.getValue().storedAt > ttlNanos) {
+                continue; // A count, another filter, or expired
+            }
+            List<Student> students = (List<Student>) e.getValue().value;
+            long start = (k.page - 1L) * k.pageSize;
+            long end = start + students.size();
+            boolean last = students.size() < k.pageSize; // Nothing follows this page
+            if (from >= start && (to <= end || last)) {
+                get(k); // Counts the hit and marks the page recently used
+                int sliceFrom = (int) Math.min(from - start, students.size());
+                int sliceTo = (int) Math.min(to - start, students.size());
+                return students.subList(sliceFrom, sliceTo);
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches a page of students.
+     * @param filter   The normalized filter.
+     * @param page     The 1-based page number.
+     * @param pageSize The page size, or Integer.MAX_VALUE for all students.
+     * @param students The students on that page.
+     */
+    void putPage(FilterKey filter, int page, int pageSize, List<Student> students) {
+        long bytes = filter.estimateBytes();
+        Set<StudentStore> stores = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Student s : students) {
+            bytes += VIEW_BYTES;
+            if (stores.add(s.getStore())) {
+                bytes += s.getStore().estimateBytes();
+            }
+        }
+        put(new Key(filter, page, pageSize), Collections.unmodifiableList(students), bytes);
+    }
+
+    /**
+     * Gets the cached number of students matching a filter.
+     * @param filter The normalized filter.
+     * @return The count, or -1 if not cached.
+     */
+    int getCount(FilterKey filter) {
+        Integer count = (Integer) get(new Key(filter, 0, 0));
+        return count == null ? -1 : count;
+    }
+
+    /**
+     * Caches the number of students matching a filter.
+     * @param filter The normalized filter.
+     * @param count  The count.
+     */
+    void putCount(FilterKey filter, int count) {
+        put(new Key(filter, 0, 0), count, filter.estimateBytes());
+    }
+
+    /**
+     * Drops every cached result, e.g. after students were added or edited.
+     */
+    synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * Drops the cached results for one filter.
+     * @param filter The normalized filter.
+     */
+    void invalidate(FilterKey filter) {
+        invalidateIf(filter::equals);
+    }
+
+    /**
+     * Drops the cached results of every filter matching the condition, e.g.
+     * all filters on a section whose roster changed.
+     * @param condition Selects the filters to drop.
+     */
+    synchronized void invalidateIf(Predicate<FilterKey> condition) {
+        for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (condition.test(e.getKey().filter)) {
+                currentBytes -= e.getValue().bytes;
+                invalidations++;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters, for tuning the size and TTL.
+     * @return A snapshot of the cache statistics.
+     */
+    synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), currentBytes, maxBytes, hits, misses, evictions, expirations, invalidations);
+    }
+
+    private synchronized Object get(Key key) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - e.storedAt > ttlNanos) {
+            entries.remove(key);
+            currentBytes -= e.bytes;
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.value;
+    }
+
+    private synchronized void put(Key key, Object value, long bytes) {
+        bytes += ENTRY_OVERHEAD_BYTES;
+        if (bytes > maxBytes) return; // Would evict everything else for one result; not worth caching
+        Entry previous = entries.put(key, new Entry(value, bytes, System.nanoTime()));
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += bytes;
+
+        // Least recently used entries come first in access order
+        for (Iterator<Entry> it = entries.values().iterator(); currentBytes > maxBytes && it.hasNext(); ) {
+            Entry eldest = it.next();
+            currentBytes -= eldest.bytes;
+            evictions++;
+            it.remove();
+        }
+    }
+
+    static long stringBytes(String s) {
+        return s == null ? 0 : STRING_OVERHEAD_BYTES + 2L * s.length();
+    }
+
+    private static final class Key {
+        final FilterKey filter;
+        final int page;
+        final int pageSize; // 0 for the row count
+
+        Key(FilterKey filter, int page, int pageSize) {
+            this.filter = filter;
+            this.page = page;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return page == k.page && pageSize == k.pageSize && filter.equals(k.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return (filter.hashCode() * 31 + page) * 31 + pageSize;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long bytes;
+        final long storedAt;
+
+        Entry(Object value, long bytes, long storedAt) {
+            this.value = value;
+            this.bytes = bytes;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * CacheStats Class
+     * Immutable snapshot of cache occupancy and hit/miss/eviction counters.
+     */
+    static final class CacheStats {
+        private final int entryCount;
+        private final long estimatedBytes;
+        private final long maxBytes;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        CacheStats(int entryCount, long estimatedBytes, long maxBytes, long hits, long misses,
+                   long evictions, long expirations, long invalidations) {
+            this.entryCount = entryCount;
+            this.estimatedBytes = estimatedBytes;
+            this.maxBytes = maxBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public int getEntryCount() { return entryCount; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+        public long getMaxBytes() { return maxBytes; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        /**
+         * Gets the fraction of lookups answered from the cache.
+         * @return A value between 0 and 1.
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats[entries=%d, bytes=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, " +
+                            "evictions=%d, expirations=%d, invalidations=%d]",
+                    entryCount, estimatedBytes, maxBytes, hits, misses, getHitRatio(),
+                    evictions, expirations, invalidations);
+        }
+    }
+}
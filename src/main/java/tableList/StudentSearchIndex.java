@@ -0,0 +1,335 @@
+package tableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * StudentSearchIndex Class
+ * In-memory trigram index over student LRNs and names, used for
+ * search-as-you-type. It answers the same question as the database search:
+ * does the term occur in the LRN, first, last or middle name, in
+ * "First Last", or in "Last, First" (case-insensitive)?
+ * <p>
+ * Every three-character substring of those fields maps to the ids of the
+ * students containing it. A query of three or more characters intersects
+ * the lists of its two rarest trigrams and confirms each candidate with a
+ * substring check. Shorter queries fall back to a scan.
+ * </p>
+ * <p>
+ * The index can be updated in place: {@link #upsert(Student)},
+ * {@link #remove(String)} and {@link #refresh(Collection)} touch only the
+ * students that changed. It is not thread-safe; build it on one thread and
+ * hand it to the event dispatch thread.
+ * </p>
+ */
+class StudentSearchIndex {
+    private static final char FIELD_SEPARATOR = '\u0001'; // Keeps trigrams from spanning two fields
+
+    private final List<Student> students = new ArrayList<>(); // Indexed by document id; null once removed
+    private final List<String> texts = new ArrayList<>();     // Lower-cased searchable text per document
+    private final LrnIndex idByLrn = new LrnIndex(1024);
+    private final PostingMap postings = new PostingMap();
+    private int removedCount = 0;
+
+    /**
+     * Builds an index over the given students.
+     * @param initial The students to index.
+     */
+    public StudentSearchIndex(Collection<Student> initial) {
+        for (Student s : initial) {
+            upsert(s);
+        }
+    }
+
+    /**
+     * Gets the number of indexed students.
+     * @return The live document count.
+     */
+    public int size() {
+        return idByLrn.size();
+    }
+
+    /**
+     * Adds a student, or replaces the indexed copy if the LRN is already present.
+     * @param student The student to index.
+     */
+    public void upsert(Student student) {
+        int existing = idByLrn.get(student.getLrn());
+        if (existing != LrnIndex.MISSING) {
+            if (student.equals(students.get(existing))) {
+                return; // Unchanged
+            }
+            removeDocument(existing);
+        }
+        int id = students.size();
+        String text = searchableText(student);
+        students.add(student);
+        texts.add(text);
+        idByLrn.put(student.getLrn(), id);
+
+        // Sort the document's trigrams so each is posted once
+        long[] trigrams = new long[Math.max(0, text.length() - 2)];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = trigram(text, i);
+        }
+        Arrays.sort(trigrams);
+        for (int i = 0; i < trigrams.length; i++) {
+            long trigram = trigrams[i];
+            if (trigram >= 0 && (i == 0 || trigram != trigrams[i - 1])) {
+                postings.getOrCreate(trigram).add(id); // Ids only grow, so lists stay sorted
+            }
+        }
+    }
+
+    /**
+     * Looks up an indexed student by LRN in constant time.
+     * @param lrn The LRN.
+     * @return The student, or null if not indexed.
+     */
+    public Student get(String lrn) {
+        int id = idByLrn.get(lrn);
+        return id == LrnIndex.MISSING ? null : students.get(id);
+    }
+
+    /**
+     * Removes a student from the index.
+     * @param lrn The LRN of the student to remove.
+     * @return True if the student was indexed.
+     */
+    public boolean remove(String lrn) {
+        int id = idByLrn.get(lrn);
+        if (id == LrnIndex.MISSING) return false;
+        removeDocument(id);
+        return true;
+    }
+
+    /**
+     * Brings the index in line with a fresh copy of the data, re-indexing only
+     * students that were added or changed and dropping ones that disappeared.
+     * @param snapshot The complete current set of students.
+     */
+    public void refresh(Collection<Student> snapshot) {
+        LrnIndex present = new LrnIndex(snapshot.size());
+        for (Student s : snapshot) {
+            present.put(s.getLrn(), 0);
+            upsert(s);
+        }
+        List<String> gone = new ArrayList<>();
+        for (Student s : students) {
+            if (s != null && !present.contains(s.getLrn())) {
+                gone.add(s.getLrn());
+            }
+        }
+        for (String lrn : gone) {
+            remove(lrn);
+        }
+    }
+
+    /**
+     * Finds the students whose LRN or name contains the term.
+     * @param term The text typed by the user.
+     * @return The matching students, in the order they were indexed.
+     */
+    public List<Student> search(String term) {
+        String query = term == null ? "" : term.trim().toLowerCase();
+        List<Student> results = new ArrayList<>();
+        if (query.isEmpty()) {
+            return all();
+        }
+        if (query.length() < 3) {
+            for (int id = 0; id < students.size(); id++) {
+                if (students.get(id) != null && texts.get(id).contains(query)) {
+                    results.add(students.get(id));
+                }
+            }
+            return results;
+        }
+
+        // Find the two rarest trigrams of the query; any trigram missing means no match
+        IntList rarest = null, second = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            long trigram = trigram(query, i);
+            IntList list = trigram < 0 ? null : postings.get(trigram);
+            if (list == null) {
+                return results;
+            }
+            if (rarest == null || list.size < rarest.size) {
+                second = rarest;
+                rarest = list;
+            } else if (list != rarest && (second == null || list.size < second.size)) {
+                second = list;
+            }
+        }
+
+        // Intersect those two lists, then confirm candidates against the full text.
+        // Past two lists, checking the text is cheaper than walking more postings.
+        int cursor = 0;
+        for (int i = 0; i < rarest.size; i++) {
+            int id = rarest.values[i];
+            if (second != null) {
+                cursor = second.seek(cursor, id);
+                if (cursor >= second.size || second.values[cursor] != id) {
+                    continue;
+                }
+            }
+            Student student = students.get(id);
+            if (student != null && texts.get(id).contains(query)) {
+                results.add(student);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets every indexed student.
+     * @return The students, in the order they were indexed.
+     */
+    public List<Student> all() {
+        List<Student> results = new ArrayList<>(idByLrn.size());
+        for (Student s : students) {
+            if (s != null) results.add(s);
+        }
+        return results;
+    }
+
+    private void removeDocument(int id) {
+        idByLrn.remove(students.get(id).getLrn());
+        students.set(id, null);
+        texts.set(id, null);
+        removedCount++;
+        // Posting lists keep dead ids until enough pile up to be worth a rebuild
+        if (removedCount > 1024 && removedCount > idByLrn.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<Student> live = all();
+        students.clear();
+        texts.clear();
+        idByLrn.clear();
+        postings.clear();
+        removedCount = 0;
+        for (Student s : live) {
+            upsert(s);
+        }
+    }
+
+    private static String searchableText(Student s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(nullToEmpty(s.getLrn())).append(FIELD_SEPARATOR)
+          .append(nullToEmpty(s.getFirstName())).append(' ').append(nullToEmpty(s.getLastName())).append(FIELD_SEPARATOR)
+          .append(nullToEmpty(s.getLastName())).append(", ").append(nullToEmpty(s.getFirstName())).append(FIELD_SEPARATOR)
+          .append(s.getMiddleName());
+        return sb.toString().toLowerCase();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Packs three characters into one key.
+     * @return The key, or -1 if the trigram spans a field separator.
+     */
+    private static long trigram(String text, int start) {
+        char a = text.charAt(start), b = text.charAt(start + 1), c = text.charAt(start + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) return -1;
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Growable sorted list of document ids.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Finds the first position at or after from whose id is at least target,
+         * galloping so long lists are skipped in logarithmic steps.
+         * @return The position, or size if every remaining id is smaller.
+         */
+        int seek(int from, int target) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && values[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int pos = Arrays.binarySearch(values, low, Math.min(high + 1, size), target);
+            return pos < 0 ? -pos - 1 : pos;
+        }
+    }
+
+    /**
+     * Open-addressing map from packed trigram to posting list, avoiding a
+     * boxed key per posting while the index is built.
+     */
+    private static final class PostingMap {
+        private long[] keys = new long[1024];
+        private IntList[] lists = new IntList[1024];
+        private int size;
+
+        IntList get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return lists[i];
+            }
+            return null;
+        }
+
+        IntList getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            for (; lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return lists[i];
+            }
+            IntList list = new IntList();
+            keys[i] = key;
+            lists[i] = list;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return list;
+        }
+
+        void clear() {
+            Arrays.fill(lists, null);
+            size = 0;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            IntList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new IntList[oldLists.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldLists[j] == null) continue;
+                int i = mix(oldKeys[j]) & mask;
+                while (lists[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                lists[i] = oldLists[j];
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package tableList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * StudentSnapshot Class
+ * A copy of the full student list and the lookup values on local disk, so
+ * the next launch can show students before the database has answered.
+ * <p>
+ * The file is compact binary: each dictionary of the store (names, sexes,
+ * grade levels, sections, tracks/strands) is written once, then each student
+ * as its LRN key and dictionary codes, in display order. It is read in one
+ * pass into a buffer and checked against a CRC-32 trailer; a missing,
+ * foreign or damaged file reads as no snapshot.
+ * </p>
+ * <p>
+ * Each snapshot records the data version it was taken at (see
+ * {@link DatabaseManager#getDataVersion()}), so it can be reconciled with
+ * the database once that is reachable. Files are written to a temporary name
+ * and moved into place, readable by the owner only where the file system allows.
+ * </p>
+ * <p>
+ * Snapshots are off unless the {@code studentviewer.snapshot} system property
+ * names a file, or is "on" for {@code ~/.student-viewer/students.snapshot}:
+ * taking one loads every student into memory and puts student records on disk.
+ * </p>
+ */
+final class StudentSnapshot {
+    private static final int MAGIC = 0x53565331; // "SVS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StudentStore store;
+    private final LookupCache.Lookups lookups;
+    private final String dataVersion;
+    private final long savedAtMillis;
+
+    private StudentSnapshot(StudentStore store, LookupCache.Lookups lookups, String dataVersion, long savedAtMillis) {
+        this.store = store;
+        this.lookups = lookups;
+        this.dataVersion = dataVersion;
+        this.savedAtMillis = savedAtMillis;
+    }
+
+    /** @return The students, in display order. */
+    StudentStore getStore() { return store; }
+    LookupCache.Lookups getLookups() { return lookups; }
+    String getDataVersion() { return dataVersion; }
+    long getSavedAtMillis() { return savedAtMillis; }
+
+    /**
+     * Gets where snapshots are kept.
+     * @return The file, or null if snapshots are not turned on.
+     */
+    static Path configuredPath() {
+        String setting = System.getProperty("studentviewer.snapshot");
+        if (setting == null || setting.trim().isEmpty()
+                || "off".equalsIgnoreCase(setting) || "false".equalsIgnoreCase(setting)) {
+            return null;
+        }
+        if ("on".equalsIgnoreCase(setting) || "true".equalsIgnoreCase(setting)) {
+            return Paths.get(System.getProperty("user.home"), ".student-viewer", "students.snapshot");
+        }
+        return Paths.get(setting);
+    }
+
+    /**
+     * Writes the live students of a filter engine. Call on the thread that
+     * owns the engine, or before the engine is shared.
+     * @param file        The snapshot file; replaced.
+     * @param engine      The full student list.
+     * @param lookups     The lookup values.
+     * @param dataVersion The data version the students are current as of.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path file, StudentFilterEngine engine, LookupCache.Lookups lookups, String dataVersion) throws IOException {
+        StudentStore store = engine.getStore();
+        int[] rows = engine.inDisplayOrder(engine.liveRows());
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "." + file.getFileName(), ".part");
+        boolean done = false;
+        try {
+            try {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------")); // Student records
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system; the home directory's permissions apply
+            }
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                writeString(out, dataVersion);
+
+                out.writeInt(lookups.getMinAge());
+                out.writeInt(lookups.getMaxAge());
+                List<String[]> combinations = lookups.getCombinations();
+                out.writeInt(combinations.size());
+                for (String[] combination : combinations) {
+                    for (String value : combination) writeString(out, value);
+                }
+
+                writeDictionary(out, store.getNames());
+                writeDictionary(out, store.getSexes());
+                writeDictionary(out, store.getGradeLevels());
+                writeDictionary(out, store.getSections());
+                writeDictionary(out, store.getTrackStrands());
+                out.writeInt(rows.length);
+                for (int row : rows) {
+                    long key = LrnKey.encode(store.getLrn(row));
+                    out.writeLong(key);
+                    if (key == LrnKey.NONE) writeString(out, store.getLrn(row));
+                    out.writeInt(store.getLastNameId(row));
+                    out.writeInt(store.getFirstNameId(row));
+                    out.writeInt(store.getMiddleNameId(row));
+                    out.writeByte(store.getSexCode(row));
+                    out.writeByte(store.getAge(row));
+                    out.writeByte(store.getGradeLevelCode(row));
+                    out.writeShort(store.getSectionCode(row));
+                    out.writeShort(store.getTrackStrandCode(row));
+                }
+                out.flush();
+                long checksum = crc.getValue();
+                out.writeLong(checksum); // Trailer; not part of the checksum itself
+                out.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            done = true;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot.
+     * @param file The snapshot file.
+     * @return The snapshot, or null if there is none or it cannot be used.
+     */
+    static StudentSnapshot read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 16 || size > Integer.MAX_VALUE) return null;
+            // Read onto the heap rather than mapped: a mapping lives until GC, and on
+            // Windows a mapped file cannot be replaced by the next write()
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining()) {
+                if (channel.read(data) < 0) return null; // Shrank while being read
+            }
+            data.flip();
+
+            ByteBuffer content = data.duplicate();
+            content.limit((int) size - 8);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if (crc.getValue() != data.getLong((int) size - 8)) return null; // Damaged or cut short
+
+            ByteBuffer in = data.duplicate();
+            in.limit((int) size - 8);
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) return null;
+            long savedAt = in.getLong();
+            String dataVersion = readString(in);
+
+            int[] ages = {in.getInt(), in.getInt()};
+            int combinationCount = in.getInt();
+            List<String[]> combinations = new ArrayList<>(combinationCount);
+            for (int i = 0; i < combinationCount; i++) {
+                combinations.add(new String[]{readString(in), readString(in), readString(in)});
+            }
+
+            String[] names = readDictionary(in);
+            String[] sexes = readDictionary(in);
+            String[] gradeLevels = readDictionary(in);
+            String[] sections = readDictionary(in);
+            String[] trackStrands = readDictionary(in);
+            int count = in.getInt();
+            StudentStore store = new StudentStore(count);
+            for (int i = 0; i < count; i++) {
+                long key = in.getLong();
+                String lrn = key == LrnKey.NONE ? readString(in) : LrnKey.decode(key);
+                String lastName = names[in.getInt()];
+                String firstName = names[in.getInt()];
+                String middleName = names[in.getInt()];
+                String sex = sexes[in.get() & 0xFF];
+                int age = in.get() & 0xFF;
+                String gradeLevel = gradeLevels[in.get() & 0xFF];
+                String section = sections[in.getShort() & 0xFFFF];
+                String trackStrand = trackStrands[in.getShort() & 0xFFFF];
+                store.add(lrn, lastName, firstName, middleName, sex, age, gradeLevel, section, trackStrand);
+            }
+            return new StudentSnapshot(store, new LookupCache.Lookups(ages, combinations), dataVersion, savedAt);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            e.printStackTrace(); // Unreadable; the next full load replaces it
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the snapshot, if any.
+     * @param file The snapshot file.
+     */
+    static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, StudentStore.Dictionary dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (int code = 1; code <= dictionary.size(); code++) {
+            writeString(out, dictionary.decode(code));
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] values = new String[in.getInt() + 1]; // Code 0 is null
+        for (int code = 1; code < values.length; code++) {
+            values[code] = readString(in);
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,277 @@
+package tableList;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * StudentStore Class
+ * Holds students column by column in primitive arrays instead of one object
+ * with nine Strings per student.
+ * <p>
+ * Sex and grade level are dictionary-encoded as byte codes, section and
+ * track/strand as short codes, since each has only a handful of distinct
+ * values. Names go through a shared pool, so a common surname is stored once
+ * no matter how many students carry it. Ages are bytes, and LRNs are packed
+ * into longs with {@link LrnKey}, which also key a primitive LRN-to-row index.
+ * {@link Student} objects are flyweight views over a row.
+ * </p>
+ * <p>
+ * Rows are only ever appended. A store is filled by one thread and then handed
+ * over (e.g. through a SwingWorker); it is not safe to read while another
+ * thread is still adding rows.
+ * </p>
+ */
+class StudentStore {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Dictionary names = new Dictionary(Integer.MAX_VALUE); // First, middle and last names
+    private final Dictionary sexes = new Dictionary(256);
+    private final Dictionary gradeLevels = new Dictionary(256);
+    private final Dictionary sections = new Dictionary(65536);
+    private final Dictionary trackStrands = new Dictionary(65536);
+    private final Map<Integer, String> unpackedLrns = new HashMap<>(); // Rows whose LRN has no LrnKey
+    private final LrnIndex rowByLrn;
+
+    private long[] lrnKeys;
+    private int[] lastNames;
+    private int[] firstNames;
+    private int[] middleNames;
+    private byte[] sexCodes;
+    private byte[] ages;
+    private byte[] gradeLevelCodes;
+    private short[] sectionCodes;
+    private short[] trackStrandCodes;
+    private int size;
+
+    public StudentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of rows to allocate room for up front.
+     */
+    public StudentStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        rowByLrn = new LrnIndex(capacity);
+        lrnKeys = new long[capacity];
+        lastNames = new int[capacity];
+        firstNames = new int[capacity];
+        middleNames = new int[capacity];
+        sexCodes = new byte[capacity];
+        ages = new byte[capacity];
+        gradeLevelCodes = new byte[capacity];
+        sectionCodes = new short[capacity];
+        trackStrandCodes = new short[capacity];
+    }
+
+    /**
+     * Appends a student. Ages are kept in a byte, so one outside 0-255 is
+     * clamped rather than failing the whole load; a negative age reads as
+     * unknown (0).
+     * @return The row index of the new student.
+     * @throws IllegalStateException If a dictionary-encoded column runs out of codes.
+     */
+    public int add(String lrn, String lastName, String firstName, String middleName,
+                   String sex, int age, String gradeLevel, String section, String trackAndStrand) {
+        if (size == lrnKeys.length) {
+            grow();
+        }
+        int row = size;
+        long key = LrnKey.encode(lrn);
+        if (key == LrnKey.NONE) {
+            unpackedLrns.put(row, lrn);
+        }
+        lrnKeys[row] = key;
+        if (lrn != null) {
+            rowByLrn.put(lrn, row); // A repeated LRN resolves to its latest row
+        }
+        lastNames[row] = names.encode(lastName);
+        firstNames[row] = names.encode(firstName);
+        middleNames[row] = names.encode(middleName);
+        sexCodes[row] = (byte) sexes.encode(sex);
+        ages[row] = (byte) Math.max(0, Math.min(255, age));
+        gradeLevelCodes[row] = (byte) gradeLevels.encode(gradeLevel);
+        sectionCodes[row] = (short) sections.encode(section);
+        trackStrandCodes[row] = (short) trackStrands.encode(trackAndStrand);
+        size++;
+        return row;
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Finds a student's row by LRN in constant time. The index is maintained
+     * as rows are added, so it never needs a separate rebuild.
+     * @param lrn The LRN.
+     * @return The row index, or -1 if no student has that LRN.
+     */
+    public int findRow(String lrn) {
+        return lrn == null ? -1 : rowByLrn.get(lrn);
+    }
+
+    /**
+     * Finds a student by LRN in constant time.
+     * @param lrn The LRN.
+     * @return A view of the student, or null if no student has that LRN.
+     */
+    public Student find(String lrn) {
+        int row = findRow(lrn);
+        return row < 0 ? null : new Student(this, row);
+    }
+
+    public String getLrn(int row) {
+        long key = lrnKeys[check(row)];
+        return key == LrnKey.NONE ? unpackedLrns.get(row) : LrnKey.decode(key);
+    }
+
+    public String getLastName(int row) { return names.decode(lastNames[check(row)]); }
+    public String getFirstName(int row) { return names.decode(firstNames[check(row)]); }
+    public String getMiddleName(int row) { return names.decode(middleNames[check(row)]); }
+    public String getSex(int row) { return sexes.decode(sexCodes[check(row)] & 0xFF); }
+    public int getAge(int row) { return ages[check(row)] & 0xFF; }
+    public String getGradeLevel(int row) { return gradeLevels.decode(gradeLevelCodes[check(row)] & 0xFF); }
+    public String getSection(int row) { return sections.decode(sectionCodes[check(row)] & 0xFFFF); }
+    public String getTrackAndStrand(int row) { return trackStrands.decode(trackStrandCodes[check(row)] & 0xFFFF); }
+
+    // Raw codes and dictionaries, for evaluating filters without decoding Strings
+    int getLastNameId(int row) { return lastNames[check(row)]; }
+    int getFirstNameId(int row) { return firstNames[check(row)]; }
+    int getMiddleNameId(int row) { return middleNames[check(row)]; }
+    int getSexCode(int row) { return sexCodes[check(row)] & 0xFF; }
+    int getGradeLevelCode(int row) { return gradeLevelCodes[check(row)] & 0xFF; }
+    int getSectionCode(int row) { return sectionCodes[check(row)] & 0xFFFF; }
+    int getTrackStrandCode(int row) { return trackStrandCodes[check(row)] & 0xFFFF; }
+    Dictionary getNames() { return names; }
+    Dictionary getSexes() { return sexes; }
+    Dictionary getGradeLevels() { return gradeLevels; }
+    Dictionary getSections() { return sections; }
+    Dictionary getTrackStrands() { return trackStrands; }
+
+    /**
+     * Gets a view of one row.
+     * @param row The row index.
+     * @return A flyweight Student reading from this store.
+     */
+    public Student get(int row) {
+        return new Student(this, check(row));
+    }
+
+    /**
+     * Gets a view of all rows. The list's elements are created on access.
+     * @return A read-only list backed by this store.
+     */
+    public List<Student> asList() {
+        return new StudentList();
+    }
+
+    /**
+     * Copies the rows into a modifiable list, e.g. for sorting.
+     * @return A new list of flyweight views, in row order.
+     */
+    public List<Student> toList() {
+        List<Student> students = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            students.add(new Student(this, row));
+        }
+        return students;
+    }
+
+    /**
+     * Estimates the heap held by the store, for comparison with one Student
+     * object per row.
+     * @return The approximate size in bytes.
+     */
+    public long estimateBytes() {
+        long arrays = lrnKeys.length * 8L + (lastNames.length + firstNames.length + middleNames.length) * 4L
+                + (sexCodes.length + ages.length + gradeLevelCodes.length) + (sectionCodes.length + trackStrandCodes.length) * 2L;
+        arrays += rowByLrn.size() * 20L; // Index slots at its load factor
+        return arrays + names.estimateBytes() + sexes.estimateBytes() + gradeLevels.estimateBytes()
+                + sections.estimateBytes() + trackStrands.estimateBytes() + unpackedLrns.size() * 96L;
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+        }
+        return row;
+    }
+
+    private void grow() {
+        int capacity = lrnKeys.length + (lrnKeys.length >> 1) + 1;
+        lrnKeys = Arrays.copyOf(lrnKeys, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        middleNames = Arrays.copyOf(middleNames, capacity);
+        sexCodes = Arrays.copyOf(sexCodes, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        gradeLevelCodes = Arrays.copyOf(gradeLevelCodes, capacity);
+        sectionCodes = Arrays.copyOf(sectionCodes, capacity);
+        trackStrandCodes = Arrays.copyOf(trackStrandCodes, capacity);
+    }
+
+    private final class StudentList extends AbstractList<Student> implements RandomAccess {
+        @Override
+        public Student get(int index) {
+            return StudentStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Dictionary Class
+     * Maps each distinct String of a column to a small integer code. Code 0 is
+     * reserved for null.
+     */
+    static final class Dictionary {
+        private final int maxCodes;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary(int maxCodes) {
+            this.maxCodes = maxCodes;
+            values.add(null);
+        }
+
+        int encode(String value) {
+            if (value == null) return 0;
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (values.size() == maxCodes) {
+                    throw new IllegalStateException("More than " + (maxCodes - 1) + " distinct values");
+                }
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        /**
+         * @return The number of distinct non-null values; their codes run from 1 to size().
+         */
+        int size() {
+            return values.size() - 1;
+        }
+
+        long estimateBytes() {
+            long bytes = 0;
+            for (int i = 1; i < values.size(); i++) {
+                bytes += 40 + 2L * values.get(i).length() + 48; // The String plus its map entry and boxed code
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package tableList;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+/**
+ * StudentStreamLoader Class
+ * Loads a whole filtered student list without waiting for all of it: rows are
+ * streamed from the database in batches and handed to the event dispatch
+ * thread as they arrive, so the first page can be shown while the rest is
+ * still being read.
+ * <p>
+ * A reader thread decodes the streaming result into batches and puts them on
+ * a bounded queue. A SwingWorker takes each batch, converts it to table rows
+ * and passes it to the listener on the EDT, waiting until the EDT is done
+ * with it. When the EDT falls behind, the queue fills and the reader stops
+ * pulling rows from the server, so at most {@code queueCapacity} batches are
+ * in flight regardless of the result size.
+ * </p>
+ */
+class StudentStreamLoader {
+    private static final StudentStore END_OF_STREAM = new StudentStore(1);
+
+    private final DatabaseManager dbManager;
+    private final FilterCriteria criteria;
+    private final int batchSize;
+    private final BlockingQueue<StudentStore> queue;
+    private volatile boolean cancelled;
+    private volatile Thread reader;
+    private SwingWorker<Integer, Void> consumer;
+
+    /**
+     * @param dbManager     The database access object.
+     * @param criteria      The filters to apply. The loader keeps its own copy.
+     * @param batchSize     Students per batch and per network fetch.
+     * @param queueCapacity Batches that may wait between the reader and the EDT.
+     */
+    StudentStreamLoader(DatabaseManager dbManager, FilterCriteria criteria, int batchSize, int queueCapacity) {
+        this.dbManager = dbManager;
+        this.criteria = criteria.copy();
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Starts loading. Call on the event dispatch thread, once.
+     * @param listener Receives the batches and the end of the load, on the EDT.
+     */
+    void start(Listener listener) {
+        reader = new Thread(this::read, "student-stream-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        consumer = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws InterruptedException, InvocationTargetException {
+                int total = 0;
+                while (true) {
+                    StudentStore batch = queue.take();
+                    if (batch == END_OF_STREAM || cancelled) {
+                        return total;
+                    }
+                    List<Student> students = batch.asList();
+                    long start = Metrics.ROW_BUILD.start();
+                    List<Object[]> rows = new ArrayList<>(students.size());
+                    for (Student s : students) {
+                        rows.add(StudentTableProvider.toRow(s));
+                    }
+                    Metrics.ROW_BUILD.stop(start);
+                    total += rows.size();
+                    // Waiting for the EDT is what keeps the queue, and so memory, bounded
+                    SwingUtilities.invokeAndWait(() -> {
+                        if (!cancelled) listener.batchLoaded(batch, rows);
+                    });
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (cancelled) return;
+                int total = 0;
+                try {
+                    total = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopReader();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    stopReader(); // Nothing drains the queue any more
+                }
+                listener.finished(total);
+            }
+        };
+        consumer.execute();
+    }
+
+    /**
+     * Stops the load. The listener is not called again.
+     */
+    void cancel() {
+        stopReader();
+        if (consumer != null) {
+            consumer.cancel(true);
+        }
+    }
+
+    /**
+     * Stops the reader, so it does not wait on a queue nobody takes from and
+     * releases its connection.
+     */
+    private void stopReader() {
+        cancelled = true;
+        Thread r = reader;
+        if (r != null) {
+            dbManager.cancelQuery(r);
+            r.interrupt();
+        }
+    }
+
+    private void read() {
+        try {
+            dbManager.streamStudents(criteria, batchSize, batch -> {
+                if (cancelled) throw new InterruptedException();
+                queue.put(batch);
+            });
+        } catch (InterruptedException e) {
+            // Cancelled; the consumer was cancelled as well
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // The load ends with the rows read so far
+        } finally {
+            reader = null;
+            if (!cancelled) {
+                // Always ends the stream, so the consumer stops waiting and the listener hears the end
+                try {
+                    queue.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    // Cancelled while the queue was full
+                }
+            }
+        }
+    }
+
+    /**
+     * Listener Interface
+     * Receives the progress of a load on the event dispatch thread.
+     */
+    interface Listener {
+        /**
+         * @param batch The students of the batch.
+         * @param rows  The same students as GTable rows.
+         */
+        void batchLoaded(StudentStore batch, List<Object[]> rows);
+
+        /**
+         * @param totalRows The number of students loaded.
+         */
+        void finished(int totalRows);
+    }
+}
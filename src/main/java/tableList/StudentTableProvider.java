@@ -0,0 +1,185 @@
+package tableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lyfjshs.gomis.components.table.TableDataProvider;
+
+/**
+ * StudentTableProvider Class
+ * Feeds GTable one page of students at a time from the database, so the
+ * application only holds the rows that are on screen. Pages are read through
+ * a {@link StudentPager}, which turns GTable's first/previous/next/last
+ * navigation into keyset seeks. The row count comes back with the first page,
+ * so a new filter costs a single query, and a filter viewed recently is
+ * answered from the shared {@link StudentResultCache}.
+ * <p>
+ * GTable calls the provider from background threads. Calls are serialized,
+ * and {@link #cancel()} aborts the running statement so a superseded fetch
+ * releases its connection quickly.
+ * </p>
+ */
+class StudentTableProvider implements TableDataProvider {
+    private final DatabaseManager dbManager;
+    private final FilterCriteria criteria;
+    private final StudentResultCache cache;
+    private final FilterKey filterKey;
+    private int totalRows = -1; // Counted on first use
+    private StudentPager pager;
+    private volatile List<Student> currentStudents = Collections.emptyList();
+    private volatile Thread fetchThread; // Thread running a count or fetch, for cancel()
+
+    /**
+     * @param dbManager The database access object.
+     * @param criteria  The filters to apply. The provider keeps its own copy.
+     * @param cache     Results of recent queries, shared between providers.
+     */
+    public StudentTableProvider(DatabaseManager dbManager, FilterCriteria criteria, StudentResultCache cache) {
+        this.dbManager = dbManager;
+        this.criteria = criteria.copy();
+        this.cache = cache;
+        this.filterKey = new FilterKey(this.criteria);
+    }
+
+    @Override
+    public synchronized int getRowCount() {
+        if (totalRows < 0) {
+            totalRows = cache.getCount(filterKey);
+        }
+        if (totalRows < 0) {
+            fetchThread = Thread.currentThread();
+            try {
+                int count = dbManager.getTotalStudentCount(criteria);
+                if (Thread.currentThread().isInterrupted()) {
+                    return count; // Cancelled; don't remember a possibly partial answer
+                }
+                totalRows = count;
+                cache.putCount(filterKey, count);
+            } finally {
+                fetchThread = null;
+            }
+        }
+        return totalRows;
+    }
+
+    @Override
+    public synchronized List<Object[]> fetchPage(int page, int pageSize) {
+        List<Student> students = fetchStudents(page, pageSize);
+        currentStudents = students;
+
+        long start = Metrics.ROW_BUILD.start();
+        List<Object[]> rows = new ArrayList<>(students.size());
+        for (Student s : students) {
+            rows.add(toRow(s));
+        }
+        Metrics.ROW_BUILD.stop(start);
+        return rows;
+    }
+
+    private List<Student> fetchStudents(int page, int pageSize) {
+        if (totalRows < 0) {
+            totalRows = cache.getCount(filterKey);
+        }
+        List<Student> cached = cache.getPage(filterKey, page, pageSize);
+        if (cached != null) {
+            if (pageSize != Integer.MAX_VALUE) {
+                getPager(pageSize).moveTo(page, cached); // Keep seeking from here on the next page
+            }
+            return cached;
+        }
+
+        List<Student> students;
+        if (totalRows < 0 && (page == 1 || pageSize == Integer.MAX_VALUE)) {
+            students = fetchFirstPageCounted(pageSize);
+        } else {
+            int count = getRowCount();
+            fetchThread = Thread.currentThread();
+            try {
+                if (pageSize == Integer.MAX_VALUE) {
+                    students = dbManager.getStudents(1, Integer.MAX_VALUE, criteria);
+                } else {
+                    students = getPager(pageSize).goToPage(page, count);
+                }
+            } finally {
+                fetchThread = null;
+            }
+        }
+        if (!Thread.currentThread().isInterrupted()) {
+            cache.putPage(filterKey, page, pageSize, students);
+        }
+        return students;
+    }
+
+    /**
+     * Fetches the first page and learns the row count from the same query, so
+     * the following {@link #getRowCount()} needs no round trip of its own.
+     */
+    private List<Student> fetchFirstPageCounted(int pageSize) {
+        fetchThread = Thread.currentThread();
+        try {
+            StudentPage first;
+            if (pageSize == Integer.MAX_VALUE) {
+                first = dbManager.getFirstStudentPage(pageSize, criteria);
+            } else {
+                first = getPager(pageSize).firstPageCounted();
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                totalRows = first.getTotalCount(); // A cancelled fetch's count may be partial
+                cache.putCount(filterKey, totalRows);
+            }
+            return first.getStudents();
+        } finally {
+            fetchThread = null;
+        }
+    }
+
+    private StudentPager getPager(int pageSize) {
+        if (pager == null || pager.getPageSize() != pageSize) {
+            pager = new StudentPager(dbManager, criteria, pageSize);
+        }
+        return pager;
+    }
+
+    /**
+     * Forgets the row count and keyset position, so the next fetch reads the
+     * changed data. Pair with invalidating the cached results of the filter.
+     */
+    public synchronized void invalidate() {
+        totalRows = -1;
+        pager = null;
+    }
+
+    @Override
+    public void cancel() {
+        dbManager.cancelQuery(fetchThread);
+    }
+
+    /**
+     * Gets the students on the most recently fetched page.
+     * @return The students currently displayed.
+     */
+    public List<Student> getCurrentStudents() {
+        return currentStudents;
+    }
+
+    /**
+     * Converts a student into a GTable row:
+     * Select, LRN, Name, Sex, Age, Grade, Section, Track/Strand, Actions.
+     * @param s The student.
+     * @return The row values.
+     */
+    static Object[] toRow(Student s) {
+        return new Object[]{
+            Boolean.FALSE, // For the "Select" checkbox column
+            s.getLrn(),
+            s.getFullName(),
+            s.getSex(),
+            s.getAge(),
+            s.getGradeLevel(),
+            s.getSection(),
+            s.getTrackAndStrand(),
+            "" // Placeholder for actions column, GTable's ActionManager handles rendering
+        };
+    }
+}
@@ -0,0 +1,67 @@
+-- Change log behind the viewer's incremental refresh (StudentChangeFeed).
+-- Every insert, update and delete on STUDENT and on SCHOOL_FORM appends
+-- rows here. The viewer remembers the highest
+-- CHANGE_ID it has applied and fetches only newer entries, then re-reads just
+-- the students they name. Without this table the viewer falls back to full
+-- reloads.
+--
+-- Run once against gomisdb (MariaDB 10.3+). Old entries may be pruned at any
+-- time, e.g. daily:
+--   DELETE FROM STUDENT_CHANGE_LOG WHERE CHANGED_AT < NOW() - INTERVAL 7 DAY;
+-- A viewer that falls behind the pruned range does one full reload.
+
+CREATE TABLE IF NOT EXISTS STUDENT_CHANGE_LOG (
+    CHANGE_ID   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    STUDENT_LRN VARCHAR(12) NULL,     -- Set for STUDENT changes
+    SF_ID       INT NULL,             -- Set for SCHOOL_FORM changes
+    CHANGE_TYPE CHAR(1) NOT NULL,     -- I(nsert), U(pdate), D(elete)
+    CHANGED_AT  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+DELIMITER //
+
+CREATE OR REPLACE TRIGGER STUDENT_CHANGE_INSERT AFTER INSERT ON STUDENT FOR EACH ROW
+BEGIN
+    INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE) VALUES (NEW.STUDENT_LRN, 'I');
+END //
+
+CREATE OR REPLACE TRIGGER STUDENT_CHANGE_UPDATE AFTER UPDATE ON STUDENT FOR EACH ROW
+BEGIN
+    IF NEW.STUDENT_LRN <> OLD.STUDENT_LRN THEN
+        INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE) VALUES (OLD.STUDENT_LRN, 'D');
+    END IF;
+    INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE) VALUES (NEW.STUDENT_LRN, 'U');
+END //
+
+CREATE OR REPLACE TRIGGER STUDENT_CHANGE_DELETE AFTER DELETE ON STUDENT FOR EACH ROW
+BEGIN
+    INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE) VALUES (OLD.STUDENT_LRN, 'D');
+END //
+
+-- Students of a new school form join the viewer's list
+CREATE OR REPLACE TRIGGER SCHOOL_FORM_CHANGE_INSERT AFTER INSERT ON SCHOOL_FORM FOR EACH ROW
+BEGIN
+    INSERT INTO STUDENT_CHANGE_LOG (SF_ID, CHANGE_TYPE) VALUES (NEW.SF_ID, 'I');
+END //
+
+-- A grade, section or track/strand rename changes every student in the school form.
+-- If the id changes, the students of the old id drop out of the list; they are
+-- logged by LRN, since the viewer cannot look them up by a school form that is gone.
+CREATE OR REPLACE TRIGGER SCHOOL_FORM_CHANGE_UPDATE AFTER UPDATE ON SCHOOL_FORM FOR EACH ROW
+BEGIN
+    IF NEW.SF_ID <> OLD.SF_ID THEN
+        INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE)
+            SELECT STUDENT_LRN, 'U' FROM STUDENT WHERE SF_ID = OLD.SF_ID;
+    END IF;
+    INSERT INTO STUDENT_CHANGE_LOG (SF_ID, CHANGE_TYPE) VALUES (NEW.SF_ID, 'U');
+END //
+
+-- Students of a deleted school form drop out of the list; logged by LRN as above
+CREATE OR REPLACE TRIGGER SCHOOL_FORM_CHANGE_DELETE AFTER DELETE ON SCHOOL_FORM FOR EACH ROW
+BEGIN
+    INSERT INTO STUDENT_CHANGE_LOG (STUDENT_LRN, CHANGE_TYPE)
+        SELECT STUDENT_LRN, 'U' FROM STUDENT WHERE SF_ID = OLD.SF_ID;
+    INSERT INTO STUDENT_CHANGE_LOG (SF_ID, CHANGE_TYPE) VALUES (OLD.SF_ID, 'D');
+END //
+
+DELIMITER ;